@@ -0,0 +1,18 @@
+package com.nathan.usermanagementapi.reactive;
+
+import com.nathan.usermanagementapi.config.EmailNormalizationProperties;
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+@SpringBootApplication
+// Shared with the main module, outside this package, so both apps look users up by the same canonical email
+@Import({EmailNormalizer.class, EmailNormalizationProperties.class})
+public class ReactiveUserManagementApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveUserManagementApiApplication.class, args);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.nathan.usermanagementapi.reactive.controller;
+
+import com.nathan.usermanagementapi.dto.JwtResponse;
+import com.nathan.usermanagementapi.dto.LoginRequest;
+import com.nathan.usermanagementapi.dto.MessageResponse;
+import com.nathan.usermanagementapi.dto.SignupRequest;
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import com.nathan.usermanagementapi.reactive.repository.ReactiveUserRepository;
+import com.nathan.usermanagementapi.reactive.security.JwtService;
+import com.nathan.usermanagementapi.reactive.security.ReactiveUserPrincipal;
+import com.nathan.usermanagementapi.reactive.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive controller for authentication operations, equivalent to {@code AuthController}.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveAuthenticationManager authenticationManager;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    /**
+     * Authenticates a user and returns a JWT token.
+     * Password matching runs on the bcrypt scheduler configured on the authentication manager.
+     *
+     * @param loginRequest DTO containing login credentials (email and password)
+     * @return Mono emitting the JWT token and user details, or 401 if the credentials are invalid
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return authenticationManager
+                .authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()))
+                .<ResponseEntity<?>>map(authentication -> {
+                    ReactiveUserPrincipal principal = (ReactiveUserPrincipal) authentication.getPrincipal();
+                    return ResponseEntity.ok(new JwtResponse(
+                            jwtService.generateToken(principal.getUsername()),
+                            principal.id(),
+                            principal.name(),
+                            principal.email()
+                    ));
+                })
+                .onErrorResume(AuthenticationException.class, e -> Mono.just(ResponseEntity
+                        .status(HttpStatus.UNAUTHORIZED)
+                        .body(new MessageResponse("Error: Invalid credentials"))));
+    }
+
+    /**
+     * Registers a new user in the system.
+     *
+     * @param signupRequest DTO containing user registration details (name, email, password)
+     * @return Mono emitting a success message or error details
+     */
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<MessageResponse>> registerUser(@Valid @RequestBody SignupRequest signupRequest) {
+        ResponseEntity<MessageResponse> emailInUse = ResponseEntity
+                .badRequest()
+                .body(new MessageResponse("Error: Email is already in use!"));
+
+        return userRepository.existsByEmail(emailNormalizer.normalize(signupRequest.getEmail()), signupRequest.getEmail())
+                .flatMap(exists -> exists
+                        ? Mono.just(emailInUse)
+                        : userService.createUser(signupRequest)
+                                .map(user -> ResponseEntity.ok(new MessageResponse("User registered successfully!"))))
+                // A concurrent signup may still claim the email first
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(emailInUse));
+    }
+}
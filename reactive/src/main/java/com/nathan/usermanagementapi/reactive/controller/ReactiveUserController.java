@@ -0,0 +1,72 @@
+package com.nathan.usermanagementapi.reactive.controller;
+
+import com.nathan.usermanagementapi.dto.MessageResponse;
+import com.nathan.usermanagementapi.dto.UpdateUserRequest;
+import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.reactive.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive controller for user operations, equivalent to {@code UserController}.
+ * All endpoints in this controller require JWT authentication.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/users")
+public class ReactiveUserController {
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    /**
+     * Retrieves all users in the system, streamed as they are read from the database.
+     *
+     * @return Flux of all user DTOs
+     */
+    @GetMapping
+    public Flux<UserDto> getAllUsers() {
+        return userService.getAllUsers();
+    }
+
+    /**
+     * Retrieves a specific user by ID.
+     *
+     * @param id The ID of the user to retrieve
+     * @return Mono emitting the requested user's details
+     */
+    @GetMapping("/{id}")
+    public Mono<UserDto> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id);
+    }
+
+    /**
+     * Updates an existing user with provided data.
+     *
+     * @param id The ID of the user to update
+     * @param updateUserRequest DTO containing the fields to update
+     * @return Mono emitting the updated user's details
+     */
+    @PutMapping("/{id}")
+    public Mono<UserDto> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserRequest updateUserRequest) {
+        return userService.updateUser(id, updateUserRequest)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    /**
+     * Deletes a user by ID.
+     *
+     * @param id The ID of the user to delete
+     * @return Mono emitting a success message
+     */
+    @DeleteMapping("/{id}")
+    public Mono<MessageResponse> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id).thenReturn(new MessageResponse("User deleted successfully!"));
+    }
+}
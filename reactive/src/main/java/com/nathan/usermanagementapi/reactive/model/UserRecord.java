@@ -0,0 +1,75 @@
+package com.nathan.usermanagementapi.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the users table.
+ * The reactive counterpart of the JPA {@code User} entity; the schema itself is owned by the main module.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("users")
+public class UserRecord {
+
+    /**
+     * The unique identifier for the user.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * The name of the user.
+     */
+    private String name;
+
+    /**
+     * The email address of the user.
+     */
+    private String email;
+
+    /**
+     * The canonical form of the email, the key of every lookup by email.
+     */
+    @Column("email_normalized")
+    private String emailNormalized;
+
+    /**
+     * The password hash of the user.
+     */
+    private String password;
+
+    /**
+     * The date when the user was created.
+     */
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * The date when the user was last updated.
+     */
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * The date of the user's most recent authenticated request (written by the main module only).
+     */
+    @ReadOnlyProperty
+    @Column("last_seen_at")
+    private LocalDateTime lastSeenAt;
+
+    /**
+     * The number of successful logins of the user (written by the main module only).
+     */
+    @ReadOnlyProperty
+    @Column("login_count")
+    private long loginCount;
+}
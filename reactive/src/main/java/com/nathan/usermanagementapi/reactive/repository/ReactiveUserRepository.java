@@ -0,0 +1,37 @@
+package com.nathan.usermanagementapi.reactive.repository;
+
+import com.nathan.usermanagementapi.reactive.model.UserRecord;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository interface for managing user records.
+ * Lookups by email match like the main module's {@code UserRepository}: the canonical email (see
+ * {@code EmailNormalizer}) or the email exactly as stored, the exact match winning.
+ */
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, Long> {
+
+    /**
+     * Find a user by their email address.
+     *
+     * @param normalized the canonical form of the email
+     * @param email      the email address as entered
+     * @return a Mono emitting the user if found, empty otherwise
+     */
+    @Query("SELECT * FROM users WHERE email_normalized = :normalized OR email = :email"
+            + " ORDER BY email = :email DESC LIMIT 1")
+    Mono<UserRecord> findByEmail(String normalized, String email);
+
+    /**
+     * Check if a user with the given email address exists.
+     *
+     * @param normalized the canonical form of the email
+     * @param email      the email address as entered
+     * @return a Mono emitting true if a user exists with the email, false otherwise
+     */
+    @Query("SELECT EXISTS (SELECT 1 FROM users WHERE email_normalized = :normalized OR email = :email)")
+    Mono<Boolean> existsByEmail(String normalized, String email);
+}
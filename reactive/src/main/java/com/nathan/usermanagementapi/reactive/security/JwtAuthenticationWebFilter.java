@@ -0,0 +1,53 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Reactive equivalent of {@code AuthTokenFilter}.
+ *
+ * <p>
+ * Extracts the bearer token, verifies it and loads the principal without blocking, then continues
+ * the chain with the authentication in the reactive security context. Requests without a valid
+ * token continue unauthenticated and are rejected later by the authorization rules.
+ * </p>
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    private final ReactiveUserDetailsService userDetailsService;
+
+    public JwtAuthenticationWebFilter(JwtService jwtService, ReactiveUserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String headerAuth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (headerAuth == null || !headerAuth.startsWith(BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        String username = jwtService.getUsernameIfValid(headerAuth.substring(BEARER_PREFIX.length()));
+        if (username == null) {
+            return chain.filter(exchange);
+        }
+
+        return userDetailsService.findByUsername(username)
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+}
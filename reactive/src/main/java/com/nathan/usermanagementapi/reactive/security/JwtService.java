@@ -0,0 +1,89 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies JWTs with the same secret and claims as {@code JwtUtils} of the main module
+ * in its HS256 mode, so tokens are accepted by either stack.
+ *
+ * <p>
+ * Like the main module's, access tokens are short-lived ({@code app.jwt.expiration}) and carry a
+ * random JWT id ({@code jti}); tokens without one are rejected, and tokens revoked through the main
+ * module are rejected via the {@link TokenDenylist}. The algorithm and verifier are built once;
+ * verification is a cheap HMAC and a set lookup, safe to run on the event loop.
+ * </p>
+ *
+ * <p>
+ * Only HS256 is supported: the RS256 and ES256 keys of the main module ({@code app.jwt.signing.*})
+ * are not read here, so tokens it signs in those modes could not be verified. Startup therefore
+ * fails unless {@code app.jwt.signing.algorithm}, which must match the main module's, is HS256.
+ * </p>
+ */
+@Component
+public class JwtService {
+
+    private final Algorithm algorithm;
+
+    private final JWTVerifier verifier;
+
+    private final long expirationMs;
+
+    private final TokenDenylist tokenDenylist;
+
+    public JwtService(@Value("${app.jwt.secret}") String secret,
+                      @Value("${app.jwt.expiration}") long expirationMs,
+                      @Value("${app.jwt.signing.algorithm:HS256}") String signingAlgorithm,
+                      TokenDenylist tokenDenylist) {
+        if (!"HS256".equalsIgnoreCase(signingAlgorithm)) {
+            throw new IllegalStateException("app.jwt.signing.algorithm=" + signingAlgorithm
+                    + " is not supported by the reactive module, which verifies HS256 tokens only");
+        }
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).build();
+        this.expirationMs = expirationMs;
+        this.tokenDenylist = tokenDenylist;
+    }
+
+    /**
+     * Generates a signed token for the given username.
+     *
+     * @param username the subject of the token (the user's email)
+     * @return the signed JWT
+     */
+    public String generateToken(String username) {
+        Date now = new Date();
+        return JWT.create()
+                .withSubject(username)
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(now)
+                .withExpiresAt(new Date(now.getTime() + expirationMs))
+                .sign(algorithm);
+    }
+
+    /**
+     * Verifies the token and returns its subject.
+     *
+     * @param token the JWT to verify
+     * @return the username, or null if the token is invalid, expired, has no JWT id or was revoked
+     */
+    public String getUsernameIfValid(String token) {
+        try {
+            DecodedJWT decoded = verifier.verify(token);
+            if (decoded.getId() == null || tokenDenylist.isRevoked(decoded.getId())) {
+                return null;
+            }
+            return decoded.getSubject();
+        } catch (JWTVerificationException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Runs BCrypt hashing on the bounded bcrypt scheduler instead of the event loop.
+ */
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("bcryptScheduler")
+    private Scheduler bcryptScheduler;
+
+    /**
+     * Encodes the raw password off the event loop.
+     *
+     * @param rawPassword the password to hash
+     * @return a Mono emitting the BCrypt hash
+     */
+    public Mono<String> encode(String rawPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(rawPassword)).subscribeOn(bcryptScheduler);
+    }
+}
@@ -0,0 +1,111 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration class for Spring Security on the reactive stack.
+ *
+ * This class mirrors {@code WebSecurityConfig} of the main module:
+ * - Stateless JWT authentication through {@link JwtAuthenticationWebFilter}
+ * - BCrypt password encoding, run on a bounded scheduler
+ * - Authorization rules for endpoints
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    /**
+     * Creates the password encoder bean.
+     *
+     * @return The BCrypt password encoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /**
+     * Creates the scheduler used for BCrypt hashing and matching.
+     * Hashing is CPU-bound, so the thread count defaults to the number of cores; excess work is
+     * queued up to the configured capacity and rejected beyond it.
+     *
+     * @param threads       the number of hashing threads, or 0 for one per core
+     * @param queueCapacity the maximum number of queued hashing tasks
+     * @return The bounded scheduler
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler bcryptScheduler(@Value("${app.bcrypt.threads:0}") int threads,
+                                     @Value("${app.bcrypt.queue-capacity:10000}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(size, queueCapacity, "bcrypt");
+    }
+
+    /**
+     * Creates the authentication manager used by the login endpoint.
+     *
+     * @param userDetailsService the reactive user details service
+     * @param passwordEncoder    the password encoder
+     * @param bcryptScheduler    the scheduler on which password matching runs
+     * @return The reactive authentication manager
+     */
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(ReactiveUserDetailsServiceImpl userDetailsService,
+                                                               PasswordEncoder passwordEncoder,
+                                                               Scheduler bcryptScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        manager.setScheduler(bcryptScheduler);
+        return manager;
+    }
+
+    /**
+     * Configures the security filter chain.
+     *
+     * @param http               The ServerHttpSecurity to configure
+     * @param jwtService         The JWT service used by the authentication filter
+     * @param userDetailsService The reactive user details service
+     * @param entryPoint         The entry point for unauthenticated requests
+     * @return The built security filter chain
+     */
+    @Bean
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http,
+                                                            JwtService jwtService,
+                                                            ReactiveUserDetailsServiceImpl userDetailsService,
+                                                            JsonAuthenticationEntryPoint entryPoint) {
+        return http
+                // Disable CSRF, HTTP basic and form login since we're using JWT
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+
+                // Stateless: never store the security context between requests
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+
+                // Configure exception handling for unauthorized requests
+                .exceptionHandling(exception -> exception.authenticationEntryPoint(entryPoint))
+
+                // Configure authorization rules
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/api/auth/**").permitAll()
+                        .anyExchange().authenticated())
+
+                // Add the JWT authentication filter at the authentication position
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtService, userDetailsService),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
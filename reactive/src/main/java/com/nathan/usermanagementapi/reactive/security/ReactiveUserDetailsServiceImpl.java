@@ -0,0 +1,34 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import com.nathan.usermanagementapi.reactive.repository.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class responsible for loading user details from the database without blocking.
+ * Implements the ReactiveUserDetailsService interface of Spring Security.
+ */
+@Service
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    /**
+     * Loads a user by their email, compared in canonical form.
+     *
+     * @param email the email of the user to load
+     * @return a Mono emitting the user details, empty if the user is not found
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String email) {
+        return userRepository.findByEmail(emailNormalizer.normalize(email), email).map(ReactiveUserPrincipal::build);
+    }
+}
@@ -0,0 +1,51 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nathan.usermanagementapi.reactive.model.UserRecord;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UserDetails implementation of the reactive stack, equivalent to {@code UserDetailsImpl}.
+ *
+ * @param id       the user's ID
+ * @param name     the user's name
+ * @param email    the user's email address, used as the username
+ * @param password the user's password hash
+ */
+public record ReactiveUserPrincipal(Long id, String name, String email, @JsonIgnore String password)
+        implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    /**
+     * Build a principal based on the user record.
+     *
+     * @param user the user record from which to build the principal
+     * @return the principal representing the user
+     */
+    public static ReactiveUserPrincipal build(UserRecord user) {
+        return new ReactiveUserPrincipal(user.getId(), user.getName(), user.getEmail(), user.getPassword());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        // For simplicity, all users have the same role
+        return AUTHORITIES;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        // Email is used as the username
+        return email;
+    }
+}
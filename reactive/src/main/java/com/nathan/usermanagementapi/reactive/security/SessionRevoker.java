@@ -0,0 +1,56 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ends the sessions a user opened through the main module, without blocking.
+ *
+ * <p>
+ * The main module keeps refresh tokens in the refresh_tokens table and, in opaque mode with
+ * {@code app.auth.session.persist}, sessions in the sessions table. When a user's password or email
+ * changes here, these writes do to the tables what {@code RefreshTokenService.revokeAllForUser} and
+ * {@code SessionTokenService.invalidateUser} do there, so a stolen refresh token does not survive a
+ * password reset made through either stack. Opaque sessions a running main instance holds in memory
+ * are not shared, as between two main instances: they last until they expire, but are no longer
+ * restored after a restart.
+ * </p>
+ */
+@Component
+public class SessionRevoker {
+
+    private final DatabaseClient databaseClient;
+
+    public SessionRevoker(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Revokes every refresh token of a user that is not revoked yet.
+     *
+     * @param userId the id of the user
+     * @return a Mono completing once the tokens are revoked
+     */
+    public Mono<Void> revokeRefreshTokens(Long userId) {
+        return databaseClient.sql("UPDATE refresh_tokens SET revoked_at = :now"
+                        + " WHERE user_id = :userId AND revoked_at IS NULL")
+                .bind("now", LocalDateTime.now())
+                .bind("userId", userId)
+                .then();
+    }
+
+    /**
+     * Deletes every stored session of a user.
+     *
+     * @param userId the id of the user
+     * @return a Mono completing once the sessions are deleted
+     */
+    public Mono<Void> invalidateSessions(Long userId) {
+        return databaseClient.sql("DELETE FROM sessions WHERE user_id = :userId")
+                .bind("userId", userId)
+                .then();
+    }
+}
@@ -0,0 +1,90 @@
+package com.nathan.usermanagementapi.reactive.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-only mirror of the access tokens revoked through the main module.
+ *
+ * <p>
+ * The main module's {@code TokenDenylist} records revocations in the revoked_tokens table and
+ * deletes them once the tokens have expired, so the table only holds the tokens revoked in the
+ * last access token lifetime. This class reloads their JWT ids every
+ * {@code app.jwt.denylist.sync-interval-ms} without blocking, and the check on the request path
+ * is a set lookup. A revoked token therefore stays usable here for at most one interval, as on
+ * another instance of the main module.
+ * </p>
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+    private final DatabaseClient databaseClient;
+
+    private final Duration syncInterval;
+
+    private volatile Set<String> revoked = Set.of();
+
+    private Disposable sync;
+
+    public TokenDenylist(DatabaseClient databaseClient,
+                         @Value("${app.jwt.denylist.sync-interval-ms:10000}") long syncIntervalMs) {
+        this.databaseClient = databaseClient;
+        this.syncInterval = Duration.ofMillis(syncIntervalMs);
+    }
+
+    /**
+     * Starts the periodic reload, the first one right away.
+     */
+    @PostConstruct
+    public void start() {
+        sync = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> load())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sync != null) {
+            sync.dispose();
+        }
+    }
+
+    /**
+     * Checks whether an access token has been revoked.
+     *
+     * @param jti the JWT id of the token
+     * @return true if the token was revoked and must be rejected
+     */
+    public boolean isRevoked(String jti) {
+        Set<String> current = revoked;
+        return !current.isEmpty() && current.contains(jti);
+    }
+
+    private Mono<Void> load() {
+        return databaseClient.sql("SELECT jti FROM revoked_tokens")
+                .map(row -> row.get("jti", String.class))
+                .all()
+                .collectList()
+                .doOnNext(jtis -> revoked = Set.copyOf(jtis))
+                .then()
+                // Keep serving from the previous set; the next run catches up
+                .onErrorResume(e -> {
+                    logger.error("Failed to synchronize the token denylist: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,59 @@
+package com.nathan.usermanagementapi.reactive.service;
+
+import com.nathan.usermanagementapi.dto.SignupRequest;
+import com.nathan.usermanagementapi.dto.UpdateUserRequest;
+import com.nathan.usermanagementapi.dto.UserDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive service interface for user management operations.
+ *
+ * This interface mirrors {@code UserService} of the main module with non-blocking return types:
+ * - Creating a new user
+ * - Retrieving users (all users or a specific user)
+ * - Updating an existing user
+ * - Deleting a user
+ */
+public interface ReactiveUserService {
+
+    /**
+     * Creates a new user from registration request data.
+     *
+     * @param signupRequest DTO containing user registration information
+     * @return Mono emitting the DTO of the created user
+     */
+    Mono<UserDto> createUser(SignupRequest signupRequest);
+
+    /**
+     * Retrieves all users in the system.
+     *
+     * @return Flux of all user DTOs
+     */
+    Flux<UserDto> getAllUsers();
+
+    /**
+     * Retrieves a specific user by ID.
+     *
+     * @param id The ID of the user to retrieve
+     * @return Mono emitting the DTO of the requested user, or a 404 error if it does not exist
+     */
+    Mono<UserDto> getUserById(Long id);
+
+    /**
+     * Updates an existing user with the provided data.
+     *
+     * @param id The ID of the user to update
+     * @param updateUserRequest DTO containing the update information
+     * @return Mono emitting the DTO of the updated user, or a 404 error if it does not exist
+     */
+    Mono<UserDto> updateUser(Long id, UpdateUserRequest updateUserRequest);
+
+    /**
+     * Deletes a user by ID.
+     *
+     * @param id The ID of the user to delete
+     * @return Mono completing when the user is deleted, or a 404 error if it does not exist
+     */
+    Mono<Void> deleteUser(Long id);
+}
@@ -0,0 +1,198 @@
+package com.nathan.usermanagementapi.reactive.service.impl;
+
+import com.nathan.usermanagementapi.dto.SignupRequest;
+import com.nathan.usermanagementapi.dto.UpdateUserRequest;
+import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import com.nathan.usermanagementapi.reactive.model.UserRecord;
+import com.nathan.usermanagementapi.reactive.repository.ReactiveUserRepository;
+import com.nathan.usermanagementapi.reactive.security.PasswordHasher;
+import com.nathan.usermanagementapi.reactive.security.SessionRevoker;
+import com.nathan.usermanagementapi.reactive.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Implementation of the ReactiveUserService interface on R2DBC.
+ *
+ * This class provides the same business logic as {@code UserServiceImpl} without blocking:
+ * database access goes through R2DBC and password hashing runs on the bounded bcrypt scheduler.
+ */
+@Service
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository; // Reactive repository for database operations
+
+    @Autowired
+    private PasswordHasher passwordHasher; // Hashes passwords off the event loop
+
+    @Autowired
+    private EmailNormalizer emailNormalizer; // Canonical email written next to the email, for lookups
+
+    @Autowired
+    private SessionRevoker sessionRevoker; // Ends the user's sessions on password or email change and delete
+
+    /**
+     * Creates a new user from the registration request data.
+     * The password is encrypted using BCrypt before storing.
+     *
+     * @param signupRequest DTO containing user registration information
+     * @return Mono emitting the DTO of the created user
+     */
+    @Override
+    public Mono<UserDto> createUser(SignupRequest signupRequest) {
+        return passwordHasher.encode(signupRequest.getPassword())
+                .map(hash -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    UserRecord user = new UserRecord();
+                    user.setName(signupRequest.getName());
+                    user.setEmail(signupRequest.getEmail());
+                    user.setEmailNormalized(emailNormalizer.normalize(signupRequest.getEmail()));
+                    user.setPassword(hash);
+                    user.setCreatedAt(now);
+                    user.setUpdatedAt(now);
+                    return user;
+                })
+                .flatMap(userRepository::save)
+                .map(this::mapToDto);
+    }
+
+    /**
+     * Retrieves all users from the database.
+     *
+     * @return Flux of all user DTOs
+     */
+    @Override
+    public Flux<UserDto> getAllUsers() {
+        return userRepository.findAll().map(this::mapToDto);
+    }
+
+    /**
+     * Retrieves a specific user by ID.
+     *
+     * @param id The ID of the user to retrieve
+     * @return Mono emitting the DTO of the requested user
+     */
+    @Override
+    public Mono<UserDto> getUserById(Long id) {
+        return findUser(id).map(this::mapToDto);
+    }
+
+    /**
+     * Updates an existing user with the provided data.
+     * Only fields that are provided in the request will be updated. As in {@code UserServiceImpl},
+     * a new email ends the user's stored sessions and a new password also revokes their refresh tokens.
+     *
+     * @param id The ID of the user to update
+     * @param updateUserRequest DTO containing the update information
+     * @return Mono emitting the DTO of the updated user
+     */
+    @Override
+    @Transactional
+    public Mono<UserDto> updateUser(Long id, UpdateUserRequest updateUserRequest) {
+        boolean[] emailChanged = new boolean[1];
+        return findUser(id)
+                .flatMap(user -> {
+                    // Update name if provided
+                    if (updateUserRequest.getName() != null) {
+                        user.setName(updateUserRequest.getName());
+                    }
+
+                    // Update email if provided and different from current
+                    String email = updateUserRequest.getEmail();
+                    if (email == null || email.equals(user.getEmail())) {
+                        return Mono.just(user);
+                    }
+                    // A change of case or alias of the user's own email is not a conflict
+                    String normalized = emailNormalizer.normalize(email);
+                    Mono<Boolean> taken = normalized.equals(user.getEmailNormalized())
+                            ? Mono.just(false) : userRepository.existsByEmail(normalized, email);
+                    return taken.flatMap(exists -> {
+                        if (exists) {
+                            return Mono.error(new IllegalArgumentException("Email is already in use"));
+                        }
+                        user.setEmail(email);
+                        user.setEmailNormalized(normalized);
+                        emailChanged[0] = true;
+                        return Mono.just(user);
+                    });
+                })
+                .flatMap(user -> {
+                    // Update password if provided
+                    if (updateUserRequest.getPassword() == null) {
+                        return Mono.just(user);
+                    }
+                    return passwordHasher.encode(updateUserRequest.getPassword()).map(hash -> {
+                        user.setPassword(hash);
+                        return user;
+                    });
+                })
+                .flatMap(user -> {
+                    user.setUpdatedAt(LocalDateTime.now());
+                    return userRepository.save(user);
+                })
+                // Sessions opened with the old email or password must not outlive it
+                .flatMap(user -> endSessions(user.getId(), emailChanged[0], updateUserRequest.getPassword() != null)
+                        .thenReturn(user))
+                .map(this::mapToDto);
+    }
+
+    /**
+     * Deletes a user by ID, with their refresh tokens and stored sessions.
+     *
+     * @param id The ID of the user to delete
+     * @return Mono completing when the user is deleted
+     */
+    @Override
+    @Transactional
+    public Mono<Void> deleteUser(Long id) {
+        return findUser(id).flatMap(user -> userRepository.delete(user)
+                .then(endSessions(user.getId(), true, true)));
+    }
+
+    private Mono<Void> endSessions(Long userId, boolean emailChanged, boolean passwordChanged) {
+        if (passwordChanged) {
+            return sessionRevoker.revokeRefreshTokens(userId).then(sessionRevoker.invalidateSessions(userId));
+        }
+        return emailChanged ? sessionRevoker.invalidateSessions(userId) : Mono.empty();
+    }
+
+    private Mono<UserRecord> findUser(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + id)));
+    }
+
+    /**
+     * Helper method to map a user record to UserDto.
+     * This prevents sensitive information (like password) from being exposed.
+     *
+     * @param user The user record to convert
+     * @return DTO representation of the user
+     */
+    private UserDto mapToDto(UserRecord user) {
+        return new UserDto(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                toDate(user.getCreatedAt()),
+                toDate(user.getUpdatedAt()),
+                toDate(user.getLastSeenAt()),
+                user.getLoginCount()
+        );
+    }
+
+    private static Date toDate(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+}
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Compares throughput and tail latency of the platform-thread and virtual-thread execution modes.
+#
+# Starts the packaged application once per mode against the configured Postgres database, runs the
+# load driver on /api/auth/login and /api/users, and stops the application again.
+#
+# Usage: scripts/compare-thread-modes.sh [concurrency] [duration-seconds]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY="${1:-200}"
+DURATION="${2:-30}"
+PORT=8080
+BASE_URL="http://localhost:${PORT}"
+
+./mvnw -q -DskipTests package
+JAR="$(ls target/user-management-api-*.jar | head -n 1)"
+
+wait_for_startup() {
+    for _ in $(seq 1 60); do
+        if curl -s -o /dev/null "${BASE_URL}/api-docs"; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Application did not start" >&2
+    return 1
+}
+
+for MODE in platform virtual; do
+    PROFILES="default"
+    if [ "${MODE}" = "virtual" ]; then
+        PROFILES="virtual-threads"
+    fi
+
+    echo "=== ${MODE} threads ==="
+    java -jar "${JAR}" --spring.profiles.active="${PROFILES}" --server.port="${PORT}" --app.rate-limit.enabled=false --app.load-shedding.enabled=false > "target/${MODE}-threads.log" 2>&1 &
+    APP_PID=$!
+    trap 'kill ${APP_PID} 2>/dev/null || true' EXIT
+
+    wait_for_startup
+
+    for MIX in login:1 list:1; do
+        ./mvnw -q -Ploadtest test-compile exec:java \
+            -Dloadtest.main=com.nathan.usermanagementapi.loadtest.LoadDriver \
+            -Dexec.args="--base-url=${BASE_URL} --mix=${MIX} --concurrency=${CONCURRENCY} --duration=${DURATION}"
+    done
+
+    kill "${APP_PID}"
+    wait "${APP_PID}" 2>/dev/null || true
+    trap - EXIT
+done
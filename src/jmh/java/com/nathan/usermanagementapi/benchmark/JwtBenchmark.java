@@ -0,0 +1,76 @@
+package com.nathan.usermanagementapi.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nathan.usermanagementapi.config.JwtSigningProperties;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics;
+import com.nathan.usermanagementapi.security.jwt.JwtKeyManager;
+import com.nathan.usermanagementapi.security.jwt.JwtUtils;
+import com.nathan.usermanagementapi.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks token generation, the single verification made by {@code AuthTokenFilter} per request, and the
+ * separate validate and subject calls it replaced, for each signing algorithm. Asymmetric signatures make
+ * tokens verifiable by other services but cost more CPU per verification than HMAC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    @Param({"HS256", "RS256", "ES256"})
+    private String algorithm;
+
+    private JwtUtils jwtUtils;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        JwtSigningProperties signing = new JwtSigningProperties();
+        signing.setAlgorithm(algorithm);
+        ReflectionTestUtils.setField(jwtUtils, "keyManager",
+                new JwtKeyManager(signing, "YourJWTSecretKeyHereMakeSureThisIsLongEnoughForProduction", 900000));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900000);
+        ReflectionTestUtils.setField(jwtUtils, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "Bench User", "bench@example.com", "unused",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyJwtToken() {
+        return jwtUtils.verifyJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromJwtToken() {
+        return jwtUtils.getUsernameFromJwtToken(token);
+    }
+}
@@ -0,0 +1,80 @@
+package com.nathan.usermanagementapi.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nathan.usermanagementapi.config.JwtSigningProperties;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics;
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+import com.nathan.usermanagementapi.security.jwt.JwtKeyManager;
+import com.nathan.usermanagementapi.security.jwt.JwtUtils;
+import com.nathan.usermanagementapi.security.session.SessionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request token resolution of the two token modes of {@code AuthTokenFilter}:
+ * verifying a JWT and reading its subject, against one probe of the opaque session store holding
+ * {@code sessions} live sessions. Tokens are picked at random so the store is not probed for the
+ * same entry every time. Run with several threads ({@code -t}) to see contention in the store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenResolutionBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    @Param({"10000", "1000000"})
+    private int sessions;
+
+    private JwtUtils jwtUtils;
+
+    private String[] jwts;
+
+    private SessionStore store;
+
+    private String[] sessionTokens;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyManager", new JwtKeyManager(new JwtSigningProperties(),
+                "YourJWTSecretKeyHereMakeSureThisIsLongEnoughForProduction", 900000));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900000);
+        ReflectionTestUtils.setField(jwtUtils, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        store = new SessionStore(16);
+        jwts = new String[TOKENS];
+        sessionTokens = new String[TOKENS];
+        for (int i = 0; i < sessions; i++) {
+            String token = OpaqueTokens.generate();
+            store.put(token, new SessionStore.Session((long) i, "user" + i + "@example.com", expiresAt));
+            if (i < TOKENS) {
+                sessionTokens[i] = token;
+                jwts[i] = jwtUtils.generateAccessToken("user" + i + "@example.com");
+            }
+        }
+    }
+
+    @Benchmark
+    public String jwt() {
+        // A fresh copy, as a token parsed from a request header would be
+        DecodedJWT decoded = jwtUtils.verifyJwtToken(new String(jwts[ThreadLocalRandom.current().nextInt(TOKENS)]));
+        return decoded.getSubject();
+    }
+
+    @Benchmark
+    public String opaque() {
+        // A fresh copy, so the String hash code is computed as it would be for a request header
+        SessionStore.Session session = store.get(new String(sessionTokens[ThreadLocalRandom.current().nextInt(TOKENS)]),
+                System.currentTimeMillis());
+        return session.email();
+    }
+}
@@ -0,0 +1,59 @@
+package com.nathan.usermanagementapi.service.impl;
+
+import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.model.User;
+import com.nathan.usermanagementapi.service.activity.UserActivityTracker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link UserServiceImpl#mapToDto}, run for every user returned by the user endpoints.
+ * Lives in the service implementation package because the method is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    /**
+     * Whether the user has activity that has not been flushed yet, which mapToDto merges in.
+     */
+    @Param({"false", "true"})
+    private boolean pendingActivity;
+
+    private UserServiceImpl userService;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        UserActivityTracker activityTracker = new UserActivityTracker();
+        ReflectionTestUtils.setField(activityTracker, "enabled", true);
+
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "activityTracker", activityTracker);
+
+        user = new User();
+        user.setId(1L);
+        user.setName("Bench User");
+        user.setEmail("bench@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setCreatedAt(new Date());
+        user.setUpdatedAt(new Date());
+
+        if (pendingActivity) {
+            activityTracker.recordLogin(user.getId());
+        }
+    }
+
+    @Benchmark
+    public UserDto mapToDto() {
+        return userService.mapToDto(user);
+    }
+}
@@ -0,0 +1,169 @@
+package com.nathan.usermanagementapi.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic users.
+ *
+ * <p>
+ * Seeds the users table through PostgreSQL's {@code COPY ... FROM STDIN}, streaming rows in chunks
+ * so millions of users load in seconds without materializing them in memory. For a given seed and
+ * count the generated names, emails and timestamps are always the same. Every seeded user has the
+ * password {@link #PASSWORD}, hashed once with a fixed salt, so logins in the load test pay the real
+ * BCrypt cost while the data stays reproducible.
+ * </p>
+ */
+public class DataGenerator {
+
+    /**
+     * The password of every seeded user.
+     */
+    public static final String PASSWORD = "loadtest-password";
+
+    /**
+     * The email domain of every user created by the load test.
+     */
+    public static final String EMAIL_DOMAIN = "loadtest.example";
+
+    /**
+     * Fixed BCrypt salt (cost 10, like the application's encoder) so the hash is reproducible.
+     */
+    private static final String FIXED_SALT = "$2a$10$loadtestsaltloadtestsa";
+
+    private static final int ROWS_PER_CHUNK = 10_000;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bruno", "Chloe", "Daniel", "Elena", "Felix", "Grace", "Hugo", "Irene", "Jonas",
+            "Kara", "Liam", "Maya", "Noah", "Olga", "Paul", "Quinn", "Rosa", "Samuel", "Tara"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Anders", "Bakker", "Costa", "Dubois", "Eriksen", "Fischer", "Garcia", "Hansen", "Ivanova", "Jensen",
+            "Kowalski", "Laurent", "Moreau", "Nakamura", "Okafor", "Petrov", "Rossi", "Schmidt", "Tanaka", "Weber"
+    };
+
+    private final long seed;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the seed that determines the generated data
+     */
+    public DataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the email of the seeded user with the given index.
+     *
+     * @param index the zero-based index of the user in generation order
+     * @return the email address
+     */
+    public static String seededEmail(long index) {
+        return "user" + index + "@" + EMAIL_DOMAIN;
+    }
+
+    /**
+     * Inserts {@code count} users.
+     *
+     * @param connection a connection to the application's database
+     * @param count      the number of users to generate
+     * @param truncate   whether to empty the users table first
+     * @return the range of generated ids; ids follow generation order
+     * @throws SQLException if the load fails
+     */
+    public IdRange seed(Connection connection, long count, boolean truncate) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            // Bulk load: durability of the seed data does not matter
+            statement.execute("SET LOCAL synchronous_commit = off");
+            if (truncate) {
+                statement.execute("TRUNCATE TABLE users RESTART IDENTITY CASCADE");
+            }
+
+            long before = maxId(statement);
+            copyUsers(connection, count);
+            connection.commit();
+            long after = maxId(statement);
+
+            statement.execute("ANALYZE users");
+            connection.commit();
+            return new IdRange(before + 1, after);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void copyUsers(Connection connection, long count) throws SQLException {
+        String passwordHash = BCrypt.hashpw(PASSWORD, FIXED_SALT);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY users (name, email, email_normalized, password, created_at, updated_at) FROM STDIN WITH (FORMAT csv)");
+        try {
+            StringBuilder chunk = new StringBuilder(ROWS_PER_CHUNK * 128);
+            for (long i = 0; i < count; i++) {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                LocalDateTime createdAt = EPOCH.plusSeconds(random.nextLong(365L * 24 * 3600));
+                LocalDateTime updatedAt = createdAt.plusSeconds(random.nextLong(30L * 24 * 3600));
+
+                // Seeded emails are lower-case at a domain without provider rules, so already canonical
+                chunk.append(name).append(',')
+                        .append(seededEmail(i)).append(',')
+                        .append(seededEmail(i)).append(',')
+                        .append(passwordHash).append(',')
+                        .append(createdAt).append(',')
+                        .append(updatedAt).append('\n');
+
+                if ((i + 1) % ROWS_PER_CHUNK == 0 || i == count - 1) {
+                    byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                    chunk.setLength(0);
+                }
+            }
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static long maxId(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM users")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Inclusive range of generated user ids.
+     *
+     * @param min the first generated id
+     * @param max the last generated id
+     */
+    public record IdRange(long min, long max) {
+
+        @Override
+        public String toString() {
+            return min + ".." + max + " (" + Math.max(0, max - min + 1) + " users)";
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.nathan.usermanagementapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load driver for a running instance of the API.
+ *
+ * <p>
+ * Runs a fixed number of concurrent clients for a fixed duration. Each client repeatedly picks an
+ * operation from a weighted mix of login, signup, list, get, update and delete, executes it against
+ * {@code AuthController} or {@code UserController}, and records its latency in an HdrHistogram.
+ * The mix is deterministic for a given seed. Users seeded by {@link DataGenerator} are used as login
+ * accounts and as targets of get, update and delete; deletes only consume the top tenth of the
+ * seeded id range so the other operations keep finding their targets.
+ * </p>
+ *
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:java -Dloadtest.main=com.nathan.usermanagementapi.loadtest.LoadDriver \
+ *     -Dexec.args="--concurrency=200 --duration=60 --read-write-ratio=90:10 --id-min=1 --id-max=1000000"
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Highest latency the histograms can record; slower requests are clamped to it.
+     */
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String DRIVER_EMAIL = "driver@" + DataGenerator.EMAIL_DOMAIN;
+
+    /**
+     * The operations the driver can issue.
+     */
+    enum Operation {
+        LOGIN(true, 5),
+        LIST(true, 1),
+        GET(true, 64),
+        SIGNUP(false, 5),
+        UPDATE(false, 20),
+        DELETE(false, 5);
+
+        private final boolean read;
+
+        private final int defaultWeight;
+
+        Operation(boolean read, int defaultWeight) {
+            this.read = read;
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private final String baseUrl;
+
+    private final HttpClient client;
+
+    private final Workload workload;
+
+    private final long idMin;
+
+    private final long idMax;
+
+    private final long seed;
+
+    private final AtomicLong nextDeleteId;
+
+    private final long deleteFloor;
+
+    private final AtomicLong signupCounter = new AtomicLong();
+
+    private final long runId = System.currentTimeMillis();
+
+    private String token;
+
+    private long driverUserId;
+
+    /**
+     * Creates a driver for the given instance.
+     *
+     * @param baseUrl  the base URL of the API, without trailing slash
+     * @param workload the operation mix
+     * @param idMin    the lowest seeded user id, or 0 if nothing was seeded
+     * @param idMax    the highest seeded user id, or 0 if nothing was seeded
+     * @param seed     the seed for the operation sequence
+     */
+    public LoadDriver(String baseUrl, Workload workload, long idMin, long idMax, long seed) {
+        this.baseUrl = baseUrl;
+        this.workload = workload;
+        this.idMin = idMin;
+        this.idMax = idMax;
+        this.seed = seed;
+        this.deleteFloor = idMax - (idMax - idMin + 1) / 10;
+        this.nextDeleteId = new AtomicLong(idMax);
+        // Client requests run on virtual threads so the driver itself is never the bottleneck
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        LoadDriver driver = new LoadDriver(
+                options.getOrDefault("base-url", "http://localhost:8080"),
+                Workload.parse(options.get("mix"), options.get("read-write-ratio")),
+                Long.parseLong(options.getOrDefault("id-min", "0")),
+                Long.parseLong(options.getOrDefault("id-max", "0")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        driver.runAndReport(options);
+    }
+
+    /**
+     * Prepares the driver account, runs a warmup and a measured run, and prints the report.
+     *
+     * @param options the command line options (concurrency, duration, warmup, histogram-output)
+     */
+    void runAndReport(Map<String, String> options) throws Exception {
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+
+        prepare();
+
+        System.out.printf("Workload: %s%n", workload);
+        if (!warmup.isZero()) {
+            System.out.printf("Warming up for %ds with %d clients%n", warmup.toSeconds(), concurrency);
+            run(concurrency, warmup);
+        }
+
+        Report report = run(concurrency, duration);
+        report.print(System.out);
+
+        String histogramOutput = options.get("histogram-output");
+        if (histogramOutput != null) {
+            try (PrintStream out = new PrintStream(new FileOutputStream(histogramOutput))) {
+                report.total().outputPercentileDistribution(out, 1e6);
+            }
+        }
+    }
+
+    /**
+     * Registers and logs in the driver's own account, used for authenticated requests.
+     */
+    void prepare() throws Exception {
+        send(post("/api/auth/signup", Map.of("name", "Load Driver", "email", DRIVER_EMAIL,
+                "password", DataGenerator.PASSWORD)));
+
+        HttpResponse<String> response = client.send(loginRequest(DRIVER_EMAIL), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode json = MAPPER.readTree(response.body());
+        token = json.get("token").asText();
+        driverUserId = json.get("id").asLong();
+    }
+
+    /**
+     * Runs the given number of clients in a closed loop until the duration has elapsed.
+     *
+     * @param concurrency the number of concurrent clients
+     * @param duration    how long to run
+     * @return the merged per-operation histograms and error counts
+     */
+    Report run(int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Report>> workers = new ArrayList<>(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                SplittableRandom random = new SplittableRandom(seed * 31 + i);
+                workers.add(executor.submit(() -> runWorker(random, deadline)));
+            }
+        }
+
+        Report merged = new Report(duration);
+        for (Future<Report> worker : workers) {
+            merged.add(worker.get());
+        }
+        return merged;
+    }
+
+    private Report runWorker(SplittableRandom random, long deadline) {
+        Report report = new Report(null);
+        while (System.nanoTime() < deadline) {
+            Operation operation = workload.next(random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(operation, random);
+            } catch (Exception e) {
+                ok = false;
+            }
+            report.record(operation, System.nanoTime() - start, ok);
+        }
+        return report;
+    }
+
+    /**
+     * Executes one operation.
+     *
+     * @return true if the response was the expected one
+     */
+    private boolean execute(Operation operation, SplittableRandom random) throws Exception {
+        return switch (operation) {
+            case LOGIN -> {
+                // Seeded ids are assigned in generation order, so the id determines the seeded email
+                String email = hasSeededUsers() && deleteFloor >= idMin
+                        ? DataGenerator.seededEmail(readTargetId(random) - idMin)
+                        : DRIVER_EMAIL;
+                yield send(loginRequest(email)) == 200;
+            }
+            case LIST -> send(authorized("/api/users").GET().build()) == 200;
+            case GET -> isFound(send(authorized("/api/users/" + readTargetId(random)).GET().build()));
+            case SIGNUP -> {
+                String email = "signup-" + runId + "-" + signupCounter.incrementAndGet() + "@" + DataGenerator.EMAIL_DOMAIN;
+                yield send(post("/api/auth/signup", Map.of("name", "Load Signup", "email", email,
+                        "password", DataGenerator.PASSWORD))) == 200;
+            }
+            case UPDATE -> {
+                String body = MAPPER.writeValueAsString(Map.of("name", "Updated " + random.nextInt(1_000_000)));
+                yield isFound(send(authorized("/api/users/" + readTargetId(random))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .build()));
+            }
+            case DELETE -> {
+                long id = hasSeededUsers() ? nextDeleteId.getAndDecrement() : Long.MAX_VALUE;
+                yield isFound(send(authorized("/api/users/" + (id > deleteFloor ? id : Long.MAX_VALUE)).DELETE().build()));
+            }
+        };
+    }
+
+    private boolean hasSeededUsers() {
+        return idMax > 0 && idMax >= idMin;
+    }
+
+    private long readTargetId(SplittableRandom random) {
+        if (!hasSeededUsers() || deleteFloor < idMin) {
+            return driverUserId;
+        }
+        return idMin + random.nextLong(deleteFloor - idMin + 1);
+    }
+
+    /**
+     * A 404 for a user that another client already deleted is an expected outcome.
+     */
+    private static boolean isFound(int status) {
+        return status == 200 || status == 404;
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest loginRequest(String email) throws Exception {
+        return post("/api/auth/login", Map.of("email", email, "password", DataGenerator.PASSWORD));
+    }
+
+    private HttpRequest post(String path, Map<String, String> body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)))
+                .build();
+    }
+
+    /**
+     * Parses {@code --key=value} arguments.
+     *
+     * @param args the command line arguments
+     * @return the options by key
+     */
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Weighted operation mix.
+     */
+    static final class Workload {
+
+        private final Operation[] operations;
+
+        private final int[] cumulativeWeights;
+
+        private Workload(Map<Operation, Integer> weights) {
+            this.operations = weights.keySet().toArray(new Operation[0]);
+            this.cumulativeWeights = new int[operations.length];
+            int sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(operations[i]);
+                cumulativeWeights[i] = sum;
+            }
+            if (sum <= 0) {
+                throw new IllegalArgumentException("Workload has no operations");
+            }
+        }
+
+        /**
+         * Builds a workload from an explicit mix (e.g. {@code get:60,update:20}) and/or a read:write
+         * ratio (e.g. {@code 90:10}). The ratio rescales the read operations (login, list, get) and the
+         * write operations (signup, update, delete) while keeping their relative weights.
+         *
+         * @param mix   the explicit mix, or null for the default weights
+         * @param ratio the read:write ratio, or null to use the mix as-is
+         * @return the workload
+         */
+        static Workload parse(String mix, String ratio) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            if (mix == null) {
+                for (Operation operation : Operation.values()) {
+                    weights.put(operation, operation.defaultWeight);
+                }
+            } else {
+                for (String part : mix.split(",")) {
+                    String[] pair = part.split(":");
+                    weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+                }
+            }
+
+            if (ratio != null) {
+                String[] pair = ratio.split(":");
+                int readShare = Integer.parseInt(pair[0].trim());
+                int writeShare = Integer.parseInt(pair[1].trim());
+                int readTotal = weights.entrySet().stream().filter(e -> e.getKey().read).mapToInt(Map.Entry::getValue).sum();
+                int writeTotal = weights.entrySet().stream().filter(e -> !e.getKey().read).mapToInt(Map.Entry::getValue).sum();
+                // Scale to parts per 10,000 so small weights survive integer rounding
+                weights.replaceAll((operation, weight) -> {
+                    int total = operation.read ? readTotal : writeTotal;
+                    int share = operation.read ? readShare : writeShare;
+                    return total == 0 ? 0 : (int) Math.round(10_000.0 * share / (readShare + writeShare) * weight / total);
+                });
+            }
+            return new Workload(weights);
+        }
+
+        Operation next(SplittableRandom random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            int previous = 0;
+            int total = cumulativeWeights[cumulativeWeights.length - 1];
+            for (int i = 0; i < operations.length; i++) {
+                int weight = cumulativeWeights[i] - previous;
+                previous = cumulativeWeights[i];
+                text.append(i == 0 ? "" : ", ")
+                        .append(operations[i].name().toLowerCase())
+                        .append(String.format(" %.1f%%", 100.0 * weight / total));
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Latency histograms and error counts per operation.
+     */
+    static final class Report {
+
+        private final Duration duration;
+
+        private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+        Report(Duration duration) {
+            this.duration = duration;
+        }
+
+        void record(Operation operation, long latencyNanos, boolean ok) {
+            histograms.computeIfAbsent(operation, key -> new Histogram(HIGHEST_TRACKABLE_NANOS, 3))
+                    .recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+            if (!ok) {
+                errors.merge(operation, 1L, Long::sum);
+            }
+        }
+
+        void add(Report other) {
+            other.histograms.forEach((operation, histogram) ->
+                    histograms.computeIfAbsent(operation, key -> new Histogram(HIGHEST_TRACKABLE_NANOS, 3)).add(histogram));
+            other.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+        }
+
+        Histogram total() {
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            histograms.values().forEach(total::add);
+            return total;
+        }
+
+        void print(PrintStream out) {
+            double seconds = duration.toNanos() / 1e9;
+            out.printf("%-8s %10s %10s %8s %9s %9s %9s %9s %9s%n",
+                    "op", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            histograms.forEach((operation, histogram) ->
+                    printLine(out, operation.name().toLowerCase(), histogram, errors.getOrDefault(operation, 0L), seconds));
+            printLine(out, "total", total(), errors.values().stream().mapToLong(Long::longValue).sum(), seconds);
+        }
+
+        private static void printLine(PrintStream out, String name, Histogram histogram, long errorCount, double seconds) {
+            out.printf("%-8s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    errorCount,
+                    histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(90) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMaxValue() / 1e6);
+        }
+    }
+}
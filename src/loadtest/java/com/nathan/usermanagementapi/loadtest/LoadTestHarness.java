@@ -0,0 +1,101 @@
+package com.nathan.usermanagementapi.loadtest;
+
+import com.nathan.usermanagementapi.UserManagementApiApplication;
+import com.nathan.usermanagementapi.security.services.RegisteredEmailFilter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-box macro benchmark: database, application, data generator and load driver in one command.
+ *
+ * <p>
+ * Unless {@code --jdbc-url} points at an existing Postgres, an embedded PostgreSQL server is started
+ * from the binaries bundled with {@code io.zonky.test:embedded-postgres} (it refuses to run as root).
+ * The application is then booted in-process against it, {@link DataGenerator} seeds the requested
+ * number of users, the registered email filter is rebuilt so the seeded users can log in, and
+ * {@link LoadDriver} runs the configured mix against the local port.
+ * Arguments starting with {@code --spring.} or {@code --app.} are passed to the application, e.g.
+ * {@code --spring.profiles.active=virtual-threads}. Rate limiting and load shedding are off unless
+ * {@code --app.rate-limit.enabled=true} or {@code --app.load-shedding.enabled=true} is passed.
+ * </p>
+ *
+ * <p>
+ * {@code GET /api/users} returns the whole table, so keep the list weight low (or zero via
+ * {@code --mix}) when seeding millions of users.
+ * </p>
+ *
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:java -Dexec.args="--users=1000000 --concurrency=200 --duration=60 --read-write-ratio=90:10"
+ * </pre>
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadDriver.parseArgs(args);
+        long users = Long.parseLong(options.getOrDefault("users", "100000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int port = Integer.parseInt(options.getOrDefault("port", "18080"));
+
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        String username = options.getOrDefault("db-username", "postgres");
+        String password = options.getOrDefault("db-password", "postgres");
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            System.out.printf("Started embedded PostgreSQL on port %d%n", postgres.getPort());
+        }
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password));
+        for (String arg : args) {
+            if (arg.startsWith("--spring.") || arg.startsWith("--app.")) {
+                appArgs.add(arg);
+            }
+        }
+        // The driver makes every request as one user from one IP; measure the API, not the rate limiter
+        if (appArgs.stream().noneMatch(arg -> arg.startsWith("--app.rate-limit.enabled="))) {
+            appArgs.add("--app.rate-limit.enabled=false");
+        }
+        // The driver's fixed concurrency would otherwise be capped by the adaptive limit, not the server
+        if (appArgs.stream().noneMatch(arg -> arg.startsWith("--app.load-shedding.enabled="))) {
+            appArgs.add("--app.load-shedding.enabled=false");
+        }
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(UserManagementApiApplication.class)
+                .run(appArgs.toArray(new String[0]))) {
+
+            DataGenerator.IdRange range;
+            long start = System.nanoTime();
+            try (Connection connection = app.getBean(DataSource.class).getConnection()) {
+                range = new DataGenerator(seed).seed(connection, users,
+                        Boolean.parseBoolean(options.getOrDefault("truncate", "true")));
+            }
+            System.out.printf("Seeded users %s in %.1fs%n", range, (System.nanoTime() - start) / 1e9);
+            // The rows were copied in behind the application's back: without a rebuild every seeded login is a definite miss
+            app.getBean(RegisteredEmailFilter.class).rebuild();
+
+            LoadDriver driver = new LoadDriver(
+                    "http://localhost:" + port,
+                    LoadDriver.Workload.parse(options.get("mix"), options.get("read-write-ratio")),
+                    range.min(),
+                    range.max(),
+                    seed);
+            driver.runAndReport(options);
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+}
@@ -2,12 +2,18 @@ package com.nathan.usermanagementapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class UserManagementApiApplication {
 
+    // Startup steps kept for the startup report and /actuator/startup; later steps are dropped
+    private static final int STARTUP_STEP_CAPACITY = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(UserManagementApiApplication.class, args);
+        SpringApplication application = new SpringApplication(UserManagementApiApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 
 }
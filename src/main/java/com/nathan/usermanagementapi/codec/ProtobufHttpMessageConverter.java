@@ -0,0 +1,91 @@
+package com.nathan.usermanagementapi.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nathan.usermanagementapi.dto.UserDto;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes the DTOs as Protobuf ({@code application/x-protobuf} or
+ * {@code application/protobuf}), using the schemas of {@link ProtobufSchemas}.
+ *
+ * <p>
+ * Only the published message types and lists of users are handled; anything else, such as the
+ * maps returned for sparse fieldsets, is left to the other converters, so asking for Protobuf
+ * there gets 406. Lists of users are written as a {@link ProtobufSchemas.UserList} message.
+ * </p>
+ */
+public class ProtobufHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    /**
+     * The conventional Protobuf media type.
+     */
+    public static final MediaType X_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    /**
+     * The registered Protobuf media type.
+     */
+    public static final MediaType PROTOBUF = MediaType.parseMediaType("application/protobuf");
+
+    private final ProtobufSchemas schemas;
+
+    /**
+     * Creates a converter for the given schemas.
+     *
+     * @param schemas the message schemas and their mapper
+     */
+    public ProtobufHttpMessageConverter(ProtobufSchemas schemas) {
+        super(schemas.getMapper(), X_PROTOBUF, PROTOBUF);
+        this.schemas = schemas;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return schemas.supports(ResolvableType.forType(type).resolve(Object.class)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return schemas.supports(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (List.class.isAssignableFrom(clazz)) {
+            // Only handlers declaring List<UserDto> qualify: the elements of other lists are unknown here
+            Class<?> element = type == null ? null : ResolvableType.forType(type).asCollection().resolveGeneric(0);
+            return element == UserDto.class && canWrite(mediaType);
+        }
+        return canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (object instanceof List<?> list) {
+            @SuppressWarnings("unchecked") // Checked by canWrite
+            List<UserDto> users = (List<UserDto>) list;
+            super.writeInternal(new ProtobufSchemas.UserList(users), ProtobufSchemas.UserList.class, outputMessage);
+            return;
+        }
+        // Handlers returning ResponseEntity<?> declare no type; the schema follows the actual class
+        super.writeInternal(object, object.getClass(), outputMessage);
+    }
+
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+        return reader.with(schemas.schemaFor(javaType));
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        return writer.with(schemas.schemaFor(javaType));
+    }
+}
@@ -0,0 +1,121 @@
+package com.nathan.usermanagementapi.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.nathan.usermanagementapi.dto.BatchRequest;
+import com.nathan.usermanagementapi.dto.BatchResponse;
+import com.nathan.usermanagementapi.dto.JwtResponse;
+import com.nathan.usermanagementapi.dto.LoginRequest;
+import com.nathan.usermanagementapi.dto.MessageResponse;
+import com.nathan.usermanagementapi.dto.SignupRequest;
+import com.nathan.usermanagementapi.dto.TokenRefreshRequest;
+import com.nathan.usermanagementapi.dto.UpdateUserRequest;
+import com.nathan.usermanagementapi.dto.UserDto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protobuf schemas of the request and response DTOs, generated from the classes themselves.
+ *
+ * <p>
+ * Jackson derives one message per DTO, numbering fields in declaration order and encoding dates
+ * as epoch milliseconds ({@code int64}); the generated {@code .proto} text is published for
+ * clients, so the schema cannot drift from the classes. New fields must therefore be appended to
+ * a DTO, never inserted or reordered, or existing field numbers change. A list of users has no
+ * message of its own, so it travels wrapped in a {@link UserList}. Schemas are generated once per
+ * type and cached.
+ * </p>
+ */
+public class ProtobufSchemas {
+
+    /**
+     * The message types exchanged with clients, in the order they are published.
+     */
+    private static final List<Class<?>> MESSAGE_TYPES = List.of(
+            UserDto.class, UserList.class, JwtResponse.class, MessageResponse.class, BatchResponse.class,
+            LoginRequest.class, SignupRequest.class, UpdateUserRequest.class, TokenRefreshRequest.class,
+            BatchRequest.class);
+
+    private static final String MESSAGE_MARKER = "// Message for ";
+
+    /**
+     * The wire form of a list of users.
+     *
+     * @param users the users, in order
+     */
+    public record UserList(List<UserDto> users) {
+    }
+
+    private final ProtobufMapper mapper = new ProtobufMapper();
+
+    private final Map<JavaType, ProtobufSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the mapper, lenient about unknown fields like the JSON one.
+     */
+    public ProtobufSchemas() {
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @return the mapper encoding and decoding with these schemas
+     */
+    public ProtobufMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Checks whether a type is one of the published message types.
+     *
+     * @param type the class to check
+     * @return true if it can be encoded as Protobuf
+     */
+    public boolean supports(Class<?> type) {
+        return MESSAGE_TYPES.contains(type);
+    }
+
+    /**
+     * Returns the schema of a message type, generating it on first use.
+     *
+     * @param type the message type
+     * @return the schema
+     */
+    public ProtobufSchema schemaFor(JavaType type) {
+        return schemas.computeIfAbsent(type, key -> {
+            try {
+                return mapper.generateSchemaFor(key);
+            } catch (JsonMappingException e) {
+                throw new IllegalStateException("Cannot generate a Protobuf schema for " + key, e);
+            }
+        });
+    }
+
+    /**
+     * Renders every message type as one {@code .proto} file, each message once.
+     *
+     * @return the schema source
+     */
+    public String render() {
+        Map<String, String> messages = new LinkedHashMap<>();
+        for (Class<?> type : MESSAGE_TYPES) {
+            String source = schemaFor(mapper.constructType(type)).getSource().toString();
+            // Each generated message is preceded by a marker naming its class; nested types repeat
+            for (String block : source.split("(?m)^(?=" + MESSAGE_MARKER + ")")) {
+                if (block.startsWith(MESSAGE_MARKER)) {
+                    messages.putIfAbsent(block.substring(0, block.indexOf('\n')), block.strip());
+                }
+            }
+        }
+        StringBuilder proto = new StringBuilder("syntax = \"proto2\";\n");
+        for (String message : messages.values()) {
+            proto.append('\n').append(message).append('\n');
+        }
+        return proto.toString();
+    }
+}
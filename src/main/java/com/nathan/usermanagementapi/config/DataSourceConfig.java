@@ -0,0 +1,48 @@
+package com.nathan.usermanagementapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Configuration class for the connection pools.
+ *
+ * Authentication lookups and CRUD traffic use separate Hikari pools against the same database, so
+ * each is a bulkhead for the other: a slow {@code findByEmail} can exhaust only the small auth pool,
+ * whose short connection timeout then fails requests fast, while user CRUD keeps its connections;
+ * and a burst of CRUD work cannot starve the lookups every authenticated request needs.
+ * Both pools connect with {@code spring.datasource.url}, {@code username} and {@code password};
+ * pool settings (including the server-side statement timeout) come from
+ * {@code spring.datasource.hikari.*} and {@code app.datasource.auth.hikari.*}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * The primary pool, used by JPA and every {@code JdbcTemplate}.
+     *
+     * @param properties the {@code spring.datasource.*} connection settings
+     * @return the CRUD pool
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The pool reserved for loading users during authentication.
+     *
+     * @param properties the {@code spring.datasource.*} connection settings
+     * @return the auth pool
+     */
+    @Bean
+    @ConfigurationProperties("app.datasource.auth.hikari")
+    public HikariDataSource authDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.nathan.usermanagementapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Email canonicalization settings bound from {@code app.users.email-normalization.*}.
+ *
+ * Every email is trimmed and lower-cased. Addresses at one of the {@code providers} domains are
+ * further reduced by that provider's rules, so that addresses the provider delivers to the same
+ * mailbox map to the same user.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.users.email-normalization")
+public class EmailNormalizationProperties {
+
+    // Provider-specific rules, matched by the lower-cased domain.
+    private List<Provider> providers = new ArrayList<>();
+
+    // The job that fills in and indexes the email_normalized column of existing users.
+    private Backfill backfill = new Backfill();
+
+    /**
+     * The rules of one mail provider.
+     */
+    @Data
+    public static class Provider {
+
+        // Domains the provider receives mail for, e.g. gmail.com and googlemail.com.
+        private List<String> domains = new ArrayList<>();
+
+        // Domain every alias is rewritten to; null keeps the domain as entered.
+        private String canonicalDomain;
+
+        // Whether dots in the local part are ignored, as Gmail does.
+        private boolean ignoreDots = false;
+
+        // Character that starts a subaddress (user+tag), dropped with everything after it; null for none.
+        private String subaddressSeparator;
+    }
+
+    /**
+     * Backfill job settings.
+     */
+    @Data
+    public static class Backfill {
+
+        // Whether the job runs once the application has started.
+        private boolean enabled = true;
+
+        // Users read and updated per statement; each batch commits on its own.
+        private int batchSize = 1000;
+
+        // Pause between batches, to leave headroom for regular traffic.
+        private long pauseMs = 10;
+    }
+}
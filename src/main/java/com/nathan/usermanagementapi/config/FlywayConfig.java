@@ -0,0 +1,64 @@
+package com.nathan.usermanagementapi.config;
+
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.exception.FlywayValidateException;
+import org.flywaydb.core.api.output.ValidateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration class for schema migrations at startup.
+ *
+ * A migration that fails inside a transaction is rolled back and leaves no trace, but the
+ * concurrent index script runs outside one: when it fails, Flyway records the failure and refuses
+ * to start again until the record is removed. That script drops what it left half-built and
+ * builds it again, so the record is removed here and the script rerun, after checking the
+ * applied migrations as usual (an edited or missing script still stops the startup).
+ *
+ * Only the versions listed in {@code RETRYABLE_VERSIONS}, written to be rerun after failing
+ * part-way, are retried. Any other failed migration stops the startup as usual, to be repaired by
+ * hand, and a script added to the list must be safe to rerun from any point.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlywayConfig.class);
+
+    // V2__create_indexes: rebuilds its invalid indexes and skips the valid ones
+    private static final Set<String> RETRYABLE_VERSIONS = Set.of("2");
+
+    /**
+     * Retries the failed migrations known to be rerunnable, then migrates.
+     *
+     * @return the migration strategy Spring Boot runs Flyway with
+     */
+    @Bean
+    public FlywayMigrationStrategy retryFailedMigrations() {
+        return flyway -> {
+            Set<String> failed = Arrays.stream(flyway.info().applied())
+                    .filter(migration -> migration.getState() == MigrationState.FAILED)
+                    .map(migration -> migration.getVersion() == null
+                            ? migration.getDescription() : migration.getVersion().getVersion())
+                    .collect(Collectors.toSet());
+            // Any other failure is left for migrate to report
+            if (!failed.isEmpty() && RETRYABLE_VERSIONS.containsAll(failed)) {
+                ValidateResult result = flyway.validateWithResult();
+                boolean onlyFailed = result.invalidMigrations.stream()
+                        .allMatch(migration -> failed.contains(migration.version));
+                if (!onlyFailed) {
+                    throw new FlywayValidateException(result.errorDetails, result.getAllErrorMessages());
+                }
+                logger.warn("Retrying failed migrations {}", failed);
+                flyway.repair();
+            }
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.nathan.usermanagementapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Idempotency-Key settings bound from {@code app.idempotency.*}.
+ *
+ * Requests to one of the {@code routes} that carry an {@code Idempotency-Key} header run once per
+ * key; retries with the same key get the stored response for {@code ttl-ms}. Keys are scoped to
+ * the authenticated user, so two users cannot collide, and each scope holds at most
+ * {@code max-entries-per-scope} of them.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    // Whether the idempotency filter is installed at all.
+    private boolean enabled = true;
+
+    // How long a completed response is replayed for.
+    private long ttlMs = 86_400_000;
+
+    // How long a response is replayed for when it is a 4xx or the request was anonymous (signups).
+    private long shortTtlMs = 600_000;
+
+    // Maximum number of keys held in memory; once reached, the oldest completed key is dropped,
+    // and new keys run without protection if every key is still in progress.
+    private int maxEntries = 10_000;
+
+    // Maximum number of keys held for one user, or for all anonymous requests together.
+    private int maxEntriesPerScope = 1_000;
+
+    // How long a duplicate waits for the first request with its key before getting 409.
+    private long waitTimeoutMs = 10_000;
+
+    // Longest accepted Idempotency-Key header.
+    private int maxKeyLength = 255;
+
+    // Largest request body that is fingerprinted; larger keyed requests are rejected with 413.
+    private int maxBodyBytes = 1_048_576;
+
+    // Also store completed responses in the idempotency_records table, for restarts and other instances.
+    private boolean persist = false;
+
+    // How often expired keys are dropped.
+    private long evictionIntervalMs = 60_000;
+
+    // The routes that honor the header.
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * One route that honors the Idempotency-Key header.
+     */
+    @Data
+    public static class Route {
+
+        // HTTP method, e.g. POST.
+        private String method;
+
+        // Ant-style path pattern, e.g. /api/users/*.
+        private String pattern;
+    }
+}
@@ -0,0 +1,31 @@
+package com.nathan.usermanagementapi.config;
+
+import com.nathan.usermanagementapi.security.jwt.JwtKeyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the JWT signing keys.
+ *
+ * The key manager is built from {@link JwtSigningProperties}; generated keys are rotated by its
+ * scheduled {@code rotateIfDue} method.
+ */
+@Configuration
+public class JwtSigningConfig {
+
+    /**
+     * The signing key and kid-indexed verifier cache used by {@code JwtUtils}.
+     *
+     * @param properties      the signing settings
+     * @param secret          the HMAC secret, used with HS256
+     * @param tokenValidityMs the access token lifetime in milliseconds
+     * @return the key manager
+     */
+    @Bean
+    public JwtKeyManager jwtKeyManager(JwtSigningProperties properties,
+                                       @Value("${app.jwt.secret}") String secret,
+                                       @Value("${app.jwt.expiration}") long tokenValidityMs) {
+        return new JwtKeyManager(properties, secret, tokenValidityMs);
+    }
+}
@@ -0,0 +1,60 @@
+package com.nathan.usermanagementapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JWT signing settings bound from {@code app.jwt.signing.*}.
+ *
+ * With {@code HS256} tokens are signed with {@code app.jwt.secret} and only this API can verify
+ * them. With {@code RS256} or {@code ES256} they are signed with a private key named by a
+ * {@code kid} header, and the public keys are published at {@code /.well-known/jwks.json} so other
+ * services can verify tokens themselves.
+ *
+ * Keys are rotated by adding a new key, pointing {@code active-kid} at it, and removing the old
+ * key's private half (keeping its public key) until the tokens it signed have expired. Without
+ * configured keys a key pair is generated at startup and rotated every
+ * {@code generated-key-rotation-ms}; such keys are per instance and lost on restart, so they are
+ * for development and single-instance deployments only.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.jwt.signing")
+public class JwtSigningProperties {
+
+    // HS256, RS256 or ES256.
+    private String algorithm = "HS256";
+
+    // The kid of the key new tokens are signed with; defaults to the first key with a private key.
+    private String activeKid;
+
+    // The configured keys, current and retired.
+    private List<Key> keys = new ArrayList<>();
+
+    // How often a generated key pair is replaced when no keys are configured.
+    private long generatedKeyRotationMs = 86_400_000;
+
+    // RSA modulus size of generated RS256 keys.
+    private int generatedRsaKeySize = 2048;
+
+    /**
+     * One signing key.
+     */
+    @Data
+    public static class Key {
+
+        // The key id put in the kid header of the tokens it signs.
+        private String kid;
+
+        // PEM-encoded PKCS#8 private key; absent for retired keys that only verify.
+        private Resource privateKey;
+
+        // PEM-encoded X.509 public key.
+        private Resource publicKey;
+    }
+}
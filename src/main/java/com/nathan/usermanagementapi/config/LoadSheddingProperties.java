@@ -0,0 +1,55 @@
+package com.nathan.usermanagementapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptive load-shedding settings bound from {@code app.load-shedding.*}.
+ *
+ * The concurrency limit starts at {@code initial-limit} and is moved between {@code min-limit}
+ * and {@code max-limit} by comparing recent request latency with its long-term baseline. Paths in
+ * {@code critical-paths} are never shed; paths in {@code high-priority-paths} may use the whole
+ * limit, while all other requests are shed once {@code normal-share} of it is in use.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.load-shedding")
+public class LoadSheddingProperties {
+
+    // Whether the load-shedding filter is installed at all.
+    private boolean enabled = true;
+
+    // Concurrency limit before any latency has been measured.
+    private int initialLimit = 50;
+
+    // Lower bound of the limit; the service always admits at least this many requests at once.
+    private int minLimit = 8;
+
+    // Upper bound of the limit; keep it below the number of request threads.
+    private int maxLimit = 180;
+
+    // How far recent latency may rise above the baseline before the limit shrinks (1.5 = 50%).
+    private double tolerance = 1.5;
+
+    // Weight of each new limit estimate; lower values react slower but oscillate less.
+    private double smoothing = 0.2;
+
+    // Length of one sample window; the limit is recomputed at most once per window.
+    private long windowMs = 100;
+
+    // Number of windows the latency baseline averages over.
+    private int baselineWindows = 600;
+
+    // Share of the limit available to normal-priority requests; the rest is kept for high priority.
+    private double normalShare = 0.8;
+
+    // Path patterns that bypass the limiter (exact paths, or prefixes followed by /**).
+    private List<String> criticalPaths = new ArrayList<>(List.of("/actuator/health/**"));
+
+    // Path patterns admitted against the full limit.
+    private List<String> highPriorityPaths = new ArrayList<>(List.of("/api/auth/login"));
+}
@@ -0,0 +1,33 @@
+package com.nathan.usermanagementapi.config;
+
+import com.nathan.usermanagementapi.monitoring.RateLimitedLogger;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for rate-limited logging.
+ *
+ * Applies the {@code app.logging.rate-limit.*} limits to every {@link RateLimitedLogger} and exports
+ * their suppressed message counts. The appenders themselves are asynchronous; see logback-spring.xml.
+ */
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Configures the rate-limited loggers and registers the {@code log.suppressed} counters.
+     *
+     * @param windowMs   the length of a rate-limit window
+     * @param burst      messages per key logged unconditionally in each window
+     * @param sampleRate beyond the burst, log one message in this many
+     * @return the binder exporting the suppressed message counters
+     */
+    @Bean
+    public MeterBinder rateLimitedLoggerMetrics(@Value("${app.logging.rate-limit.window-ms:1000}") long windowMs,
+                                                @Value("${app.logging.rate-limit.burst:10}") int burst,
+                                                @Value("${app.logging.rate-limit.sample-rate:100}") int sampleRate) {
+        RateLimitedLogger.configure(windowMs, burst, sampleRate);
+        return RateLimitedLogger::bindTo;
+    }
+}
@@ -0,0 +1,28 @@
+package com.nathan.usermanagementapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for application metrics.
+ *
+ * Registers the aspect that turns {@code @Timed} annotations into Micrometer timers.
+ * Percentile histograms, SLO buckets and common tags are configured in application.properties
+ * under {@code management.metrics.*}; the Prometheus scrape endpoint is {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Creates the aspect that times methods annotated with {@code @Timed}.
+     *
+     * @param registry the meter registry
+     * @return the timed aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
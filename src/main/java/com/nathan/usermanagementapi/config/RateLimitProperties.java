@@ -0,0 +1,62 @@
+package com.nathan.usermanagementapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate-limit settings bound from {@code app.rate-limit.*}.
+ *
+ * Each route pairs a path pattern with a token bucket: {@code capacity} requests may be made in a
+ * burst, after which tokens come back at {@code refill-per-second}. The first matching route wins;
+ * requests matching no route are not limited.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    // Whether the rate-limit filter is installed at all.
+    private boolean enabled = true;
+
+    // How often buckets that have refilled completely are dropped.
+    private long evictionIntervalMs = 60_000;
+
+    // Hard cap on buckets per route; new clients beyond it share one overflow bucket until the next sweep.
+    private int maxBucketsPerRoute = 100_000;
+
+    // The limited routes, in matching order.
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * One rate-limited route.
+     */
+    @Data
+    public static class Route {
+
+        // Path pattern: an exact path, or a prefix followed by /** (e.g. /api/users/**).
+        private String pattern;
+
+        // What a bucket belongs to: the authenticated user, or the client IP.
+        private KeyType key = KeyType.USER;
+
+        // Maximum burst size, in requests.
+        private int capacity = 100;
+
+        // Sustained rate, in requests per second.
+        private double refillPerSecond = 50;
+    }
+
+    /**
+     * What requests are grouped by.
+     */
+    public enum KeyType {
+        // The authenticated user's id; unauthenticated requests fall back to the client IP.
+        USER,
+        // The client IP address.
+        IP
+    }
+}
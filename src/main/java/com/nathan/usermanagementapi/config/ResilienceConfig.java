@@ -0,0 +1,69 @@
+package com.nathan.usermanagementapi.config;
+
+import com.nathan.usermanagementapi.resilience.CircuitBreaker;
+import com.nathan.usermanagementapi.resilience.CircuitBreakerInterceptor;
+import com.nathan.usermanagementapi.resilience.FaultInjector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the database circuit breakers and fault injection.
+ *
+ * There is one breaker per connection pool (see {@link DataSourceConfig}), so an unhealthy auth
+ * pool does not fail CRUD requests and vice versa. Both export {@code circuit.breaker.state} and
+ * {@code circuit.breaker.rejected} tagged with their name.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * The breaker around {@code UserRepository} calls and CRUD transactions.
+     *
+     * @param properties    the resilience settings
+     * @param meterRegistry the registry for the breaker meters
+     * @return the CRUD breaker
+     */
+    @Bean
+    public CircuitBreaker crudCircuitBreaker(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new CircuitBreaker("crud", properties.getCircuitBreaker(), System.nanoTime()).bindTo(meterRegistry);
+    }
+
+    /**
+     * The {@code crudCircuitBreaker} guard of {@code @Transactional} service methods (applied by
+     * {@code TransactionResilienceAdvisor}) and of transactions opened programmatically.
+     *
+     * @param crudCircuitBreaker the CRUD breaker
+     * @return the guard
+     */
+    @Bean
+    public CircuitBreakerInterceptor crudTransactionGuard(@Qualifier("crudCircuitBreaker") CircuitBreaker crudCircuitBreaker) {
+        return new CircuitBreakerInterceptor(crudCircuitBreaker, null);
+    }
+
+    /**
+     * The breaker around authentication lookups.
+     *
+     * @param properties    the resilience settings
+     * @param meterRegistry the registry for the breaker meters
+     * @return the auth breaker
+     */
+    @Bean
+    public CircuitBreaker authCircuitBreaker(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new CircuitBreaker("auth", properties.getCircuitBreaker(), System.nanoTime()).bindTo(meterRegistry);
+    }
+
+    /**
+     * The latency injector of the {@code fault-injection} profile.
+     *
+     * @param properties the resilience settings
+     * @return the injector
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.resilience.fault-injection.enabled", havingValue = "true")
+    public FaultInjector faultInjector(ResilienceProperties properties) {
+        return new FaultInjector(properties.getFaultInjection());
+    }
+}
@@ -0,0 +1,66 @@
+package com.nathan.usermanagementapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit-breaker and fault-injection settings bound from {@code app.resilience.*}.
+ *
+ * The same circuit-breaker settings apply to the breaker of each connection pool (CRUD and
+ * authentication lookups). Fault injection is meant for local tail-latency experiments only and
+ * is switched on by the {@code fault-injection} profile.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.resilience")
+public class ResilienceProperties {
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private FaultInjection faultInjection = new FaultInjection();
+
+    /**
+     * When a breaker opens and how it recovers.
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        // Percentage of failed or slow calls in the current window that opens the breaker.
+        private int failureRateThreshold = 50;
+
+        // Calls needed in the current window before the failure rate is evaluated.
+        private int minimumCalls = 20;
+
+        // Length of the window over which calls are counted.
+        private long windowMs = 10_000;
+
+        // Calls taking at least this long count as failures, even if they succeed.
+        private long slowCallMs = 2_000;
+
+        // How long an open breaker rejects calls before letting trial calls through.
+        private long openMs = 5_000;
+
+        // Trial calls that must all succeed to close the breaker again.
+        private int halfOpenCalls = 5;
+    }
+
+    /**
+     * Artificial latency added to repository calls.
+     */
+    @Data
+    public static class FaultInjection {
+
+        // Whether latency is injected at all.
+        private boolean enabled = false;
+
+        // Fraction of repository calls that are delayed, between 0 and 1.
+        private double probability = 0.1;
+
+        // Minimum delay of a delayed call.
+        private long latencyMs = 200;
+
+        // Random extra delay on top of latency-ms, up to this value.
+        private long jitterMs = 0;
+    }
+}
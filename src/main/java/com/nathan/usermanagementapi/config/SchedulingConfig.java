@@ -0,0 +1,18 @@
+package com.nathan.usermanagementapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class enabling Spring's scheduled and asynchronous task support.
+ *
+ * Used by background jobs such as the periodic flush of coalesced user activity.
+ * Both the task scheduler and the {@code @Async} executor are auto-configured by Spring Boot
+ * and run on virtual threads when {@code spring.threads.virtual.enabled=true}.
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+}
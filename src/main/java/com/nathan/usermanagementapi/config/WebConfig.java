@@ -0,0 +1,42 @@
+package com.nathan.usermanagementapi.config;
+
+import com.nathan.usermanagementapi.codec.ProtobufHttpMessageConverter;
+import com.nathan.usermanagementapi.codec.ProtobufSchemas;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration class for the encodings of request and response bodies.
+ *
+ * JSON stays the default. Spring MVC adds CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}) by itself since their Jackson modules are on the
+ * classpath; this class appends Protobuf ({@code application/x-protobuf}) after them, so only
+ * clients that ask for it explicitly get it. The binary encodings write dates as epoch milliseconds.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Creates the Protobuf schemas of the DTOs, shared by the converter and the schema endpoint.
+     *
+     * @return the schemas
+     */
+    @Bean
+    public ProtobufSchemas protobufSchemas() {
+        return new ProtobufSchemas();
+    }
+
+    /**
+     * Appends the Protobuf converter after the default ones.
+     *
+     * @param converters the converters configured so far
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufHttpMessageConverter(protobufSchemas()));
+    }
+}
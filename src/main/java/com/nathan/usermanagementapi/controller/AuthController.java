@@ -1,14 +1,22 @@
 package com.nathan.usermanagementapi.controller;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.nathan.usermanagementapi.dto.JwtResponse;
 import com.nathan.usermanagementapi.dto.LoginRequest;
 import com.nathan.usermanagementapi.dto.MessageResponse;
 import com.nathan.usermanagementapi.dto.SignupRequest;
-import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.dto.TokenRefreshRequest;
+import com.nathan.usermanagementapi.exception.EmailAlreadyInUseException;
+import com.nathan.usermanagementapi.exception.InvalidRefreshTokenException;
+import com.nathan.usermanagementapi.model.User;
 import com.nathan.usermanagementapi.repository.UserRepository;
 import com.nathan.usermanagementapi.security.jwt.JwtUtils;
+import com.nathan.usermanagementapi.security.jwt.RefreshTokenService;
+import com.nathan.usermanagementapi.security.jwt.TokenDenylist;
 import com.nathan.usermanagementapi.security.services.UserDetailsImpl;
+import com.nathan.usermanagementapi.security.session.SessionTokenService;
 import com.nathan.usermanagementapi.service.UserService;
+import com.nathan.usermanagementapi.service.activity.UserActivityTracker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,19 +24,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * Controller for handling authentication operations.
- * This includes user registration (signup) and login functionalities.
- * Authentication endpoints are accessible without prior authentication.
+ * This includes user registration (signup), login, token refresh, logout and token revocation.
+ * Authentication endpoints are accessible without prior authentication, except logout.
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -60,9 +72,34 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    /**
+     * Activity tracker for counting successful logins.
+     */
+    @Autowired
+    private UserActivityTracker activityTracker;
+
+    /**
+     * Service issuing, rotating and revoking refresh tokens.
+     */
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * Denylist of access tokens revoked at logout.
+     */
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    /**
+     * Opaque session tokens, issued instead of JWTs when {@code app.auth.token-mode=opaque}.
+     */
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
     /**
      * Authenticates a user and returns a JWT token.
-     * This endpoint validates user credentials and generates a JWT token if valid.
+     * This endpoint validates user credentials and generates a short-lived access token and a
+     * refresh token if valid, or a single opaque session token in opaque token mode.
      *
      * @param loginRequest DTO containing login credentials (email and password)
      * @return ResponseEntity containing JWT token and user details if authentication is successful
@@ -70,7 +107,7 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(
             summary = "Authenticate a user",
-            description = "Validates user credentials (email and password) and returns a JWT token for authorized access.",
+            description = "Validates user credentials (email and password) and returns a short-lived JWT access token and a refresh token.",
             tags = {"Authentication"}
     )
     @ApiResponses(value = {
@@ -101,21 +138,175 @@ public class AuthController {
         // Set authentication in security context
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
+        // Get user details from authenticated user
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        // Count the login; written to the database by the next batched activity flush
+        activityTracker.recordLogin(userDetails.getId());
+
+        // In opaque mode the session token is the only token; it is revoked by logout, not refreshed
+        if (sessionTokenService.isEnabled()) {
+            return ResponseEntity.ok(new JwtResponse(
+                    sessionTokenService.create(userDetails.getId(), userDetails.getEmail()),
+                    userDetails.getId(),
+                    userDetails.getUsername(),
+                    userDetails.getEmail(),
+                    null,
+                    sessionTokenService.getTtlMs() / 1000
+            ));
+        }
+
         // Generate JWT token
         String jwt = jwtUtils.generateJwtToken(authentication);
 
-        // Get user details from authenticated user
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        // Start a new refresh token family for this session
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(userDetails.getId());
 
-        // Return JWT token and user details
+        // Return both tokens and user details
         return ResponseEntity.ok(new JwtResponse(
                 jwt,
                 userDetails.getId(),
                 userDetails.getUsername(),
-                userDetails.getEmail()
+                userDetails.getEmail(),
+                refreshToken.token(),
+                jwtUtils.getAccessTokenValidityMs() / 1000
         ));
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * The presented refresh token can no longer be used; presenting it again revokes the session.
+     *
+     * @param refreshRequest DTO containing the refresh token
+     * @return ResponseEntity containing the new token pair and user details
+     */
+    @PostMapping("/refresh")
+    @Operation(
+            summary = "Refresh the access token",
+            description = "Exchanges a refresh token for a new access token and refresh token. Each refresh token is single-use; "
+                    + "reusing one revokes every token of its session.",
+            tags = {"Authentication"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Tokens refreshed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JwtResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Refresh token is invalid, expired, revoked or already used",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))
+            )
+    })
+    public ResponseEntity<?> refreshToken(
+            @Parameter(description = "The refresh token returned by the last login or refresh", required = true)
+            @Valid @RequestBody TokenRefreshRequest refreshRequest) {
+
+        // Rotate the refresh token; throws if it cannot be used
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+
+        // The email may have changed since login, so the subject is read from the user
+        User user = userRepository.findById(refreshToken.userId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        return ResponseEntity.ok(new JwtResponse(
+                jwtUtils.generateAccessToken(user.getEmail()),
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                refreshToken.token(),
+                jwtUtils.getAccessTokenValidityMs() / 1000
+        ));
+    }
+
+    /**
+     * Logs the caller out: revokes the access token used for this request and, if given, the
+     * session of the refresh token.
+     *
+     * @param userDetails    the authenticated user
+     * @param authorization  the Authorization header carrying the access token
+     * @param refreshRequest optional DTO containing the refresh token of the session
+     * @return ResponseEntity with a success message
+     */
+    @PostMapping("/logout")
+    @Operation(
+            summary = "Log out",
+            description = "Revokes the access token used for this request and, if a refresh token is given, every token of its session.",
+            tags = {"Authentication"},
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Logged out",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Missing or invalid access token",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))
+            )
+    })
+    public ResponseEntity<?> logoutUser(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @Parameter(description = "The refresh token of the session to end")
+            @RequestBody(required = false) TokenRefreshRequest refreshRequest) {
+
+        String token = authorization.substring("Bearer ".length());
+        if (sessionTokenService.isEnabled()) {
+            sessionTokenService.invalidate(token);
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully!"));
+        }
+
+        // The filter has already verified the token; this only reads its id and expiry
+        DecodedJWT accessToken = jwtUtils.verifyJwtToken(token);
+        if (accessToken != null && accessToken.getId() != null) {
+            tokenDenylist.revoke(accessToken.getId(), accessToken.getExpiresAt(), userDetails.getId());
+        }
+
+        if (refreshRequest != null && StringUtils.hasText(refreshRequest.getRefreshToken())) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully!"));
+    }
+
+    /**
+     * Revokes a refresh token and every token of its session.
+     * Answers the same whether or not the token was known, so it cannot be used to probe tokens.
+     *
+     * @param refreshRequest DTO containing the refresh token
+     * @return ResponseEntity with a success message
+     */
+    @PostMapping("/revoke")
+    @Operation(
+            summary = "Revoke a refresh token",
+            description = "Revokes a refresh token and every token of its session. Succeeds whether or not the token is known.",
+            tags = {"Authentication"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Token revoked",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request (missing refresh token)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))
+            )
+    })
+    public ResponseEntity<?> revokeToken(
+            @Parameter(description = "The refresh token to revoke", required = true)
+            @Valid @RequestBody TokenRefreshRequest refreshRequest) {
+
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+
+        return ResponseEntity.ok(new MessageResponse("Token revoked"));
+    }
+
     /**
      * Registers a new user in the system.
      * This endpoint creates a new user account with the provided details.
@@ -152,8 +343,14 @@ public class AuthController {
                     .body(new MessageResponse("Error: Email is already in use!"));
         }
 
-        // Create new user account
-        UserDto userDto = userService.createUser(signupRequest);
+        // Create new user account; a concurrent signup may still claim the email first
+        try {
+            userService.createUser(signupRequest);
+        } catch (EmailAlreadyInUseException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: Email is already in use!"));
+        }
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
@@ -0,0 +1,62 @@
+package com.nathan.usermanagementapi.controller;
+
+import com.nathan.usermanagementapi.security.jwt.JwtKeyManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller publishing the public JWT signing keys as a JWK Set (RFC 7517).
+ * Other services fetch it to verify access tokens locally instead of calling this API.
+ * Accessible without authentication.
+ */
+@RestController
+@Tag(name = "Authentication", description = "API for user authentication operations including registration and login")
+public class JwksController {
+
+    /**
+     * The JWK Set media type.
+     */
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    /**
+     * How long clients may cache the key set. New generated keys are published a full rotation
+     * before they start signing, so this only has to be shorter than the rotation interval.
+     */
+    private static final long MAX_AGE_SECONDS = 300;
+
+    /**
+     * Key manager holding the current public keys.
+     */
+    @Autowired
+    private JwtKeyManager keyManager;
+
+    /**
+     * Returns the public keys that verify current access tokens, by kid.
+     * The set is empty when tokens are signed with HS256.
+     *
+     * @return ResponseEntity containing the JWK Set
+     */
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(
+            summary = "Get the JWT signing keys",
+            description = "Returns the public keys that verify access tokens, as a JWK Set. Empty when tokens are signed with HS256.",
+            tags = {"Authentication"}
+    )
+    @ApiResponse(responseCode = "200", description = "JWK Set returned")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .contentType(JWK_SET)
+                .cacheControl(CacheControl.maxAge(MAX_AGE_SECONDS, TimeUnit.SECONDS).cachePublic())
+                .body(keyManager.jwks());
+    }
+}
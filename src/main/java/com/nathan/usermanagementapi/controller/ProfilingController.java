@@ -0,0 +1,115 @@
+package com.nathan.usermanagementapi.controller;
+
+import com.nathan.usermanagementapi.dto.MessageResponse;
+import com.nathan.usermanagementapi.monitoring.jfr.OnDemandRecorder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Controller for on-demand Java Flight Recorder profiling.
+ * Lets an administrator record a bounded JFR recording of the running instance and download it.
+ * All endpoints in this controller require the ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling/jfr")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Profiling", description = "Admin-only API for on-demand JFR recordings. Open the downloaded file in JDK Mission Control.")
+@SecurityRequirement(name = "bearerAuth")
+public class ProfilingController {
+
+    /**
+     * Recorder managing the single on-demand recording.
+     */
+    @Autowired
+    private OnDemandRecorder recorder;
+
+    /**
+     * Returns the state of the current recording.
+     *
+     * @return ResponseEntity containing the recording status
+     */
+    @GetMapping
+    @Operation(summary = "Get recording status", description = "Returns the state, start time, duration and size of the current recording.")
+    public ResponseEntity<?> status() {
+        return ResponseEntity.ok(recorder.status());
+    }
+
+    /**
+     * Starts a new recording.
+     *
+     * @param durationSeconds how long to record; capped by app.profiling.jfr.max-duration
+     * @param settings        the JFR settings, "default" or "profile"
+     * @return ResponseEntity containing the recording status, or 409 if a recording is already running
+     */
+    @PostMapping("/start")
+    @Operation(summary = "Start a recording", description = "Starts a bounded JFR recording. Only one recording can run at a time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording started"),
+            @ApiResponse(responseCode = "400", description = "Unknown settings"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - ADMIN role required"),
+            @ApiResponse(responseCode = "409", description = "A recording is already running")
+    })
+    public ResponseEntity<?> start(
+            @Parameter(description = "Recording duration in seconds") @RequestParam(defaultValue = "60") long durationSeconds,
+            @Parameter(description = "JFR settings: default or profile") @RequestParam(defaultValue = "default") String settings) {
+        if (durationSeconds <= 0) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: durationSeconds must be positive"));
+        }
+        try {
+            return ResponseEntity.ok(recorder.start(Duration.ofSeconds(durationSeconds), settings));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stops the recording, if still running, and downloads it.
+     *
+     * @return ResponseEntity streaming the .jfr file, or 409 if no recording was started
+     * @throws IOException if the recording cannot be written
+     */
+    @PostMapping("/stop")
+    @Operation(summary = "Stop and download the recording", description = "Stops the current recording and returns it as a .jfr file. The recording is discarded on the server afterwards.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The recording file"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - ADMIN role required"),
+            @ApiResponse(responseCode = "409", description = "No recording has been started")
+    })
+    public ResponseEntity<?> stop() throws IOException {
+        Path file;
+        try {
+            file = recorder.stopAndDump();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
+        }
+
+        // The temporary file is deleted as soon as the response has been written
+        long size = Files.size(file);
+        InputStreamResource body = new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,57 @@
+package com.nathan.usermanagementapi.controller;
+
+import com.nathan.usermanagementapi.codec.ProtobufSchemas;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller publishing the Protobuf schema of the request and response bodies, for clients that
+ * ask for {@code application/x-protobuf} and generate their classes from it.
+ * Accessible without authentication, like the OpenAPI documentation.
+ */
+@RestController
+@Tag(name = "Schemas", description = "Schemas of the binary encodings")
+public class ProtobufSchemaController {
+
+    /**
+     * Schemas generated from the DTO classes.
+     */
+    @Autowired
+    private ProtobufSchemas protobufSchemas;
+
+    /**
+     * The rendered schema; the DTOs cannot change while the application runs.
+     */
+    private String schema;
+
+    /**
+     * Renders the schema once at startup.
+     */
+    @PostConstruct
+    public void init() {
+        schema = protobufSchemas.render();
+    }
+
+    /**
+     * Returns the .proto file describing every Protobuf message of the API.
+     *
+     * @return the schema source
+     */
+    @GetMapping(value = "/proto/users.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(
+            summary = "Get the Protobuf schema",
+            description = "Returns the proto2 schema of the messages exchanged as application/x-protobuf: UserDto, " +
+                    "UserList (for lists of users), JwtResponse, MessageResponse, BatchResponse and the request bodies."
+    )
+    @ApiResponse(responseCode = "200", description = "Schema returned successfully")
+    public ResponseEntity<String> getSchema() {
+        return ResponseEntity.ok(schema);
+    }
+}
@@ -1,11 +1,17 @@
 package com.nathan.usermanagementapi.controller;
 
+import com.nathan.usermanagementapi.dto.BatchRequest;
+import com.nathan.usermanagementapi.dto.BatchResponse;
 import com.nathan.usermanagementapi.dto.MessageResponse;
 import com.nathan.usermanagementapi.dto.UpdateUserRequest;
 import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.overload.LoadSheddingFilter;
+import com.nathan.usermanagementapi.projection.UserFields;
+import com.nathan.usermanagementapi.security.ratelimit.RateLimitFilter;
 import com.nathan.usermanagementapi.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,6 +19,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -20,10 +28,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for managing user operations.
- * This includes listing, retrieving, updating, and deleting users.
+ * This includes listing, retrieving, updating, and deleting users, one at a time or in batches.
  * All endpoints in this controller require JWT authentication.
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -48,7 +57,10 @@ public class UserController {
     @GetMapping
     @Operation(
             summary = "Get all users",
-            description = "Retrieves a list of all registered users in the system. Requires authentication.",
+            description = "Retrieves a list of all registered users in the system. With fields=id,email only " +
+                    "those fields are read and returned, as JSON, CBOR or Smile. Requires authentication.",
+            parameters = @Parameter(name = "fields", in = ParameterIn.QUERY, example = "id,email",
+                    description = "Fields to return: id, name, email, createdAt, updatedAt, lastSeenAt, loginCount"),
             tags = {"User Management"}
     )
     @ApiResponses(value = {
@@ -60,6 +72,11 @@ public class UserController {
                             array = @ArraySchema(schema = @Schema(implementation = UserDto.class))
                     )
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - Unknown field in fields",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized - JWT token is missing or invalid",
@@ -76,6 +93,23 @@ public class UserController {
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves some fields of all users in the system.
+     * Mapped separately from {@link #getAllUsers()} so each handler declares its exact body type,
+     * which the Protobuf converter needs to tell lists of users from lists of field maps.
+     *
+     * @param fields Comma-separated fields to return
+     * @return ResponseEntity containing one map of the requested fields per user
+     */
+    @GetMapping(params = "fields")
+    @Operation(hidden = true)
+    public ResponseEntity<List<Map<String, Object>>> getAllUserFields(
+            @Parameter(description = "Fields to return: id, name, email, createdAt, updatedAt, lastSeenAt, loginCount", example = "id,email")
+            @RequestParam String fields) {
+        List<Map<String, Object>> users = userService.getAllUsers(UserFields.parse(fields));
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+
     /**
      * Retrieves a specific user by ID.
      * This endpoint returns the details of a user identified by their ID.
@@ -86,7 +120,10 @@ public class UserController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Get user by ID",
-            description = "Retrieves a specific user's details by their unique identifier. Requires authentication.",
+            description = "Retrieves a specific user's details by their unique identifier. With fields=id,email " +
+                    "only those fields are read and returned, as JSON, CBOR or Smile. Requires authentication.",
+            parameters = @Parameter(name = "fields", in = ParameterIn.QUERY, example = "id,email",
+                    description = "Fields to return: id, name, email, createdAt, updatedAt, lastSeenAt, loginCount"),
             tags = {"User Management"}
     )
     @ApiResponses(value = {
@@ -95,6 +132,11 @@ public class UserController {
                     description = "User found successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - Unknown field in fields",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "User not found - No user exists with the provided ID",
@@ -118,6 +160,25 @@ public class UserController {
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves some fields of a specific user by ID.
+     * Mapped separately from {@link #getUserById(Long)} for the same reason as {@link #getAllUserFields}.
+     *
+     * @param id The ID of the user to retrieve
+     * @param fields Comma-separated fields to return
+     * @return ResponseEntity containing the requested fields of the user
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(hidden = true)
+    public ResponseEntity<Map<String, Object>> getUserFieldsById(
+            @Parameter(description = "ID of the user to retrieve", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Fields to return: id, name, email, createdAt, updatedAt, lastSeenAt, loginCount", example = "id,email")
+            @RequestParam String fields) {
+        Map<String, Object> user = userService.getUserById(id, UserFields.parse(fields));
+        return new ResponseEntity<>(user, HttpStatus.OK);
+    }
+
     /**
      * Updates an existing user with provided data.
      * This endpoint allows updating a user's name, email, and/or password.
@@ -212,4 +273,68 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.ok(new MessageResponse("User deleted successfully!"));
     }
+
+    /**
+     * Runs several get, update and delete operations in one request.
+     * This endpoint saves tools that touch many users the HTTP, security and transaction
+     * overhead of one request per user.
+     *
+     * @param batchRequest DTO containing the operations and the transaction mode
+     * @return ResponseEntity containing one result per operation
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Run a batch of user operations",
+            description = "Runs up to 100 GET, UPDATE and DELETE operations in order. With atomic=true " +
+                    "(the default) they commit or roll back together and the batch stops at the first failure; " +
+                    "otherwise each one commits on its own. Each result carries the status the single " +
+                    "request would have had and whether it committed. Each operation counts as one request " +
+                    "against the rate limit and load shedding. Requires authentication.",
+            tags = {"User Management"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch ran; see the per-operation results",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - No operations, too many operations or invalid operation data",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - JWT token is missing or invalid",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - insufficient permissions",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests - each operation counts against the rate limit",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service unavailable - overloaded; each operation counts against the concurrency limit",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<BatchResponse> executeBatch(
+            @Parameter(description = "Operations to run, in order", required = true)
+            @Valid @RequestBody BatchRequest batchRequest,
+            HttpServletRequest request, HttpServletResponse response) {
+
+        // The filters let the batch in as one request; charge the other operations before any runs
+        int moreOperations = batchRequest.getOperations().size() - 1;
+        LoadSheddingFilter.chargeMore(request, moreOperations);
+        RateLimitFilter.chargeMore(request, response, moreOperations);
+
+        BatchResponse batchResponse = userService.executeBatch(batchRequest);
+        return new ResponseEntity<>(batchResponse, HttpStatus.OK);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.nathan.usermanagementapi.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents one operation of a batch request to {@code POST /api/users/batch}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+
+    /**
+     * The operations a batch can contain, matching the single-user endpoints.
+     */
+    public enum Type {
+        GET, UPDATE, DELETE
+    }
+
+    // The operation to run, cannot be null.
+    @NotNull
+    private Type op;
+
+    // The ID of the user the operation applies to, cannot be null.
+    @NotNull
+    private Long id;
+
+    // The fields to update, for UPDATE operations only.
+    @Valid
+    private UpdateUserRequest body;
+}
@@ -0,0 +1,28 @@
+package com.nathan.usermanagementapi.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a request to run several user operations in one round trip.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+
+    // The operations to run, in order; between 1 and 100 of them.
+    @NotEmpty
+    @Size(max = 100)
+    @Valid
+    private List<BatchOperation> operations;
+
+    // Whether all operations commit or roll back together; defaults to app.users.batch.atomic.
+    private Boolean atomic;
+}
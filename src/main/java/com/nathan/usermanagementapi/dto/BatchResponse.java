@@ -0,0 +1,26 @@
+package com.nathan.usermanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of a batch request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse {
+
+    // Whether the batch ran in one transaction.
+    private boolean atomic;
+
+    // Whether every operation committed: false if an atomic batch rolled back, or if any operation
+    // of a non-atomic batch failed; see each result for which ones did.
+    private boolean committed;
+
+    // One result per operation, in request order.
+    private List<BatchResult> results;
+}
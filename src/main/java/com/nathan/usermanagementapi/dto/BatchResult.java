@@ -0,0 +1,26 @@
+package com.nathan.usermanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the outcome of one operation of a batch, at the same position as the operation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+
+    // The HTTP status the operation would have had as a single request.
+    private int status;
+
+    // The user read or updated, null for deletes and failed operations.
+    private UserDto user;
+
+    // The success or error message, null for reads and updates that succeeded.
+    private String message;
+
+    // Whether the transaction the operation ran in committed; false if it failed, was rolled back or did not run.
+    private boolean committed;
+}
@@ -25,6 +25,12 @@ public class JwtResponse {
     // The email address of the user.
     private String email;
 
+    // The single-use token to exchange for a new token pair at /api/auth/refresh.
+    private String refreshToken;
+
+    // The lifetime of the access token in seconds.
+    private Long expiresIn;
+
     /**
      * Constructs a JwtResponse with the provided token, user ID, name, and email.
      *
@@ -39,4 +45,20 @@ public class JwtResponse {
         this.name = name;
         this.email = email;
     }
-}
\ No newline at end of file
+
+    /**
+     * Constructs a JwtResponse for a login or refresh, carrying both tokens.
+     *
+     * @param token The JWT access token.
+     * @param id The user ID.
+     * @param name The user's name.
+     * @param email The user's email address.
+     * @param refreshToken The refresh token.
+     * @param expiresIn The lifetime of the access token in seconds.
+     */
+    public JwtResponse(String token, Long id, String name, String email, String refreshToken, Long expiresIn) {
+        this(token, id, name, email);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nathan.usermanagementapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a request carrying a refresh token, to rotate or revoke it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRefreshRequest {
+
+    // The refresh token returned by the last login or refresh, cannot be blank.
+    @NotBlank
+    private String refreshToken;
+}
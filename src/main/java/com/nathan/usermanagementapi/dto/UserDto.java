@@ -41,4 +41,14 @@ public class UserDto {
      * The date when the user was last updated.
      */
     private Date updatedAt;
+
+    /**
+     * The date of the user's most recent authenticated request, if any.
+     */
+    private Date lastSeenAt;
+
+    /**
+     * The number of successful logins of the user.
+     */
+    private long loginCount;
 }
\ No newline at end of file
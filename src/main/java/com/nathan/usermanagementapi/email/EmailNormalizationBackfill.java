@@ -0,0 +1,204 @@
+package com.nathan.usermanagementapi.email;
+
+import com.nathan.usermanagementapi.config.EmailNormalizationProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills in the {@code email_normalized} column of existing users.
+ *
+ * <p>
+ * Runs once in the background after startup. The unique index on the column is created by the
+ * schema migrations; new and updated users already carry their canonical email, so duplicates
+ * are rejected from the start. The table is walked in id order, {@code batch-size} users at a
+ * time. Each batch is one short {@code UPDATE ... FROM unnest(...)} statement in its own
+ * transaction, writing only the rows whose stored value differs from the current rules, so
+ * concurrent requests wait at most for the row locks of one batch and a rerun after a completed
+ * backfill reads but never writes.
+ * </p>
+ *
+ * <p>
+ * A row is skipped if its email changed since it was read (the request that changed it wrote the
+ * new canonical form), or if its canonical email already belongs to another user. The latter are
+ * pre-existing duplicates that differ only by case or provider rules; they keep a null or outdated
+ * value, are logged with their ids to be merged by hand, and can still log in with their email
+ * exactly as stored, which lookups also match.
+ * </p>
+ */
+@Component
+public class EmailNormalizationBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailNormalizationBackfill.class);
+
+    private static final String SELECT_BATCH =
+            "SELECT id, email, email_normalized FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Guarded by the email read with the batch and by any other user already holding the canonical value
+    private static final String UPDATE_BATCH = """
+            UPDATE users u
+               SET email_normalized = v.normalized
+              FROM unnest(?::bigint[], ?::text[], ?::text[]) AS v(id, email, normalized)
+             WHERE u.id = v.id
+               AND u.email = v.email
+               AND u.email_normalized IS DISTINCT FROM v.normalized
+               AND NOT EXISTS (SELECT 1 FROM users o WHERE o.email_normalized = v.normalized AND o.id <> u.id)
+            RETURNING u.id""";
+
+    private static final int MAX_LOGGED_IDS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Plain JDBC access for the keyset scan and batched updates
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Autowired
+    private EmailNormalizationProperties properties;
+
+    private volatile boolean running = true;
+
+    /**
+     * Runs the backfill on the async executor once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.getBackfill().isEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Stops the backfill after the current batch.
+     */
+    @PreDestroy
+    void stop() {
+        running = false;
+    }
+
+    /**
+     * Brings every user's canonical email up to date.
+     */
+    public void run() {
+        long start = System.nanoTime();
+        int batchSize = Math.max(1, properties.getBackfill().getBatchSize());
+        long lastId = 0;
+        long scanned = 0;
+        long updated = 0;
+        List<Long> conflicts = new ArrayList<>();
+        try {
+            while (running) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_BATCH, lastId, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+                scanned += rows.size();
+                updated += updateBatch(rows, conflicts);
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(properties.getBackfill().getPauseMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Email normalization backfill stopped after user {}: {}", lastId, e.getMessage());
+            return;
+        }
+
+        if (!conflicts.isEmpty()) {
+            logger.warn("{} users share their canonical email with another user and were not normalized: ids {}{}",
+                    conflicts.size(), conflicts.subList(0, Math.min(conflicts.size(), MAX_LOGGED_IDS)),
+                    conflicts.size() > MAX_LOGGED_IDS ? " ..." : "");
+        }
+        logger.info("Email normalization backfill {}: {} users scanned, {} updated, in {} ms",
+                running ? "completed" : "interrupted", scanned, updated, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Writes the canonical email of the rows of one batch whose stored value is outdated.
+     *
+     * @param rows      the batch, in id order
+     * @param conflicts collects the ids of users whose canonical email belongs to another user
+     * @return the number of updated rows
+     */
+    private int updateBatch(List<Map<String, Object>> rows, List<Long> conflicts) {
+        List<Long> ids = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        List<String> normalized = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            String email = (String) row.get("email");
+            String canonical = emailNormalizer.normalize(email);
+            if (canonical.equals(row.get("email_normalized"))) {
+                seen.add(canonical);
+                continue;
+            }
+            // Two users of the same batch with the same canonical email: the older one keeps it
+            if (!seen.add(canonical)) {
+                conflicts.add(id);
+                continue;
+            }
+            ids.add(id);
+            emails.add(email);
+            normalized.add(canonical);
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> written;
+        try {
+            written = update(ids, emails, normalized);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent signup took one of the values between the check and the write: check again
+            written = update(ids, emails, normalized);
+        }
+        Set<Long> writtenIds = new HashSet<>(written);
+        for (int i = 0; i < ids.size(); i++) {
+            // Rows whose email changed meanwhile were skipped too; they are not conflicts
+            if (!writtenIds.contains(ids.get(i)) && isTakenByAnother(ids.get(i), normalized.get(i))) {
+                conflicts.add(ids.get(i));
+            }
+        }
+        return written.size();
+    }
+
+    private List<Long> update(List<Long> ids, List<String> emails, List<String> normalized) {
+        return jdbcTemplate.query(connection -> {
+            Array idArray = connection.createArrayOf("bigint", ids.toArray());
+            Array emailArray = connection.createArrayOf("text", emails.toArray());
+            Array normalizedArray = connection.createArrayOf("text", normalized.toArray());
+            PreparedStatement statement = connection.prepareStatement(UPDATE_BATCH);
+            statement.setArray(1, idArray);
+            statement.setArray(2, emailArray);
+            statement.setArray(3, normalizedArray);
+            return statement;
+        }, (resultSet, rowNum) -> resultSet.getLong(1));
+    }
+
+    private boolean isTakenByAnother(Long id, String normalized) {
+        Boolean taken = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE email_normalized = ? AND id <> ?)",
+                Boolean.class, normalized, id);
+        return Boolean.TRUE.equals(taken);
+    }
+}
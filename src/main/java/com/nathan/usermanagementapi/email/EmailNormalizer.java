@@ -0,0 +1,82 @@
+package com.nathan.usermanagementapi.email;
+
+import com.nathan.usermanagementapi.config.EmailNormalizationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Computes the canonical form of an email, the key users are looked up by.
+ *
+ * <p>
+ * The address is trimmed and case-folded as a whole: providers treat the local part as
+ * case-insensitive in practice, even though the RFC allows otherwise. If the domain belongs to
+ * one of the configured providers (none by default), its rules are applied to the local part
+ * (dropping a {@code +tag} subaddress, ignoring dots) and aliased domains are rewritten to the
+ * canonical one, so {@code John.Doe+news@GoogleMail.com} becomes {@code johndoe@gmail.com}.
+ * Provider rules merge addresses that may belong to different people, which then collide; they
+ * are meant for new databases. The email as entered is kept for display and for tokens; only
+ * lookups and uniqueness use the canonical form.
+ * </p>
+ *
+ * <p>
+ * Changing the rules changes the canonical form of existing users; the
+ * {@link EmailNormalizationBackfill} rewrites their stored values at the next start.
+ * </p>
+ */
+@Component
+public class EmailNormalizer {
+
+    private final Map<String, EmailNormalizationProperties.Provider> providers = new HashMap<>();
+
+    /**
+     * Indexes the provider rules by domain.
+     *
+     * @param properties the normalization settings
+     */
+    @Autowired
+    public EmailNormalizer(EmailNormalizationProperties properties) {
+        for (EmailNormalizationProperties.Provider provider : properties.getProviders()) {
+            for (String domain : provider.getDomains()) {
+                providers.put(domain.trim().toLowerCase(Locale.ROOT), provider);
+            }
+        }
+    }
+
+    /**
+     * Canonicalizes an email.
+     *
+     * @param email the email as entered
+     * @return the canonical form; a value without {@code @} is only trimmed and lower-cased
+     */
+    public String normalize(String email) {
+        String folded = email.trim().toLowerCase(Locale.ROOT);
+        int at = folded.lastIndexOf('@');
+        if (at < 0) {
+            return folded;
+        }
+        String domain = folded.substring(at + 1);
+        EmailNormalizationProperties.Provider provider = providers.get(domain);
+        if (provider == null) {
+            return folded;
+        }
+
+        String local = folded.substring(0, at);
+        String separator = provider.getSubaddressSeparator();
+        if (separator != null && !separator.isEmpty()) {
+            int tag = local.indexOf(separator);
+            // An address that is nothing but a subaddress is left alone rather than emptied
+            if (tag > 0) {
+                local = local.substring(0, tag);
+            }
+        }
+        if (provider.isIgnoreDots()) {
+            local = local.replace(".", "");
+        }
+        String canonicalDomain = provider.getCanonicalDomain();
+        return local + '@' + (canonicalDomain == null ? domain : canonicalDomain.toLowerCase(Locale.ROOT));
+    }
+}
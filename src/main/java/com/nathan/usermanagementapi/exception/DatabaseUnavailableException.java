@@ -0,0 +1,39 @@
+package com.nathan.usermanagementapi.exception;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown instead of calling the database while its circuit breaker is open.
+ * Mapped to HTTP 503 (Service Unavailable) by the global exception handler and the JWT filter.
+ *
+ * <p>
+ * Thrown on every rejected call while the database is unhealthy, so no stack trace is captured.
+ * It is a transient data access exception: retrying later may succeed.
+ * </p>
+ */
+public class DatabaseUnavailableException extends TransientDataAccessResourceException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception for the given circuit breaker.
+     *
+     * @param breaker the name of the open circuit breaker
+     */
+    public DatabaseUnavailableException(String breaker) {
+        super("Database unavailable (circuit breaker '" + breaker + "' is open)");
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
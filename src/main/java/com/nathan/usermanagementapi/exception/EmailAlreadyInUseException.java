@@ -0,0 +1,35 @@
+package com.nathan.usermanagementapi.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a signup or update uses an email that belongs to another user.
+ * Mapped to HTTP 400 (Bad Request) by the global exception handler.
+ *
+ * <p>
+ * This is an expected outcome rather than a bug, so no stack trace is captured.
+ * It extends IllegalArgumentException for callers that already handle that type.
+ * </p>
+ */
+public class EmailAlreadyInUseException extends IllegalArgumentException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the default message.
+     */
+    public EmailAlreadyInUseException() {
+        super("Email is already in use");
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nathan.usermanagementapi.exception;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when no user has the email presented at login or in a token.
+ *
+ * <p>
+ * Clients can trigger this at will, so it skips stack trace capture.
+ * Spring Security reports it to login callers as bad credentials.
+ * </p>
+ */
+public class EmailNotFoundException extends UsernameNotFoundException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception for the given email.
+     *
+     * @param email the email that was not found
+     */
+    public EmailNotFoundException(String email) {
+        super("User not found with email: " + email);
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,101 @@
+package com.nathan.usermanagementapi.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes the JSON error body shared by the security entry points and the global exception handler.
+ *
+ * <p>
+ * Every error has the same shape:
+ * {@code {"status":401,"error":"Unauthorized","message":"...","path":"/api/users"}}.
+ * The constant parts, including the status and reason phrase of every HTTP status, are encoded to
+ * UTF-8 once at startup, so writing an error only escapes the message and path and copies bytes to
+ * the response. No ObjectMapper, map or intermediate string is involved, which matters when a flood
+ * of unauthenticated requests turns this into the hottest path of the application.
+ * </p>
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private static final byte[] MESSAGE_FIELD = ascii(",\"message\":");
+    private static final byte[] PATH_FIELD = ascii(",\"path\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] END = ascii("}");
+    private static final int QUOTE = '"';
+
+    /**
+     * {@code {"status":<code>,"error":"<reason phrase>"} for every status, without the closing brace.
+     */
+    private static final Map<HttpStatus, byte[]> PREFIXES = new EnumMap<>(HttpStatus.class);
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            PREFIXES.put(status, ("{\"status\":" + status.value() + ",\"error\":\""
+                    + new String(JsonStringEncoder.getInstance().quoteAsString(status.getReasonPhrase()))
+                    + "\"").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes an error response and commits it.
+     *
+     * @param response the response to write to
+     * @param status   the HTTP status
+     * @param message  the error message, may be null
+     * @param path     the request path, may be null
+     * @throws IOException if the response cannot be written
+     */
+    public void write(HttpServletResponse response, HttpStatus status, String message, String path) throws IOException {
+        byte[] prefix = PREFIXES.get(status);
+        byte[] encodedMessage = encode(message);
+        byte[] encodedPath = encode(path);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(prefix.length
+                + MESSAGE_FIELD.length + length(encodedMessage)
+                + PATH_FIELD.length + length(encodedPath)
+                + END.length);
+
+        OutputStream out = response.getOutputStream();
+        out.write(prefix);
+        out.write(MESSAGE_FIELD);
+        writeString(out, encodedMessage);
+        out.write(PATH_FIELD);
+        writeString(out, encodedPath);
+        out.write(END);
+        out.flush();
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : JsonStringEncoder.getInstance().quoteAsUTF8(value);
+    }
+
+    private static int length(byte[] encoded) {
+        return encoded == null ? NULL.length : encoded.length + 2;
+    }
+
+    private static void writeString(OutputStream out, byte[] encoded) throws IOException {
+        if (encoded == null) {
+            out.write(NULL);
+            return;
+        }
+        out.write(QUOTE);
+        out.write(encoded);
+        out.write(QUOTE);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,184 @@
+package com.nathan.usermanagementapi.exception;
+
+import com.nathan.usermanagementapi.resilience.DatabaseFailures;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+/**
+ * Central mapping of application exceptions to JSON error responses.
+ *
+ * <p>
+ * Bodies are written by {@link ErrorResponseWriter}, so they have the same shape as the 401 and
+ * 403 responses produced by the security layer. Authentication and authorization exceptions are
+ * deliberately not handled here; they propagate to Spring Security, which answers with the proper
+ * 401 or 403, except for logins that fail because the user could not be loaded at all. Any other
+ * exception falls through to Spring Boot's default error handling.
+ * </p>
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @Autowired
+    private ErrorResponseWriter errorResponseWriter;
+
+    /**
+     * Handles requests for users (or other resources) that do not exist.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 404 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public void handleNotFound(ResourceNotFoundException e, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        errorResponseWriter.write(response, HttpStatus.NOT_FOUND, e.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Handles updates that would give a user an email already used by another user.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 400 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(EmailAlreadyInUseException.class)
+    public void handleEmailInUse(EmailAlreadyInUseException e, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        errorResponseWriter.write(response, HttpStatus.BAD_REQUEST, e.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Handles {@code fields} parameters naming fields that users do not have.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 400 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(InvalidFieldsException.class)
+    public void handleInvalidFields(InvalidFieldsException e, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        errorResponseWriter.write(response, HttpStatus.BAD_REQUEST, e.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Handles refresh tokens that are unknown, expired, revoked or reused.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 401 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public void handleInvalidRefreshToken(InvalidRefreshTokenException e, HttpServletRequest request,
+                                          HttpServletResponse response) throws IOException {
+        errorResponseWriter.write(response, HttpStatus.UNAUTHORIZED, e.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Handles request bodies that fail bean validation, listing every invalid field.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 400 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public void handleValidation(MethodArgumentNotValidException e, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        StringBuilder message = new StringBuilder("Validation failed");
+        String separator = ": ";
+        for (FieldError error : e.getBindingResult().getFieldErrors()) {
+            message.append(separator).append(error.getField()).append(' ').append(error.getDefaultMessage());
+            separator = "; ";
+        }
+        errorResponseWriter.write(response, HttpStatus.BAD_REQUEST, message.toString(), request.getRequestURI());
+    }
+
+    /**
+     * Handles requests that cost more tokens than the client's rate-limit bucket holds.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 429 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public void handleRateLimitExceeded(RateLimitExceededException e, HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds());
+        errorResponseWriter.write(response, HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Handles requests that cost more than the load shedder's concurrency limit has room for.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 503 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(ServerOverloadedException.class)
+    public void handleServerOverloaded(ServerOverloadedException e, HttpServletRequest request,
+                                       HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        errorResponseWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Handles calls rejected by an open circuit breaker and database timeouts or connection
+     * failures, telling the client to retry shortly.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 503 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler({TransientDataAccessException.class, DataAccessResourceFailureException.class,
+            CannotCreateTransactionException.class})
+    public void handleDatabaseUnavailable(Exception e, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        writeServiceUnavailable(request, response);
+    }
+
+    /**
+     * Handles logins whose user lookup failed with an error rather than a missing user. When the
+     * database is unavailable this is a 503 like any other request; otherwise it is a server error.
+     *
+     * @param e        the exception
+     * @param request  the current request
+     * @param response the response to write a 503 or 500 to
+     * @throws IOException if the response cannot be written
+     */
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public void handleAuthenticationServiceError(InternalAuthenticationServiceException e, HttpServletRequest request,
+                                                 HttpServletResponse response) throws IOException {
+        if (DatabaseFailures.isUnavailable(e)) {
+            writeServiceUnavailable(request, response);
+            return;
+        }
+        errorResponseWriter.write(response, HttpStatus.INTERNAL_SERVER_ERROR, "Authentication failed",
+                request.getRequestURI());
+    }
+
+    private void writeServiceUnavailable(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        errorResponseWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily unavailable",
+                request.getRequestURI());
+    }
+}
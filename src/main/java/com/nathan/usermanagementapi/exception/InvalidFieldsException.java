@@ -0,0 +1,36 @@
+package com.nathan.usermanagementapi.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a {@code fields} parameter names a field that users do not have.
+ * Mapped to HTTP 400 (Bad Request) by the global exception handler.
+ *
+ * <p>
+ * Clients can trigger this at will, so it skips stack trace capture.
+ * </p>
+ */
+public class InvalidFieldsException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the given message.
+     *
+     * @param message which field was rejected and which are allowed
+     */
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,36 @@
+package com.nathan.usermanagementapi.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a refresh token is unknown, expired, revoked or already used.
+ * Mapped to HTTP 401 (Unauthorized) by the global exception handler.
+ *
+ * <p>
+ * Clients can trigger this at will, so it skips stack trace capture.
+ * </p>
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the given message.
+     *
+     * @param message why the token was rejected
+     */
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,47 @@
+package com.nathan.usermanagementapi.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a request that passed the rate limiter as one request turns out to
+ * cost more than the client's bucket holds, such as a batch of many operations.
+ * Mapped to HTTP 429 (Too Many Requests) by the global exception handler.
+ *
+ * <p>
+ * This is an expected outcome rather than a bug, so no stack trace is captured.
+ * </p>
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String retryAfterSeconds;
+
+    /**
+     * Constructs a new exception with the default message.
+     *
+     * @param retryAfterSeconds the {@code Retry-After} header value
+     */
+    public RateLimitExceededException(String retryAfterSeconds) {
+        super("Rate limit exceeded");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the {@code Retry-After} header value
+     */
+    public String getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -8,6 +8,7 @@ import java.io.Serial;
 /**
  * Exception thrown when a requested resource is not found.
  * This exception is automatically mapped to HTTP 404 (Not Found) status.
+ * A missing resource is an expected outcome, so no stack trace is captured.
  */
 @ResponseStatus(HttpStatus.NOT_FOUND) // Maps this exception to HTTP 404 status
 public class ResourceNotFoundException extends RuntimeException {
@@ -21,6 +22,6 @@ public class ResourceNotFoundException extends RuntimeException {
      * @param message the detail message (which is saved for later retrieval by the getMessage() method)
      */
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
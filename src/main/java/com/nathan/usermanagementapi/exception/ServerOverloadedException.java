@@ -0,0 +1,35 @@
+package com.nathan.usermanagementapi.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a request that the load shedder admitted as one request turns out to
+ * cost more than the concurrency limit has room for, such as a batch of many operations.
+ * Mapped to HTTP 503 (Service Unavailable) by the global exception handler.
+ *
+ * <p>
+ * Thrown on every such request while the server is overloaded, so no stack trace is captured.
+ * </p>
+ */
+public class ServerOverloadedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the default message.
+     */
+    public ServerOverloadedException() {
+        super("Server is overloaded, retry later");
+    }
+
+    /**
+     * Skips stack trace capture, the expensive part of creating an exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,247 @@
+package com.nathan.usermanagementapi.idempotency;
+
+import com.nathan.usermanagementapi.config.IdempotencyProperties;
+import com.nathan.usermanagementapi.exception.ErrorResponseWriter;
+import com.nathan.usermanagementapi.security.services.UserDetailsImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A filter that runs requests carrying an {@code Idempotency-Key} header at most once per key.
+ *
+ * <p>
+ * Applies to the routes in {@code app.idempotency.routes} and runs after authorization, so only
+ * requests that would reach a controller claim keys. Keys are scoped to the authenticated user
+ * (signup requests share an anonymous scope), and each key is bound to a fingerprint of the
+ * method, URI and body of the request that first used it:
+ * </p>
+ * <ul>
+ *     <li>the first request runs, and its response is stored for {@code ttl-ms}, or
+ *     {@code short-ttl-ms} for a 4xx or an anonymous request, unless it failed with a 5xx or 429,
+ *     in which case the key is freed for a retry</li>
+ *     <li>a retry with the same key and request gets the stored status, content type and body,
+ *     with {@code Idempotent-Replayed: true}</li>
+ *     <li>a concurrent retry waits up to {@code wait-timeout-ms} for the first request to finish,
+ *     then gets 409</li>
+ *     <li>the same key with a different request gets 422</li>
+ * </ul>
+ *
+ * <p>
+ * Requests without the header are passed through untouched. The body of a keyed request is read
+ * up front to fingerprint it, so it is limited to {@code max-body-bytes}.
+ * </p>
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final String ANONYMOUS_SCOPE = "anonymous";
+
+    private final IdempotencyService idempotencyService;
+
+    private final ErrorResponseWriter errorResponseWriter;
+
+    /**
+     * Constructor that takes the idempotencyService and errorResponseWriter as parameters.
+     *
+     * @param idempotencyService  the key store
+     * @param errorResponseWriter the writer of the 4xx bodies
+     */
+    public IdempotencyFilter(IdempotencyService idempotencyService, ErrorResponseWriter errorResponseWriter) {
+        this.idempotencyService = idempotencyService;
+        this.errorResponseWriter = errorResponseWriter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        String path = request.getServletPath();
+        if (key == null || !idempotencyService.matches(request.getMethod(), path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        IdempotencyProperties properties = idempotencyService.getProperties();
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            errorResponseWriter.write(response, HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be 1 to " + properties.getMaxKeyLength() + " characters", path);
+            return;
+        }
+        byte[] body = request.getContentLengthLong() > properties.getMaxBodyBytes()
+                ? null : request.getInputStream().readNBytes(properties.getMaxBodyBytes() + 1);
+        if (body == null || body.length > properties.getMaxBodyBytes()) {
+            errorResponseWriter.write(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request body is too large for " + KEY_HEADER, path);
+            return;
+        }
+
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI() : request.getRequestURI() + '?' + request.getQueryString();
+        String fingerprint = idempotencyService.fingerprint(request.getMethod(), uri, body);
+        String scope = scope();
+        String keyHash = idempotencyService.keyHash(scope, key);
+
+        while (true) {
+            IdempotencyStore.Claim claim = idempotencyService.claim(scope, keyHash, fingerprint);
+            IdempotencyStore.Execution execution = claim.execution();
+            if (execution == null) {
+                // The store is full: better to run unprotected than to refuse the request
+                filterChain.doFilter(new CachedBodyRequest(request, body), response);
+                return;
+            }
+            if (claim.owner()) {
+                execute(new CachedBodyRequest(request, body), response, filterChain, keyHash, execution);
+                return;
+            }
+            if (!execution.fingerprint().equals(fingerprint)) {
+                idempotencyService.recordMismatch();
+                errorResponseWriter.write(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        KEY_HEADER + " was already used for a different request", path);
+                return;
+            }
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = execution.response().get(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                stored = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stored = null;
+            }
+            if (stored != null) {
+                idempotencyService.recordReplay();
+                replay(response, stored);
+                return;
+            }
+            if (!execution.response().isDone() || Thread.currentThread().isInterrupted()) {
+                idempotencyService.recordConflict();
+                errorResponseWriter.write(response, HttpStatus.CONFLICT,
+                        "A request with this " + KEY_HEADER + " is still in progress", path);
+                return;
+            }
+            // The first execution failed and freed the key: claim it again
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String keyHash, IdempotencyStore.Execution execution) throws ServletException, IOException {
+        ContentCachingResponseWrapper caching = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, caching);
+            int status = caching.getStatus();
+            if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                idempotencyService.complete(keyHash, execution, new IdempotencyStore.StoredResponse(
+                        status, caching.getContentType(), caching.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyService.abandon(keyHash, execution);
+            }
+        }
+        caching.copyBodyToResponse();
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+        response.flushBuffer();
+    }
+
+    private static String scope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return String.valueOf(user.getId());
+        }
+        return ANONYMOUS_SCOPE;
+    }
+
+    /**
+     * A request whose body was already read, served from memory to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory: it is available at once, then all read
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.nathan.usermanagementapi.idempotency;
+
+import com.nathan.usermanagementapi.config.IdempotencyProperties;
+import com.nathan.usermanagementapi.model.IdempotencyRecord;
+import com.nathan.usermanagementapi.repository.IdempotencyRecordRepository;
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Keeps track of Idempotency-Key executions for {@link IdempotencyFilter}.
+ *
+ * <p>
+ * Keys live in a bounded {@link IdempotencyStore}, as the SHA-256 hash of the caller's scope and
+ * the key. With {@code app.idempotency.persist=true} completed responses are also written to the
+ * idempotency_records table, and a key that is not in memory is looked up there before the request
+ * runs, so retries are answered after a restart or by another instance. Only completed responses
+ * are shared this way: two instances receiving the same key at the same moment may both run it.
+ * </p>
+ *
+ * <p>
+ * Exported meters: {@code idempotency.keys} and
+ * {@code idempotency.requests{outcome=executed|replayed|mismatch|conflict|untracked}}.
+ * </p>
+ */
+@Component
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyProperties properties;
+
+    private final IdempotencyRecordRepository repository;
+
+    private final IdempotencyStore store;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter conflicts;
+    private final Counter untracked;
+
+    /**
+     * Creates the store and registers its meters.
+     *
+     * @param properties    the idempotency settings
+     * @param repository    the table of persisted responses
+     * @param meterRegistry the registry for the key gauge and request counters
+     */
+    @Autowired
+    public IdempotencyService(IdempotencyProperties properties, IdempotencyRecordRepository repository,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.repository = repository;
+        this.store = new IdempotencyStore(properties.getMaxEntries(), properties.getMaxEntriesPerScope());
+        Gauge.builder("idempotency.keys", store, IdempotencyStore::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        executed = requests("executed", meterRegistry);
+        replayed = requests("replayed", meterRegistry);
+        mismatched = requests("mismatch", meterRegistry);
+        conflicts = requests("conflict", meterRegistry);
+        untracked = requests("untracked", meterRegistry);
+    }
+
+    /**
+     * @return the idempotency settings
+     */
+    public IdempotencyProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Checks whether a request honors the Idempotency-Key header.
+     *
+     * @param method the HTTP method
+     * @param path   the request path, without context path
+     * @return true if one of the configured routes matches
+     */
+    public boolean matches(String method, String path) {
+        for (IdempotencyProperties.Route route : properties.getRoutes()) {
+            if (route.getMethod().equalsIgnoreCase(method) && pathMatcher.match(route.getPattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Derives the stored form of a key.
+     *
+     * @param scope the caller the key belongs to
+     * @param key   the Idempotency-Key header
+     * @return the hex-encoded SHA-256 hash of both
+     */
+    public String keyHash(String scope, String key) {
+        return OpaqueTokens.hash(scope + '\n' + key);
+    }
+
+    /**
+     * Hashes a request, so a key reused for a different request can be told apart from a retry.
+     *
+     * @param method the HTTP method
+     * @param uri    the request URI, with query string
+     * @param body   the request body
+     * @return the hex-encoded SHA-256 hash of the request
+     */
+    public String fingerprint(String method, String uri, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + ' ' + uri + '\n').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Claims a key, falling back to the idempotency_records table when persistence is on.
+     *
+     * @param scope       the caller the key belongs to
+     * @param keyHash     the stored form of the key
+     * @param fingerprint the hash of the request
+     * @return the claim; its execution is null if the store is full
+     */
+    public IdempotencyStore.Claim claim(String scope, String keyHash, String fingerprint) {
+        long now = System.currentTimeMillis();
+        IdempotencyStore.Claim claim = store.claim(scope, keyHash, fingerprint, now);
+        if (claim.execution() == null) {
+            untracked.increment();
+            return claim;
+        }
+        if (!claim.owner() || !properties.isPersist()) {
+            return claim;
+        }
+        Optional<IdempotencyRecord> record;
+        try {
+            record = repository.findById(keyHash);
+        } catch (RuntimeException e) {
+            // Same as a miss: the request runs, and a restored response was at worst lost
+            logger.warn("Failed to look up idempotency record: {}", e.getMessage());
+            return claim;
+        }
+        if (record.isEmpty() || record.get().getExpiresAt().getTime() <= now) {
+            return claim;
+        }
+        IdempotencyRecord stored = record.get();
+        IdempotencyStore.Execution restored = store.restore(keyHash, claim.execution(), stored.getFingerprint(),
+                new IdempotencyStore.StoredResponse(stored.getStatus(), stored.getContentType(), stored.getBody()),
+                stored.getExpiresAt().getTime());
+        return new IdempotencyStore.Claim(restored, false);
+    }
+
+    /**
+     * Stores the response of an execution for replay. Client errors and anonymous requests are
+     * kept for {@code short-ttl-ms} only: they are cheap to produce with fresh keys, and a signup
+     * is retried within minutes if at all.
+     *
+     * @param keyHash   the stored form of the key
+     * @param execution the execution the caller owns
+     * @param response  the response to replay
+     */
+    public void complete(String keyHash, IdempotencyStore.Execution execution, IdempotencyStore.StoredResponse response) {
+        boolean shortLived = response.status() >= 400 || IdempotencyFilter.ANONYMOUS_SCOPE.equals(execution.scope());
+        long expiresAt = System.currentTimeMillis() + (shortLived ? properties.getShortTtlMs() : properties.getTtlMs());
+        store.complete(execution, response, expiresAt);
+        executed.increment();
+        if (properties.isPersist()) {
+            try {
+                repository.save(new IdempotencyRecord(keyHash, execution.fingerprint(), response.status(),
+                        response.contentType(), response.body(), new Date(expiresAt)));
+            } catch (RuntimeException e) {
+                // The response is still replayed from memory on this instance
+                logger.warn("Failed to persist idempotency record: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Frees a key after a failed execution, so the client can retry it.
+     *
+     * @param keyHash   the stored form of the key
+     * @param execution the execution the caller owns
+     */
+    public void abandon(String keyHash, IdempotencyStore.Execution execution) {
+        store.abandon(keyHash, execution);
+    }
+
+    /**
+     * Records a replayed response.
+     */
+    public void recordReplay() {
+        replayed.increment();
+    }
+
+    /**
+     * Records a key reused for a different request.
+     */
+    public void recordMismatch() {
+        mismatched.increment();
+    }
+
+    /**
+     * Records a duplicate that gave up waiting for the first execution.
+     */
+    public void recordConflict() {
+        conflicts.increment();
+    }
+
+    /**
+     * Drops expired keys from memory and from the idempotency_records table.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = store.evictExpired(now);
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired idempotency keys", evicted);
+        }
+        if (properties.isPersist()) {
+            try {
+                repository.deleteExpired(new Date(now));
+            } catch (RuntimeException e) {
+                logger.error("Failed to delete expired idempotency records: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Counter requests(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
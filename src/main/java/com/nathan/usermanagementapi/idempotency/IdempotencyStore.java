@@ -0,0 +1,331 @@
+package com.nathan.usermanagementapi.idempotency;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded in-memory map from idempotency keys to the execution they started.
+ *
+ * <p>
+ * The first request with a key claims it and owns an {@link Execution}; duplicates find the same
+ * execution and wait on its future, so a key runs at most once at a time. The owner either
+ * completes the execution with the response to replay, which then lives until its expiry, or
+ * abandons it (the request failed in a way worth retrying), which frees the key and wakes the
+ * waiters to claim it again. Executions in progress never expire.
+ * </p>
+ *
+ * <p>
+ * Every key belongs to a scope, the caller it was claimed for. The store holds at most
+ * {@code maxEntries} keys, and at most {@code maxEntriesPerScope} of one scope, so a caller
+ * rotating keys only ever crowds out its own. When either limit is reached, the completed key
+ * of that scope, or of the whole store, that completed first is dropped to make room; its
+ * retries then run again, as after an expiry. If every key held is still in progress the claim
+ * fails and the caller runs without protection rather than failing. Making room takes constant
+ * time: completed keys are queued in completion order, and keys that already left the store are
+ * skipped when they reach the head of a queue or swept by {@link #evictExpired}.
+ * </p>
+ */
+public class IdempotencyStore {
+
+    /**
+     * A response stored for replay.
+     *
+     * @param status      the HTTP status
+     * @param contentType the content type, may be null
+     * @param body        the body
+     */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * One execution of a keyed request.
+     */
+    public static final class Execution {
+
+        private final String key;
+
+        private final String scope;
+
+        private final String fingerprint;
+
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        // Set once the execution left the store, so the completion queues skip it
+        private volatile boolean dropped;
+
+        private Execution(String key, String scope, String fingerprint) {
+            this.key = key;
+            this.scope = scope;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * @return the caller the key was claimed for
+         */
+        public String scope() {
+            return scope;
+        }
+
+        /**
+         * @return the hash of the request that claimed the key
+         */
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * @return completes with the stored response, or with null if the execution was abandoned
+         */
+        public CompletableFuture<StoredResponse> response() {
+            return response;
+        }
+    }
+
+    /**
+     * The result of a claim.
+     *
+     * @param execution the execution now associated with the key, null if the store is full
+     * @param owner     true if the caller claimed the key and must run the request
+     */
+    public record Claim(Execution execution, boolean owner) {
+    }
+
+    /**
+     * The keys of one scope; only ever read or changed inside a {@code scopes.compute} call.
+     */
+    private static final class Scope {
+
+        private int held;
+
+        // Completed executions of the scope, in completion order
+        private final Queue<Execution> completed = new ArrayDeque<>();
+    }
+
+    private final Map<String, Execution> executions = new ConcurrentHashMap<>();
+
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+
+    // Completed executions of every scope, in completion order
+    private final Queue<Execution> completed = new ConcurrentLinkedQueue<>();
+
+    private final int maxEntries;
+
+    private final int maxEntriesPerScope;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param maxEntries         the maximum number of keys held
+     * @param maxEntriesPerScope the maximum number of keys held for one scope
+     */
+    public IdempotencyStore(int maxEntries, int maxEntriesPerScope) {
+        this.maxEntries = maxEntries;
+        this.maxEntriesPerScope = maxEntriesPerScope;
+    }
+
+    /**
+     * Claims a key, or finds the execution that already claimed it.
+     *
+     * @param scope       the caller the key belongs to
+     * @param key         the scoped key
+     * @param fingerprint the hash of the request
+     * @param now         the current time in epoch milliseconds
+     * @return the claim
+     */
+    public Claim claim(String scope, String key, String fingerprint, long now) {
+        while (true) {
+            Execution existing = executions.get(key);
+            if (existing != null) {
+                if (existing.expiresAt > now) {
+                    return new Claim(existing, false);
+                }
+                drop(existing);
+                continue;
+            }
+            if (!reserve(scope)) {
+                if (!dropOldestCompleted(scope)) {
+                    return new Claim(null, false);
+                }
+                continue;
+            }
+            if (executions.size() >= maxEntries && !dropOldestCompleted()) {
+                release(scope);
+                return new Claim(null, false);
+            }
+            Execution execution = new Execution(key, scope, fingerprint);
+            existing = executions.putIfAbsent(key, execution);
+            if (existing == null) {
+                return new Claim(execution, true);
+            }
+            release(scope);
+        }
+    }
+
+    /**
+     * Completes an execution; its response is replayed until it expires.
+     *
+     * @param execution the execution the caller owns
+     * @param response  the response to replay
+     * @param expiresAt the expiry in epoch milliseconds
+     */
+    public void complete(Execution execution, StoredResponse response, long expiresAt) {
+        execution.expiresAt = expiresAt;
+        enqueue(execution);
+        execution.response.complete(response);
+    }
+
+    /**
+     * Replaces an execution the caller just claimed with a response stored earlier, e.g. by
+     * another instance. Duplicates already waiting on the claimed execution retry and find it.
+     *
+     * @param key         the scoped key
+     * @param claimed     the execution the caller owns
+     * @param fingerprint the hash of the request the response belongs to
+     * @param response    the stored response
+     * @param expiresAt   the expiry in epoch milliseconds
+     * @return the execution now associated with the key
+     */
+    public Execution restore(String key, Execution claimed, String fingerprint, StoredResponse response, long expiresAt) {
+        Execution restored = new Execution(key, claimed.scope, fingerprint);
+        restored.expiresAt = expiresAt;
+        restored.response.complete(response);
+        // The restored execution takes over the claimed one's place in its scope
+        if (executions.replace(key, claimed, restored)) {
+            claimed.dropped = true;
+            enqueue(restored);
+        }
+        claimed.response.complete(null);
+        return restored;
+    }
+
+    /**
+     * Abandons an execution and frees its key; waiting duplicates may claim it again.
+     *
+     * @param key       the scoped key
+     * @param execution the execution the caller owns
+     */
+    public void abandon(String key, Execution execution) {
+        drop(execution);
+        execution.response.complete(null);
+    }
+
+    /**
+     * Drops completed executions that have expired, and forgets the queued ones that already
+     * left the store.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return the number of keys dropped
+     */
+    public int evictExpired(long now) {
+        int evicted = 0;
+        for (Execution execution : executions.values()) {
+            if (execution.expiresAt <= now && drop(execution)) {
+                evicted++;
+            }
+        }
+        completed.removeIf(execution -> execution.dropped);
+        for (String scope : scopes.keySet()) {
+            scopes.computeIfPresent(scope, (name, state) -> {
+                state.completed.removeIf(execution -> execution.dropped);
+                return state;
+            });
+        }
+        return evicted;
+    }
+
+    /**
+     * @return the number of keys held
+     */
+    public int size() {
+        return executions.size();
+    }
+
+    /**
+     * Counts a new key against its scope.
+     *
+     * @return false if the scope already holds {@code maxEntriesPerScope} keys
+     */
+    private boolean reserve(String scope) {
+        boolean[] reserved = new boolean[1];
+        scopes.compute(scope, (name, state) -> {
+            Scope current = state != null ? state : new Scope();
+            if (current.held < maxEntriesPerScope) {
+                current.held++;
+                reserved[0] = true;
+            }
+            return current;
+        });
+        return reserved[0];
+    }
+
+    private void release(String scope) {
+        scopes.computeIfPresent(scope, (name, state) -> --state.held > 0 ? state : null);
+    }
+
+    private void enqueue(Execution execution) {
+        scopes.computeIfPresent(execution.scope, (name, state) -> {
+            state.completed.add(execution);
+            return state;
+        });
+        completed.add(execution);
+    }
+
+    /**
+     * Removes an execution from the store, if it is still there.
+     *
+     * @return true if this call removed it
+     */
+    private boolean drop(Execution execution) {
+        if (!executions.remove(execution.key, execution)) {
+            return false;
+        }
+        execution.dropped = true;
+        release(execution.scope);
+        return true;
+    }
+
+    /**
+     * Makes room in a scope by dropping its completed execution that completed first.
+     *
+     * @return false if every key of the scope is still in progress
+     */
+    private boolean dropOldestCompleted(String scope) {
+        Execution[] oldest = new Execution[1];
+        scopes.computeIfPresent(scope, (name, state) -> {
+            // Skips executions already gone through expiry or eviction from the whole store
+            Execution head = state.completed.poll();
+            while (head != null && head.dropped) {
+                head = state.completed.poll();
+            }
+            oldest[0] = head;
+            return state;
+        });
+        if (oldest[0] == null) {
+            return false;
+        }
+        // Another claim may have dropped it meanwhile, which made room just the same
+        drop(oldest[0]);
+        return true;
+    }
+
+    /**
+     * Makes room in the store by dropping the completed execution that completed first.
+     *
+     * @return false if every key held is still in progress
+     */
+    private boolean dropOldestCompleted() {
+        Execution head;
+        while ((head = completed.poll()) != null) {
+            if (drop(head)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
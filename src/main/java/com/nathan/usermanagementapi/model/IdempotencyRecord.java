@@ -0,0 +1,61 @@
+package com.nathan.usermanagementapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A response stored for an Idempotency-Key, written when {@code app.idempotency.persist=true} so
+ * retries are answered after a restart or by another instance.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_records",
+        indexes = {
+                @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+        })
+public class IdempotencyRecord {
+
+    /**
+     * The hex-encoded SHA-256 hash of the key and its scope (the user, or anonymous).
+     */
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+
+    /**
+     * The hash of the request the key was first used with.
+     */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    /**
+     * The HTTP status of the stored response.
+     */
+    @Column(nullable = false)
+    private int status;
+
+    /**
+     * The content type of the stored response.
+     */
+    @Column(name = "content_type")
+    private String contentType;
+
+    /**
+     * The body of the stored response.
+     */
+    @Column(nullable = false)
+    private byte[] body;
+
+    /**
+     * The date after which the key may be reused.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+}
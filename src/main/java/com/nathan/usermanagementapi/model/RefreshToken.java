@@ -0,0 +1,82 @@
+package com.nathan.usermanagementapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A refresh token issued at login or by a rotation.
+ *
+ * Only the SHA-256 hash of the token is stored. Every token belongs to a family started by one
+ * login; rotating a token marks it used and issues the next token of the same family. Presenting
+ * a used or revoked token again revokes the whole family.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_tokens",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = "token_hash")
+        },
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+        })
+public class RefreshToken {
+
+    /**
+     * The unique identifier for the token.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The hex-encoded SHA-256 hash of the token.
+     */
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    /**
+     * The login session this token belongs to, shared by all its rotations.
+     */
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    /**
+     * The id of the user the token was issued to.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The date when the token was issued.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    /**
+     * The date after which the token can no longer be used.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    /**
+     * The date when the token was exchanged for its successor, if it was.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "used_at")
+    private Date usedAt;
+
+    /**
+     * The date when the token's family was revoked, if it was.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "revoked_at")
+    private Date revokedAt;
+}
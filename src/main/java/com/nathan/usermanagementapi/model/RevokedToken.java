@@ -0,0 +1,52 @@
+package com.nathan.usermanagementapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * An access token revoked before its expiry, identified by its JWT id ({@code jti}).
+ *
+ * Rows are the durable copy of the in-memory denylist and are deleted once the token has expired.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = {
+                @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+                @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+        })
+public class RevokedToken {
+
+    /**
+     * The JWT id of the revoked access token.
+     */
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    /**
+     * The id of the user the token was issued to.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The expiry of the token; after it the token is rejected anyway and the row can go.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    /**
+     * The date when the token was revoked.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "revoked_at", nullable = false)
+    private Date revokedAt;
+}
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Date;
 
@@ -20,6 +21,11 @@ import java.util.Date;
 @Table(name = "users",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "email")
+        },
+        indexes = {
+                @Index(name = "users_email_normalized_key", columnList = "email_normalized", unique = true),
+                @Index(name = "idx_users_created_at", columnList = "created_at"),
+                @Index(name = "idx_users_updated_at", columnList = "updated_at")
         })
 public class User {
 
@@ -45,6 +51,15 @@ public class User {
     @Email
     private String email;
 
+    /**
+     * The canonical form of the email (see {@code EmailNormalizer}), the key of every lookup by
+     * email. Unique through the {@code users_email_normalized_key} index. Null for users created
+     * before the column existed until the email normalization backfill reaches them.
+     */
+    @Size(max = 50)
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
     /**
      * The password of the user.
      */
@@ -66,6 +81,22 @@ public class User {
     @Column(name = "updated_at")
     private Date updatedAt;
 
+    /**
+     * The date of the user's most recent authenticated request.
+     * Only written by the batched activity flush, never by entity saves.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_seen_at", insertable = false, updatable = false)
+    private Date lastSeenAt;
+
+    /**
+     * The number of successful logins of the user.
+     * Only written by the batched activity flush, never by entity saves.
+     */
+    @ColumnDefault("0")
+    @Column(name = "login_count", nullable = false, insertable = false, updatable = false)
+    private long loginCount;
+
     /**
      * Sets the created date before persisting the user entity.
      */
@@ -0,0 +1,59 @@
+package com.nathan.usermanagementapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * The durable copy of an opaque session token, written through when
+ * {@code app.auth.session.persist=true} so sessions survive a restart.
+ *
+ * Only the SHA-256 hash of the token is stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sessions",
+        indexes = {
+                @Index(name = "idx_sessions_user_id", columnList = "user_id"),
+                @Index(name = "idx_sessions_expires_at", columnList = "expires_at")
+        })
+public class UserSession {
+
+    /**
+     * The hex-encoded SHA-256 hash of the session token.
+     */
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    /**
+     * The id of the user the session belongs to.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The email of the user when the session was created, used to load the user.
+     */
+    @Column(nullable = false)
+    private String email;
+
+    /**
+     * The date when the session was created.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    /**
+     * The date after which the session is no longer valid.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+}
@@ -0,0 +1,146 @@
+package com.nathan.usermanagementapi.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Meters of the authentication hot path.
+ *
+ * <p>
+ * Holds the {@code auth.filter} timers of the JWT filter, one per phase, and the
+ * {@code auth.failures} counters, one per {@link FailureReason}. All meters are registered once at
+ * startup so recording on the request path is a plain field access. Failed logins are counted from
+ * Spring Security's authentication failure events; token failures are reported by the JWT code.
+ * </p>
+ */
+@Component
+public class AuthMetrics {
+
+    /**
+     * Why a request failed to authenticate; exported as the {@code reason} tag of {@code auth.failures}.
+     */
+    public enum FailureReason {
+        TOKEN_EXPIRED("token_expired"),
+        TOKEN_INVALID_SIGNATURE("token_invalid_signature"),
+        TOKEN_ALGORITHM_MISMATCH("token_algorithm_mismatch"),
+        TOKEN_UNKNOWN_KEY("token_unknown_key"),
+        TOKEN_INVALID_CLAIMS("token_invalid_claims"),
+        TOKEN_MALFORMED("token_malformed"),
+        TOKEN_REVOKED("token_revoked"),
+        SESSION_UNKNOWN("session_unknown"),
+        USER_NOT_FOUND("user_not_found"),
+        BAD_CREDENTIALS("bad_credentials"),
+        ACCOUNT_DISABLED("account_disabled"),
+        ACCOUNT_LOCKED("account_locked"),
+        LOGIN_FAILED("login_failed"),
+        UNAUTHENTICATED("unauthenticated");
+
+        private final String tag;
+        private final String logKey;
+
+        FailureReason(String tag) {
+            this.tag = tag;
+            this.logKey = "auth." + tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        /**
+         * Returns the key under which failures of this kind are rate-limited in the logs.
+         *
+         * @return the log key, e.g. {@code auth.token_expired}
+         */
+        public String logKey() {
+            return logKey;
+        }
+    }
+
+    private final Timer parseTimer;
+    private final Timer verifyTimer;
+    private final Timer claimsTimer;
+    private final Timer principalTimer;
+    private final Map<FailureReason, Counter> failures = new EnumMap<>(FailureReason.class);
+
+    /**
+     * Registers all authentication meters.
+     *
+     * @param registry the registry to register the meters with
+     */
+    public AuthMetrics(MeterRegistry registry) {
+        this.parseTimer = filterTimer(registry, "parse", "Extraction of the bearer token from the Authorization header");
+        this.verifyTimer = filterTimer(registry, "verify", "Signature and expiry verification of the JWT");
+        this.claimsTimer = filterTimer(registry, "claims", "Extraction of the subject from the JWT");
+        this.principalTimer = filterTimer(registry, "principal", "Loading of the user details for the token subject");
+
+        for (FailureReason reason : FailureReason.values()) {
+            failures.put(reason, Counter.builder("auth.failures")
+                    .description("Authentication failures by reason")
+                    .tag("reason", reason.tag())
+                    .register(registry));
+        }
+    }
+
+    public Timer tokenParse() {
+        return parseTimer;
+    }
+
+    public Timer tokenVerify() {
+        return verifyTimer;
+    }
+
+    public Timer tokenClaims() {
+        return claimsTimer;
+    }
+
+    public Timer principalLoad() {
+        return principalTimer;
+    }
+
+    /**
+     * Counts one authentication failure.
+     *
+     * @param reason why authentication failed
+     */
+    public void recordFailure(FailureReason reason) {
+        failures.get(reason).increment();
+    }
+
+    /**
+     * Counts failed username/password logins published by the authentication manager.
+     *
+     * @param event the failure event
+     */
+    @EventListener
+    public void onAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
+        Exception exception = event.getException();
+        if (exception instanceof BadCredentialsException) {
+            // Unknown emails are reported as bad credentials too, so they are indistinguishable here
+            recordFailure(FailureReason.BAD_CREDENTIALS);
+        } else if (exception instanceof DisabledException) {
+            recordFailure(FailureReason.ACCOUNT_DISABLED);
+        } else if (exception instanceof LockedException) {
+            recordFailure(FailureReason.ACCOUNT_LOCKED);
+        } else {
+            recordFailure(FailureReason.LOGIN_FAILED);
+        }
+    }
+
+    private static Timer filterTimer(MeterRegistry registry, String phase, String description) {
+        return Timer.builder("auth.filter")
+                .description(description)
+                .tag("phase", phase)
+                .register(registry);
+    }
+}
@@ -0,0 +1,181 @@
+package com.nathan.usermanagementapi.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logger wrapper that rate-limits and samples messages per message key.
+ *
+ * <p>
+ * Meant for paths a client can trigger at will, such as rejected tokens: a client retrying with a
+ * stale token or a scanner must not turn logging into the bottleneck. For each key, the first
+ * {@code burst} messages of every window are logged; after that only one message in
+ * {@code sampleRate} is, and the others are merely counted. The next message logged for the key
+ * reports how many were suppressed since the previous one, and the running totals are exported as
+ * the {@code log.suppressed} counter. A suppressed message costs a few atomic operations: it is
+ * never formatted and never reaches an appender.
+ * </p>
+ *
+ * <p>
+ * Keys must be constants (one per call site or failure kind), never request data, since every key
+ * keeps its own state for the life of the application. Limits are global and set once at startup
+ * by {@code LoggingConfig}.
+ * </p>
+ */
+public final class RateLimitedLogger {
+
+    private static final ConcurrentMap<String, KeyState> STATES = new ConcurrentHashMap<>();
+
+    private static volatile long windowNanos = 1_000_000_000L;
+    private static volatile int burst = 10;
+    private static volatile int sampleRate = 100;
+    private static volatile MeterRegistry meterRegistry;
+
+    private final Logger logger;
+
+    private RateLimitedLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Wraps a logger.
+     *
+     * @param logger the logger to write to
+     * @return the rate-limited logger
+     */
+    public static RateLimitedLogger of(Logger logger) {
+        return new RateLimitedLogger(logger);
+    }
+
+    /**
+     * Sets the limits applied to every key.
+     *
+     * @param windowMillis the length of a rate-limit window
+     * @param burstPerWindow the number of messages per key logged unconditionally in each window
+     * @param sampleOneIn beyond the burst, log one message in this many
+     */
+    public static void configure(long windowMillis, int burstPerWindow, int sampleOneIn) {
+        windowNanos = windowMillis * 1_000_000L;
+        burst = burstPerWindow;
+        sampleRate = Math.max(1, sampleOneIn);
+    }
+
+    /**
+     * Exports the suppressed message counts of existing and future keys.
+     *
+     * @param registry the registry to register the counters with
+     */
+    public static synchronized void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        STATES.forEach((key, state) -> register(registry, key, state));
+    }
+
+    /**
+     * Logs at WARN level, subject to the limits of {@code key}.
+     *
+     * @param key    the message key
+     * @param format the SLF4J message format
+     * @param args   the message arguments
+     */
+    public void warn(String key, String format, Object... args) {
+        log(Level.WARN, key, format, args);
+    }
+
+    /**
+     * Logs at ERROR level, subject to the limits of {@code key}.
+     *
+     * @param key    the message key
+     * @param format the SLF4J message format
+     * @param args   the message arguments
+     */
+    public void error(String key, String format, Object... args) {
+        log(Level.ERROR, key, format, args);
+    }
+
+    private void log(Level level, String key, String format, Object[] args) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+
+        KeyState state = STATES.get(key);
+        if (state == null) {
+            state = state(key);
+        }
+
+        long suppressed = state.tryAcquire(System.nanoTime());
+        if (suppressed < 0) {
+            return;
+        }
+
+        if (suppressed == 0) {
+            logger.atLevel(level).log(format, args);
+        } else {
+            Object[] withCount = Arrays.copyOf(args, args.length + 1);
+            withCount[args.length] = suppressed;
+            logger.atLevel(level).log(format + " ({} similar messages suppressed)", withCount);
+        }
+    }
+
+    private static synchronized KeyState state(String key) {
+        return STATES.computeIfAbsent(key, k -> {
+            KeyState state = new KeyState();
+            if (meterRegistry != null) {
+                register(meterRegistry, k, state);
+            }
+            return state;
+        });
+    }
+
+    private static void register(MeterRegistry registry, String key, KeyState state) {
+        FunctionCounter.builder("log.suppressed", state.totalSuppressed, LongAdder::sum)
+                .description("Log messages dropped by rate limiting or sampling")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    /**
+     * Rate-limit state of one key.
+     */
+    static final class KeyState {
+
+        private final AtomicLong windowStart = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong countInWindow = new AtomicLong();
+        private final AtomicLong pendingSuppressed = new AtomicLong();
+        private final LongAdder totalSuppressed = new LongAdder();
+
+        /**
+         * Decides whether a message may be logged now.
+         *
+         * @param now the current {@link System#nanoTime()}
+         * @return {@code -1} if the message must be dropped, otherwise the number of messages
+         * suppressed since the previous logged one
+         */
+        long tryAcquire(long now) {
+            long start = windowStart.get();
+            if ((start == Long.MIN_VALUE || now - start >= windowNanos) && windowStart.compareAndSet(start, now)) {
+                countInWindow.set(0);
+            }
+
+            long count = countInWindow.incrementAndGet();
+            if (count <= burst || (count - burst) % sampleRate == 0) {
+                return pendingSuppressed.getAndSet(0);
+            }
+
+            pendingSuppressed.incrementAndGet();
+            totalSuppressed.increment();
+            return -1;
+        }
+
+        long totalSuppressed() {
+            return totalSuppressed.sum();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.nathan.usermanagementapi.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went once the application is ready.
+ *
+ * <p>
+ * The application records its startup steps with a {@link BufferingApplicationStartup} (see
+ * {@code UserManagementApiApplication}). This report lists the {@code app.startup.report.top-steps}
+ * steps with the most self time, that is their duration minus that of the steps nested in them,
+ * so a bean is not charged for the dependencies it triggered: the {@code entityManagerFactory}
+ * step shows the Hibernate bootstrap and schema validation alone, {@code flywayInitializer} the
+ * migrations. The full timeline is served by the admin-only {@code /actuator/startup} endpoint.
+ * </p>
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    @Value("${app.startup.report.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.startup.report.top-steps:8}")
+    private int topSteps;
+
+    /**
+     * Logs the total startup time and the slowest steps.
+     *
+     * @param event the ready event, carrying the application context and the time to ready
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        Map<Long, Long> childNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            Long parentId = timelineEvent.getStartupStep().getParentId();
+            if (parentId != null) {
+                childNanos.merge(parentId, timelineEvent.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        String slowest = events.stream()
+                .map(e -> new Step(describe(e.getStartupStep()),
+                        e.getDuration().toNanos() - childNanos.getOrDefault(e.getStartupStep().getId(), 0L)))
+                .sorted(Comparator.comparingLong(Step::selfNanos).reversed())
+                .limit(topSteps)
+                .map(step -> step.name() + " " + step.selfNanos() / 1_000_000 + " ms")
+                .collect(Collectors.joining(", "));
+        logger.info("Ready in {} ms; slowest startup steps (self time): {}",
+                event.getTimeTaken().toMillis(), slowest);
+    }
+
+    private static String describe(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    private record Step(String name, long selfNanos) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.nathan.usermanagementapi.monitoring;
+
+import com.nathan.usermanagementapi.monitoring.jfr.PasswordHashEvent;
+import com.nathan.usermanagementapi.monitoring.jfr.UserOperationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encoder decorator that records the latency of every hash operation.
+ *
+ * <p>
+ * BCrypt is deliberately slow and dominates the cost of signup and login, so its latency is
+ * exported as {@code password.encoder} with an {@code operation} tag of {@code encode} or
+ * {@code matches}. Matches are additionally tagged with their outcome. Each operation is also
+ * emitted as a {@link PasswordHashEvent} for JFR recordings.
+ * </p>
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    /**
+     * Creates the decorator.
+     *
+     * @param delegate the encoder doing the actual hashing
+     * @param registry the registry to register the timers with
+     */
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(registry, "encode", "none");
+        this.matchTimer = timer(registry, "matches", "match");
+        this.mismatchTimer = timer(registry, "matches", "mismatch");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            event.operation = "encode";
+            event.complete(UserOperationEvent.UNKNOWN_USER, "encoded");
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.end();
+        event.operation = "matches";
+        event.complete(UserOperationEvent.UNKNOWN_USER, matches ? "match" : "mismatch");
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation, String outcome) {
+        return Timer.builder("password.encoder")
+                .description("Latency of password hashing")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Signature and expiry verification of a bearer token by the JWT filter.
+ * The user id is the one the token resolved to, if any.
+ */
+@Name("com.nathan.usermanagementapi.JwtVerification")
+@Label("JWT Verification")
+@Category({"User Management API", "Security"})
+@Description("Verification of a bearer token in AuthTokenFilter")
+public class JwtVerificationEvent extends UserOperationEvent {
+}
@@ -0,0 +1,140 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts, stops and dumps a single on-demand Java Flight Recorder recording.
+ *
+ * <p>
+ * At most one recording runs at a time. Every recording is bounded in both duration and size by
+ * {@code app.profiling.jfr.max-duration} and {@code app.profiling.jfr.max-size}; when the duration
+ * elapses JFR stops it on its own and the data stays available for download until it is fetched
+ * or a new recording is started. The application's own events (JWT verification, principal lookup,
+ * password hashing and repository calls) are recorded alongside the JDK's.
+ * </p>
+ */
+@Component
+public class OnDemandRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnDemandRecorder.class);
+
+    private static final String RECORDING_NAME = "user-management-api-on-demand";
+
+    @Value("${app.profiling.jfr.max-duration:PT5M}")
+    private Duration maxDuration;
+
+    @Value("${app.profiling.jfr.max-size:100MB}")
+    private DataSize maxSize;
+
+    private Recording recording;
+
+    /**
+     * Starts a new recording, discarding a previous recording that was never downloaded.
+     *
+     * @param duration the requested duration, capped at the configured maximum
+     * @param settings the JFR settings to use: {@code default} (about 1% overhead) or {@code profile}
+     * @return the status of the new recording
+     * @throws IllegalStateException    if a recording is already running
+     * @throws IllegalArgumentException if the settings name is unknown
+     */
+    public synchronized Map<String, Object> start(Duration duration, String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        closeRecording();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+
+        Recording newRecording = new Recording(configuration);
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        newRecording.setMaxSize(maxSize.toBytes());
+        newRecording.setToDisk(true);
+        newRecording.start();
+        recording = newRecording;
+
+        logger.info("Started JFR recording {} for {} with '{}' settings",
+                newRecording.getId(), newRecording.getDuration(), settings);
+        return status();
+    }
+
+    /**
+     * Stops the current recording if it is still running and writes it to a temporary file.
+     * The recording is released; the caller owns, and must delete, the returned file.
+     *
+     * @return the path of the recording file
+     * @throws IllegalStateException if there is no recording
+     * @throws IOException           if the recording cannot be written
+     */
+    public synchronized Path stopAndDump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No recording has been started");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+
+        Path file = Files.createTempFile("user-management-api-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        } finally {
+            closeRecording();
+        }
+        return file;
+    }
+
+    /**
+     * Describes the current recording.
+     *
+     * @return the recording state, or just {@code state=NONE} if there is none
+     */
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("state", recording.getState());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    /**
+     * Releases the recording and its disk repository on shutdown.
+     */
+    @PreDestroy
+    synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A password hash computation: an encode on signup or update, or a match on login.
+ * The password encoder does not know the user, so the user id is always unknown; correlate
+ * with the enclosing request through the event thread.
+ */
+@Name("com.nathan.usermanagementapi.PasswordHash")
+@Label("Password Hash")
+@Category({"User Management API", "Security"})
+@Description("BCrypt encode or match")
+public class PasswordHashEvent extends UserOperationEvent {
+
+    @Label("Operation")
+    public String operation;
+}
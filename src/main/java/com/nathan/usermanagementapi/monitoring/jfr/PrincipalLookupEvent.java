@@ -0,0 +1,16 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading of the user details for the subject of a verified token.
+ */
+@Name("com.nathan.usermanagementapi.PrincipalLookup")
+@Label("Principal Lookup")
+@Category({"User Management API", "Security"})
+@Description("Loading of the authenticated user's details in AuthTokenFilter")
+public class PrincipalLookupEvent extends UserOperationEvent {
+}
@@ -0,0 +1,23 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A call to a Spring Data repository method, including the time spent in the database.
+ * The user id is taken from the call's first argument when it is a user id or a user.
+ */
+@Name("com.nathan.usermanagementapi.RepositoryCall")
+@Label("Repository Call")
+@Category({"User Management API", "Persistence"})
+@Description("Invocation of a Spring Data repository method")
+public class RepositoryCallEvent extends UserOperationEvent {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+}
@@ -0,0 +1,72 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import com.nathan.usermanagementapi.model.User;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@link RepositoryCallEvent} around every Spring Data repository method.
+ *
+ * <p>
+ * Hooks into each repository factory before it creates the repository proxy, the same way Spring
+ * Boot attaches its repository metrics, so derived queries, {@code @Query} methods and the
+ * inherited CRUD methods are all covered without touching the repository interfaces.
+ * </p>
+ */
+@Component
+public class RepositoryEventsPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                            new EventInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    /**
+     * Records one event per repository method invocation.
+     */
+    private record EventInterceptor(String repository) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+
+            String outcome = "error";
+            event.begin();
+            try {
+                Object result = invocation.proceed();
+                outcome = "success";
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.complete(userId(invocation.getArguments()), outcome);
+                }
+            }
+        }
+
+        private static long userId(Object[] arguments) {
+            if (arguments.length > 0) {
+                if (arguments[0] instanceof Long id) {
+                    return id;
+                }
+                if (arguments[0] instanceof User user && user.getId() != null) {
+                    return user.getId();
+                }
+            }
+            return UserOperationEvent.UNKNOWN_USER;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.nathan.usermanagementapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the application's Java Flight Recorder events.
+ *
+ * <p>
+ * Every event carries the id of the user it concerns ({@code 0} when unknown) and an outcome.
+ * Stack traces are disabled and fields are only filled in once {@link #shouldCommit()} says the
+ * event will be recorded, so with no recording running an event costs a few nanoseconds and is
+ * usually eliminated entirely by the JIT. The events are therefore always on in production.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code begin()}, the measured work, {@code end()}, then {@link #complete(long, String)}.
+ * </p>
+ */
+@Category({"User Management API"})
+@StackTrace(false)
+public abstract class UserOperationEvent extends Event {
+
+    /**
+     * The user id recorded when the user is not known.
+     */
+    public static final long UNKNOWN_USER = 0L;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Commits the event if it is enabled and above its threshold.
+     *
+     * @param userId  the id of the user, or {@link #UNKNOWN_USER}
+     * @param outcome the outcome of the operation
+     */
+    public void complete(long userId, String outcome) {
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
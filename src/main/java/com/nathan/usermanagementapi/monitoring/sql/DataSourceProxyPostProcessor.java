@@ -0,0 +1,61 @@
+package com.nathan.usermanagementapi.monitoring.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} bean in a datasource-proxy that reports to {@link SqlStatementListener}.
+ *
+ * <p>
+ * This replaces {@code spring.jpa.show-sql}: instead of printing every Hibernate statement to
+ * stdout on the request thread, all JDBC traffic (Hibernate and {@code JdbcTemplate} alike) is
+ * measured and only statements above {@code app.sql.log.slow-threshold-ms} are logged. The proxy
+ * delegates {@code unwrap}, so pool metrics and driver-specific APIs such as {@code COPY} still work.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql.log.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.sql.log.slow-threshold-ms:100}")
+    private long slowThresholdMs;
+
+    @Value("${app.sql.log.redact-parameters:true}")
+    private boolean redactParameters;
+
+    /**
+     * Creates the post-processor.
+     *
+     * @param meterRegistry resolved lazily, as post-processors are created before the registry
+     */
+    public DataSourceProxyPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+
+        Counter slowStatements = Counter.builder("sql.slow.statements")
+                .description("JDBC statements slower than the slow statement threshold")
+                .tag("datasource", beanName)
+                .register(meterRegistry.getObject());
+
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(new SqlStatementListener(slowThresholdMs, redactParameters, slowStatements))
+                .build();
+    }
+}
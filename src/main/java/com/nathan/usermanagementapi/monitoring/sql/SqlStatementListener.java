@@ -0,0 +1,151 @@
+package com.nathan.usermanagementapi.monitoring.sql;
+
+import io.micrometer.core.instrument.Counter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC listener behind the slow statement log.
+ *
+ * <p>
+ * Every statement is counted towards the current request (see {@link StatementCountingFilter}).
+ * Statements slower than the threshold are logged on the {@value #LOGGER_NAME} logger, which is
+ * routed through an asynchronous appender so the request thread never waits for the log write.
+ * Each entry carries, as key-value pairs: the elapsed time, the statement type, the batch size,
+ * success, the SQL, the bind parameters and the application method that issued the statement.
+ * Bind parameter values are redacted to their type (and length for strings) unless redaction is
+ * turned off, so passwords, hashes and emails never reach the log.
+ * </p>
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    /**
+     * Name of the logger that receives slow statements.
+     */
+    public static final String LOGGER_NAME = "sql.slow";
+
+    private static final Logger logger = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private static final String APPLICATION_PACKAGE = "com.nathan.usermanagementapi.";
+
+    private static final String SERVICE_PACKAGE = APPLICATION_PACKAGE + "service.";
+
+    private static final String MONITORING_PACKAGE = APPLICATION_PACKAGE + "monitoring.";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long thresholdMs;
+
+    private final boolean redactParameters;
+
+    private final Counter slowStatements;
+
+    /**
+     * Creates the listener.
+     *
+     * @param thresholdMs      statements taking at least this long are logged
+     * @param redactParameters whether to replace bind parameter values by their type
+     * @param slowStatements   counter incremented for every logged statement
+     */
+    public SqlStatementListener(long thresholdMs, boolean redactParameters, Counter slowStatements) {
+        this.thresholdMs = thresholdMs;
+        this.redactParameters = redactParameters;
+        this.slowStatements = slowStatements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nothing to do before execution
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementCountingFilter.increment();
+
+        if (execInfo.getElapsedTime() < thresholdMs || !logger.isWarnEnabled()) {
+            return;
+        }
+        slowStatements.increment();
+
+        // Everything below only runs for slow statements; the caller lookup walks the stack
+        logger.atWarn()
+                .addKeyValue("elapsedMs", execInfo.getElapsedTime())
+                .addKeyValue("type", execInfo.getStatementType())
+                .addKeyValue("batchSize", execInfo.isBatch() ? execInfo.getBatchSize() : 1)
+                .addKeyValue("success", execInfo.isSuccess())
+                .addKeyValue("caller", caller())
+                .addKeyValue("sql", queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")))
+                .addKeyValue("params", parameters(queryInfoList))
+                .log("Slow SQL statement");
+    }
+
+    /**
+     * Renders the bind parameters of all executions, e.g. {@code [[String(16),Long]]}.
+     */
+    private String parameters(List<QueryInfo> queryInfoList) {
+        StringBuilder result = new StringBuilder("[");
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> execution : queryInfo.getParametersList()) {
+                if (execution.isEmpty()) {
+                    continue;
+                }
+                if (result.length() > 1) {
+                    result.append(',');
+                }
+                result.append('[').append(execution.stream()
+                        .map(operation -> render(operation.getArgs()[1]))
+                        .collect(Collectors.joining(","))).append(']');
+            }
+        }
+        return result.append(']').toString();
+    }
+
+    private String render(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (!redactParameters) {
+            return String.valueOf(value);
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        if (value instanceof Object[] array) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + array.length + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    /**
+     * Finds the application method that issued the statement, preferring service classes
+     * such as {@code UserServiceImpl} over controllers and security code.
+     */
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> {
+            List<StackWalker.StackFrame> applicationFrames = frames
+                    .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                    .filter(frame -> !frame.getClassName().startsWith(MONITORING_PACKAGE))
+                    .filter(frame -> !frame.getClassName().contains("$$"))
+                    .limit(16)
+                    .toList();
+            Optional<StackWalker.StackFrame> service = applicationFrames.stream()
+                    .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE))
+                    .findFirst();
+            return service.or(() -> applicationFrames.stream().findFirst())
+                    .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName())
+                    .orElse("unknown");
+        });
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
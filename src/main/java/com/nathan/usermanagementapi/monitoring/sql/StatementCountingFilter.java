@@ -0,0 +1,85 @@
+package com.nathan.usermanagementapi.monitoring.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the JDBC statements executed while serving each request.
+ *
+ * <p>
+ * The count is exported as the {@code sql.statements.per.request} distribution, tagged with the
+ * request method and URI template, so a query-count regression such as an N+1 shows up on the
+ * endpoint's dashboard. Requests exceeding {@code app.sql.log.max-statements-per-request} are
+ * also logged. Statements are counted by {@link SqlStatementListener} on the request thread;
+ * background work (activity flushes, group commits) is not attributed to any request.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sql.log.max-statements-per-request:20}")
+    private int maxStatementsPerRequest;
+
+    /**
+     * Counts one statement against the current request, if any.
+     */
+    static void increment() {
+        int[] counter = CURRENT.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] counter = new int[1];
+        CURRENT.set(counter);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            record(request, counter[0]);
+        }
+    }
+
+    private void record(HttpServletRequest request, int statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("JDBC statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > maxStatementsPerRequest) {
+            logger.warn("Request {} {} executed {} SQL statements (limit {})",
+                    request.getMethod(), uri, statements, maxStatementsPerRequest);
+        }
+    }
+}
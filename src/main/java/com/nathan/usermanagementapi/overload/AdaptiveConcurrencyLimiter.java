@@ -0,0 +1,225 @@
+package com.nathan.usermanagementapi.overload;
+
+import com.nathan.usermanagementapi.config.LoadSheddingProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrency limit that adapts to queueing delay, in the style of a gradient limiter.
+ *
+ * <p>
+ * Latency of completed requests is averaged over short windows. The long-term average of those
+ * windows is the baseline: what a request costs when nothing is queued. When the recent average
+ * rises above {@code tolerance} times the baseline, requests are waiting (on the connection pool,
+ * on Postgres, on the CPU) and the limit is scaled down by the ratio; while latency stays near the
+ * baseline and the limit is actually in use, it grows by roughly its square root per window. New
+ * estimates are smoothed and clamped to {@code [min-limit, max-limit]}.
+ * </p>
+ *
+ * <p>
+ * Admission is one compare-and-set on the in-flight counter and completions only add to striped
+ * counters; the limit is recomputed by whichever completing request first notices that the window
+ * has ended. Normal-priority requests may only use {@code normal-share} of the limit, so logins
+ * still get through while user traffic is being shed.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // When the baseline is more than this many times the recent latency it is decayed faster,
+    // so a long overload does not leave the baseline inflated afterwards
+    private static final double BASELINE_RECOVERY_RATIO = 2.0;
+
+    private static final double BASELINE_RECOVERY_DECAY = 0.95;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int baselineWindows;
+    private final double normalShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger peakInflight = new AtomicInteger();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicLong windowEnd;
+
+    private volatile double estimatedLimit;
+    private volatile int limit;
+    private volatile int normalLimit;
+
+    // Written only by update(), which runs in one thread at a time
+    private volatile double baselineNanos;
+    private volatile double recentNanos;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param properties the limiter settings
+     * @param now        the current time in nanoseconds, which starts the first window
+     */
+    public AdaptiveConcurrencyLimiter(LoadSheddingProperties properties, long now) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWindowMs());
+        this.baselineWindows = properties.getBaselineWindows();
+        this.normalShare = properties.getNormalShare();
+        this.windowEnd = new AtomicLong(now + windowNanos);
+        setLimit(Math.clamp(properties.getInitialLimit(), minLimit, maxLimit));
+    }
+
+    /**
+     * Admits a request if the limit for its priority has not been reached.
+     *
+     * @param highPriority whether the request may use the whole limit rather than its normal share
+     * @return true if admitted; {@link #release} must then be called exactly once
+     */
+    public boolean tryAcquire(boolean highPriority) {
+        int cap = highPriority ? limit : normalLimit;
+        while (true) {
+            int current = inflight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                peakInflight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counts an admitted request as several, for a request that turns out to do the work of
+     * several, such as a batch. A request never counts as more than the whole limit for its
+     * priority, so a large one can still run while nothing else does.
+     *
+     * @param highPriority whether the request was admitted as high priority
+     * @param permits      the permits wanted on top of the one the request holds
+     * @return the permits taken, to add to those passed to {@link #release(int, long, long)};
+     * negative if the limit has no room for them
+     */
+    public int tryAcquireMore(boolean highPriority, int permits) {
+        int cap = highPriority ? limit : normalLimit;
+        int wanted = Math.min(permits, cap - 1);
+        if (wanted <= 0) {
+            return 0;
+        }
+        while (true) {
+            int current = inflight.get();
+            if (current + wanted > cap) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + wanted)) {
+                peakInflight.accumulateAndGet(current + wanted, Math::max);
+                return wanted;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request.
+     *
+     * @param latencyNanos how long the request took, or a negative value to not use it as a sample
+     * @param now          the current time in nanoseconds
+     */
+    public void release(long latencyNanos, long now) {
+        release(1, latencyNanos, now);
+    }
+
+    /**
+     * Releases an admitted request and the permits it took with {@link #tryAcquireMore}.
+     *
+     * @param permits      the permits the request holds
+     * @param latencyNanos how long the request took, or a negative value to not use it as a sample
+     * @param now          the current time in nanoseconds
+     */
+    public void release(int permits, long latencyNanos, long now) {
+        inflight.addAndGet(-permits);
+        if (latencyNanos >= 0) {
+            latencySum.add(latencyNanos);
+            samples.increment();
+        }
+
+        long end = windowEnd.get();
+        if (now >= end && windowEnd.compareAndSet(end, now + windowNanos)) {
+            update();
+        }
+    }
+
+    private void update() {
+        long count = samples.sumThenReset();
+        long sum = latencySum.sumThenReset();
+        int peak = peakInflight.getAndSet(inflight.get());
+        if (count == 0) {
+            return;
+        }
+
+        double recent = (double) sum / count;
+        double baseline = baselineNanos == 0 ? recent : baselineNanos + (recent - baselineNanos) / baselineWindows;
+        if (baseline / recent > BASELINE_RECOVERY_RATIO) {
+            baseline *= BASELINE_RECOVERY_DECAY;
+        }
+        recentNanos = recent;
+        baselineNanos = baseline;
+
+        double current = estimatedLimit;
+        // Far below the limit, latency says nothing about our own queueing: neither grow nor shrink
+        if (peak < current / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(tolerance * baseline / recent, MIN_GRADIENT, 1.0);
+        double headroom = Math.sqrt(current);
+        double target = current * gradient + headroom;
+        setLimit(Math.clamp(current * (1 - smoothing) + target * smoothing, minLimit, maxLimit));
+    }
+
+    private void setLimit(double newLimit) {
+        estimatedLimit = newLimit;
+        limit = (int) newLimit;
+        normalLimit = Math.max(1, (int) (newLimit * normalShare));
+    }
+
+    /**
+     * @return the current concurrency limit for high-priority requests
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return the current concurrency limit for normal-priority requests
+     */
+    public int normalLimit() {
+        return normalLimit;
+    }
+
+    /**
+     * @return the number of admitted requests that have not been released
+     */
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /**
+     * @return the average latency of the last completed window, in nanoseconds
+     */
+    public double recentLatencyNanos() {
+        return recentNanos;
+    }
+
+    /**
+     * @return the long-term latency baseline, in nanoseconds
+     */
+    public double baselineLatencyNanos() {
+        return baselineNanos;
+    }
+}
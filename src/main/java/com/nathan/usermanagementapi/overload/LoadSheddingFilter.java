@@ -0,0 +1,208 @@
+package com.nathan.usermanagementapi.overload;
+
+import com.nathan.usermanagementapi.config.LoadSheddingProperties;
+import com.nathan.usermanagementapi.exception.ErrorResponseWriter;
+import com.nathan.usermanagementapi.exception.ServerOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sheds requests with 503 once the adaptive concurrency limit is reached.
+ *
+ * <p>
+ * Runs ahead of Spring Security, so a rejected request costs neither JWT verification nor a
+ * principal lookup, and ahead of any Tomcat thread blocking on the database. Requests fall into
+ * three priority classes:
+ * </p>
+ * <ul>
+ *     <li>critical ({@code app.load-shedding.critical-paths}, the health probes by default) - never
+ *     shed and not counted, so an overloaded instance is not mistaken for a dead one</li>
+ *     <li>high ({@code app.load-shedding.high-priority-paths}, login by default) - admitted up to the
+ *     full limit</li>
+ *     <li>normal (everything else) - admitted up to {@code normal-share} of the limit; only these
+ *     requests feed latency samples to the limiter, since login latency is dominated by BCrypt
+ *     rather than by queueing</li>
+ * </ul>
+ *
+ * <p>
+ * Every admitted request holds one permit. A request that turns out to do the work of several,
+ * such as a batch, takes more through {@link #chargeMore} once its size is known, and holds them
+ * until it completes.
+ * </p>
+ *
+ * <p>
+ * Exported meters: {@code load.shedding.limit}, {@code load.shedding.inflight},
+ * {@code load.shedding.latency{window=recent|baseline}} and
+ * {@code load.shedding.requests{priority,outcome=admitted|shed}}, from which the shed rate follows.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(prefix = "app.load-shedding", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingFilter.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    // Where an admitted request keeps its permits, for chargeMore
+    private static final String ADMISSION_ATTRIBUTE = LoadSheddingFilter.class.getName() + ".admission";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final List<String> criticalPaths;
+    private final List<String> highPriorityPaths;
+
+    private final Counter highAdmitted;
+    private final Counter highShed;
+    private final Counter normalAdmitted;
+    private final Counter normalShed;
+
+    /**
+     * Creates the limiter and registers its meters.
+     *
+     * @param properties          the load-shedding settings
+     * @param errorResponseWriter the writer of the 503 body
+     * @param meterRegistry       the registry for the limit gauges and request counters
+     */
+    @Autowired
+    public LoadSheddingFilter(LoadSheddingProperties properties, ErrorResponseWriter errorResponseWriter,
+                              MeterRegistry meterRegistry) {
+        this.limiter = new AdaptiveConcurrencyLimiter(properties, System.nanoTime());
+        this.errorResponseWriter = errorResponseWriter;
+        this.criticalPaths = List.copyOf(properties.getCriticalPaths());
+        this.highPriorityPaths = List.copyOf(properties.getHighPriorityPaths());
+
+        Gauge.builder("load.shedding.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("load.shedding.inflight", limiter, AdaptiveConcurrencyLimiter::inflight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        Gauge.builder("load.shedding.latency", limiter, l -> l.recentLatencyNanos() / 1e9)
+                .description("Average latency of normal-priority requests in the last window")
+                .tag("window", "recent")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("load.shedding.latency", limiter, l -> l.baselineLatencyNanos() / 1e9)
+                .description("Long-term latency baseline of normal-priority requests")
+                .tag("window", "baseline")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.highAdmitted = requests(meterRegistry, "high", "admitted");
+        this.highShed = requests(meterRegistry, "high", "shed");
+        this.normalAdmitted = requests(meterRegistry, "normal", "admitted");
+        this.normalShed = requests(meterRegistry, "normal", "shed");
+
+        logger.info("Adaptive load shedding enabled: initial limit {}, bounds [{}, {}]",
+                limiter.limit(), properties.getMinLimit(), properties.getMaxLimit());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        if (matchesAny(criticalPaths, path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean highPriority = matchesAny(highPriorityPaths, path);
+        if (!limiter.tryAcquire(highPriority)) {
+            (highPriority ? highShed : normalShed).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            errorResponseWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is overloaded, retry later", path);
+            return;
+        }
+
+        (highPriority ? highAdmitted : normalAdmitted).increment();
+        Admission admission = new Admission(limiter, highPriority);
+        request.setAttribute(ADMISSION_ATTRIBUTE, admission);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long now = System.nanoTime();
+            // A request holding several permits is sampled at its latency per permit
+            limiter.release(admission.permits, highPriority ? -1 : (now - start) / admission.permits, now);
+        }
+    }
+
+    /**
+     * Counts an admitted request as several, such as a batch of operations, until it completes.
+     * Does nothing for requests this filter did not admit.
+     *
+     * @param request the current request
+     * @param permits the permits to take on top of the one taken by the filter
+     * @throws ServerOverloadedException if the concurrency limit has no room for them
+     */
+    public static void chargeMore(HttpServletRequest request, int permits) {
+        if (permits <= 0 || !(request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission)) {
+            return;
+        }
+        int taken = admission.limiter.tryAcquireMore(admission.highPriority, permits);
+        if (taken < 0) {
+            throw new ServerOverloadedException();
+        }
+        admission.permits += taken;
+    }
+
+    private static boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith("/**")) {
+                int length = pattern.length() - 3;
+                if (path.regionMatches(0, pattern, 0, length)
+                        && (path.length() == length || path.charAt(length) == '/')) {
+                    return true;
+                }
+            } else if (path.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String priority, String outcome) {
+        return Counter.builder("load.shedding.requests")
+                .description("Requests seen by the concurrency limiter")
+                .tag("priority", priority)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The permits held by an admitted request; only touched by the thread running it.
+     */
+    private static final class Admission {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private final boolean highPriority;
+
+        private int permits = 1;
+
+        private Admission(AdaptiveConcurrencyLimiter limiter, boolean highPriority) {
+            this.limiter = limiter;
+            this.highPriority = highPriority;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.nathan.usermanagementapi.projection;
+
+import com.nathan.usermanagementapi.exception.InvalidFieldsException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A subset of the {@code UserDto} fields, as requested with {@code ?fields=id,email}.
+ *
+ * <p>
+ * Every combination of fields is a fixed shape, built once when the class loads, with the JPQL
+ * that selects just those columns. Parsing a {@code fields} parameter only looks the names up and
+ * returns the shared instance, so each combination always issues the same query string and
+ * Hibernate translates it once. The user id is always selected, even when not requested: it is
+ * needed to merge activity that has not been flushed yet, and it keeps rows apart.
+ * </p>
+ */
+public final class UserFields {
+
+    /**
+     * The fields of {@code UserDto}, in output order.
+     */
+    public enum Field {
+        ID("id"),
+        NAME("name"),
+        EMAIL("email"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt"),
+        LAST_SEEN_AT("lastSeenAt"),
+        LOGIN_COUNT("loginCount");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        /**
+         * @return the property name, in JSON and on the {@code User} entity
+         */
+        public String jsonName() {
+            return jsonName;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private static final Map<String, Field> BY_NAME = Arrays.stream(FIELDS)
+            .collect(Collectors.toUnmodifiableMap(Field::jsonName, Function.identity()));
+
+    private static final String ALLOWED = Arrays.stream(FIELDS).map(Field::jsonName).collect(Collectors.joining(", "));
+
+    private static final UserFields[] SHAPES = new UserFields[1 << FIELDS.length];
+
+    static {
+        for (int mask = 1; mask < SHAPES.length; mask++) {
+            SHAPES[mask] = new UserFields(mask);
+        }
+    }
+
+    /**
+     * Every field, the shape of a full {@code UserDto}.
+     */
+    public static final UserFields ALL = SHAPES[SHAPES.length - 1];
+
+    private final int mask;
+
+    private final List<Field> selected;
+
+    private final String selectAll;
+
+    private final String selectById;
+
+    private UserFields(int mask) {
+        this.mask = mask;
+        List<Field> fields = new ArrayList<>();
+        StringBuilder select = new StringBuilder("SELECT u.id");
+        for (Field field : FIELDS) {
+            if ((mask & bit(field)) != 0) {
+                fields.add(field);
+                if (field != Field.ID) {
+                    select.append(", u.").append(field.jsonName());
+                }
+            }
+        }
+        this.selected = List.copyOf(fields);
+        select.append(" FROM User u");
+        this.selectAll = select.toString();
+        this.selectById = select + " WHERE u.id = :id";
+    }
+
+    /**
+     * Parses a {@code fields} parameter.
+     *
+     * @param spec comma-separated field names, e.g. {@code id,email}; null or blank means every field
+     * @return the shared instance for that combination
+     * @throws InvalidFieldsException if a name is not a field of {@code UserDto}
+     */
+    public static UserFields parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return ALL;
+        }
+        int mask = 0;
+        for (String name : spec.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Field field = BY_NAME.get(trimmed);
+            if (field == null) {
+                throw new InvalidFieldsException("Unknown field: " + trimmed + ". Allowed fields: " + ALLOWED);
+            }
+            mask |= bit(field);
+        }
+        return mask == 0 ? ALL : SHAPES[mask];
+    }
+
+    /**
+     * @return the requested fields, in output order
+     */
+    public List<Field> selected() {
+        return selected;
+    }
+
+    /**
+     * Checks whether a field was requested.
+     *
+     * @param field the field
+     * @return true if it is part of the output
+     */
+    public boolean contains(Field field) {
+        return (mask & bit(field)) != 0;
+    }
+
+    /**
+     * @return JPQL selecting the id followed by every requested field other than the id, for all users
+     */
+    public String selectAll() {
+        return selectAll;
+    }
+
+    /**
+     * @return the same as {@link #selectAll()}, for the user with id {@code :id}
+     */
+    public String selectById() {
+        return selectById;
+    }
+
+    private static int bit(Field field) {
+        return 1 << field.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return selected.stream().map(Field::jsonName).collect(Collectors.joining(","));
+    }
+}
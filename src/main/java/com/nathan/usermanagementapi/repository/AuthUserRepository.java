@@ -0,0 +1,116 @@
+package com.nathan.usermanagementapi.repository;
+
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import com.nathan.usermanagementapi.exception.DatabaseUnavailableException;
+import com.nathan.usermanagementapi.model.User;
+import com.nathan.usermanagementapi.resilience.CircuitBreaker;
+import com.nathan.usermanagementapi.resilience.DatabaseFailures;
+import com.nathan.usermanagementapi.resilience.FaultInjector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only user lookups for authentication, on their own connection pool.
+ *
+ * <p>
+ * Every authenticated request and every login loads its user by email. Running those lookups
+ * through {@code authDataSource} rather than the JPA pool keeps them isolated from CRUD traffic in
+ * both directions, and the {@code authCircuitBreaker} makes them fail fast with
+ * {@link DatabaseUnavailableException} once the database stops answering. Only the columns needed
+ * to build the principal are read. Emails are compared in canonical form (see {@link EmailNormalizer}).
+ * </p>
+ */
+@Repository
+public class AuthUserRepository {
+
+    // Same matching as UserRepository.findByEmail: canonical email or exact email, the exact match first
+    private static final String FIND_BY_EMAIL = """
+            SELECT id, name, email, password
+              FROM users
+             WHERE email_normalized = ? OR email = ?
+             ORDER BY email = ? DESC
+             LIMIT 1""";
+
+    private static final RowMapper<User> USER_MAPPER = (resultSet, rowNum) -> {
+        User user = new User();
+        user.setId(resultSet.getLong("id"));
+        user.setName(resultSet.getString("name"));
+        user.setEmail(resultSet.getString("email"));
+        user.setPassword(resultSet.getString("password"));
+        return user;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final FaultInjector faultInjector;
+
+    private final EmailNormalizer emailNormalizer;
+
+    /**
+     * Constructor that takes the auth pool, its breaker, the optional fault injector and the email
+     * normalizer as parameters.
+     *
+     * @param authDataSource  the connection pool reserved for authentication
+     * @param circuitBreaker  the breaker guarding that pool
+     * @param faultInjector   the latency injector of the {@code fault-injection} profile, if enabled
+     * @param emailNormalizer the canonicalization applied to looked-up emails
+     */
+    @Autowired
+    public AuthUserRepository(@Qualifier("authDataSource") DataSource authDataSource,
+                              @Qualifier("authCircuitBreaker") CircuitBreaker circuitBreaker,
+                              ObjectProvider<FaultInjector> faultInjector,
+                              EmailNormalizer emailNormalizer) {
+        this.jdbcTemplate = new JdbcTemplate(authDataSource);
+        this.circuitBreaker = circuitBreaker;
+        this.faultInjector = faultInjector.getIfAvailable();
+        this.emailNormalizer = emailNormalizer;
+    }
+
+    /**
+     * Find a User by their email address, compared in canonical form.
+     *
+     * @param email the email address to search for, as entered
+     * @return an Optional containing the User (id, name, email and password only) if found
+     * @throws DatabaseUnavailableException if the auth circuit breaker is open
+     */
+    public Optional<User> findByEmail(String email) {
+        String normalized = emailNormalizer.normalize(email);
+        long start = System.nanoTime();
+        if (!circuitBreaker.tryAcquire(start)) {
+            throw new DatabaseUnavailableException(circuitBreaker.name());
+        }
+
+        boolean failed = false;
+        try {
+            List<User> users = jdbcTemplate.query(connection -> {
+                // Delay while holding the connection, like a slow query would
+                if (faultInjector != null) {
+                    faultInjector.maybeDelay();
+                }
+                PreparedStatement statement = connection.prepareStatement(FIND_BY_EMAIL);
+                statement.setString(1, normalized);
+                statement.setString(2, email);
+                statement.setString(3, email);
+                return statement;
+            }, USER_MAPPER);
+            return users.stream().findFirst();
+        } catch (RuntimeException e) {
+            failed = DatabaseFailures.isUnavailable(e);
+            throw e;
+        } finally {
+            long now = System.nanoTime();
+            circuitBreaker.onResult(now - start, failed, now);
+        }
+    }
+}
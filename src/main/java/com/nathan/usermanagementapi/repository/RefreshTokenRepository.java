@@ -0,0 +1,66 @@
+package com.nathan.usermanagementapi.repository;
+
+import com.nathan.usermanagementapi.model.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing RefreshToken entities.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Find a refresh token by its hash, locking the row so that two concurrent rotations of the
+     * same token cannot both succeed.
+     *
+     * @param tokenHash the hex-encoded SHA-256 hash of the token
+     * @return an Optional containing the RefreshToken if found, empty otherwise
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoke every token of a family that is not revoked yet.
+     *
+     * @param familyId the family to revoke
+     * @param now      the revocation date
+     * @return the number of tokens revoked
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") Date now);
+
+    /**
+     * Revoke every token of a user that is not revoked yet.
+     *
+     * @param userId the user whose tokens to revoke
+     * @param now    the revocation date
+     * @return the number of tokens revoked
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.userId = :userId AND t.revokedAt IS NULL")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") Date now);
+
+    /**
+     * Delete tokens that expired before the given date.
+     *
+     * @param cutoff the expiry date before which tokens are deleted
+     * @return the number of tokens deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") Date cutoff);
+}
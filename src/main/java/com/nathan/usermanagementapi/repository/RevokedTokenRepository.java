@@ -0,0 +1,46 @@
+package com.nathan.usermanagementapi.repository;
+
+import com.nathan.usermanagementapi.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for managing RevokedToken entities.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Find the revocations of tokens that have not expired yet.
+     *
+     * @param now the current date
+     * @return the revocations still in force
+     */
+    List<RevokedToken> findByExpiresAtAfter(Date now);
+
+    /**
+     * Find revocations recorded since the given date, by this or another instance.
+     *
+     * @param since the date of the previous synchronization
+     * @return the revocations recorded since then
+     */
+    List<RevokedToken> findByRevokedAtAfter(Date since);
+
+    /**
+     * Delete revocations of tokens that have expired.
+     *
+     * @param now the current date
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+}
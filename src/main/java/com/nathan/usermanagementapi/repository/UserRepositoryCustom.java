@@ -0,0 +1,49 @@
+package com.nathan.usermanagementapi.repository;
+
+import com.nathan.usermanagementapi.model.User;
+import com.nathan.usermanagementapi.projection.UserFields;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries of {@link UserRepository} that select only some columns of the users table, and the
+ * lookups by email, which go through the canonical email.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Find every User, reading only the requested fields.
+     *
+     * @param fields the fields to read
+     * @return one row per user: the id, then every requested field other than the id, in field order
+     */
+    List<Object[]> findAllProjected(UserFields fields);
+
+    /**
+     * Find a User by id, reading only the requested fields.
+     *
+     * @param id     the id of the user
+     * @param fields the fields to read
+     * @return an Optional containing the row, laid out as in {@link #findAllProjected}, empty if not found
+     */
+    Optional<Object[]> findProjectedById(Long id, UserFields fields);
+
+    /**
+     * Find a User by their email address, compared in canonical form, so {@code A@x.com} finds
+     * {@code a@x.com}. The email exactly as stored matches too, and wins over another user's
+     * canonical match, so users whose canonical email is missing or outdated are still found.
+     *
+     * @param email the email address to search for, as entered
+     * @return an Optional containing the User if found, empty otherwise
+     */
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Check if a User with the given email address exists, compared as in {@link #findByEmail}.
+     *
+     * @param email the email address to check, as entered
+     * @return true if a User exists with the email, false otherwise
+     */
+    boolean existsByEmail(String email);
+}
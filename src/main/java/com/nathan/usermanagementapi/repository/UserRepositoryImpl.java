@@ -0,0 +1,75 @@
+package com.nathan.usermanagementapi.repository;
+
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import com.nathan.usermanagementapi.model.User;
+import com.nathan.usermanagementapi.projection.UserFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link UserRepositoryCustom}, picked up by Spring Data from its name.
+ *
+ * <p>
+ * The JPQL comes from the {@link UserFields} shape, so each field combination always uses the same
+ * query string and Hibernate's query plan cache translates it only once. Rows are read as scalars:
+ * no entity is instantiated, put in the persistence context or dirty-checked.
+ * </p>
+ *
+ * <p>
+ * Lookups by email compare the canonical email, which the unique index on email_normalized
+ * answers, and the email exactly as stored, through the unique index on email. The exact match
+ * covers every row whose canonical email is missing or outdated: rows the backfill has not
+ * reached yet, duplicates it could not normalize, and rows normalized under rules that changed
+ * since. If both match different users, the exact match wins.
+ * </p>
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String MATCHES_EMAIL =
+            " WHERE u.emailNormalized = :normalized OR u.email = :email";
+
+    private static final String EXACT_MATCH_FIRST = " ORDER BY CASE WHEN u.email = :email THEN 0 ELSE 1 END";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Override
+    public List<Object[]> findAllProjected(UserFields fields) {
+        return entityManager.createQuery(fields.selectAll(), Object[].class).getResultList();
+    }
+
+    @Override
+    public Optional<Object[]> findProjectedById(Long id, UserFields fields) {
+        return entityManager.createQuery(fields.selectById(), Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.createQuery("SELECT u FROM User u" + MATCHES_EMAIL + EXACT_MATCH_FIRST, User.class)
+                .setParameter("normalized", emailNormalizer.normalize(email))
+                .setParameter("email", email)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return !entityManager.createQuery("SELECT u.id FROM User u" + MATCHES_EMAIL, Long.class)
+                .setParameter("normalized", emailNormalizer.normalize(email))
+                .setParameter("email", email)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+}
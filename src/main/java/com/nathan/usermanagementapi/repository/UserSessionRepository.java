@@ -0,0 +1,49 @@
+package com.nathan.usermanagementapi.repository;
+
+import com.nathan.usermanagementapi.model.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for managing UserSession entities.
+ */
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+
+    /**
+     * Find the sessions that have not expired yet.
+     *
+     * @param now the current date
+     * @return the live sessions
+     */
+    List<UserSession> findByExpiresAtAfter(Date now);
+
+    /**
+     * Delete every session of a user.
+     *
+     * @param userId the user whose sessions to delete
+     * @return the number of sessions deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserSession s WHERE s.userId = :userId")
+    int deleteByUser(@Param("userId") Long userId);
+
+    /**
+     * Delete sessions that have expired.
+     *
+     * @param now the current date
+     * @return the number of sessions deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserSession s WHERE s.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+}
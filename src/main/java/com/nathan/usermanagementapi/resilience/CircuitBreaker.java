@@ -0,0 +1,198 @@
+package com.nathan.usermanagementapi.resilience;
+
+import com.nathan.usermanagementapi.config.ResilienceProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count-based circuit breaker for calls to the database.
+ *
+ * <p>
+ * While closed, calls and failures are counted over a tumbling window; a call counts as failed if
+ * it threw an exception that means the database is unhealthy (see {@link DatabaseFailures}) or
+ * took at least {@code slow-call-ms}. Once {@code minimum-calls} have been seen and the failure
+ * rate reaches {@code failure-rate-threshold} percent, the breaker opens and every call is
+ * rejected immediately for {@code open-ms}. It then lets {@code half-open-calls} trial calls
+ * through: if all succeed it closes, if any fails it opens again.
+ * </p>
+ *
+ * <p>
+ * Admission while closed is a single volatile read and recording is a pair of striped counter
+ * increments; state transitions are rare and synchronized.
+ * </p>
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * The breaker states; the ordinal is exported as the {@code circuit.breaker.state} gauge.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long windowNanos;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openUntil;
+
+    private final AtomicLong windowEnd;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param name       the name used in logs and meter tags
+     * @param properties the breaker settings
+     * @param now        the current time in nanoseconds, which starts the first window
+     */
+    public CircuitBreaker(String name, ResilienceProperties.CircuitBreaker properties, long now) {
+        this.name = name;
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.minimumCalls = properties.getMinimumCalls();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWindowMs());
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowCallMs());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(properties.getOpenMs());
+        this.halfOpenCalls = properties.getHalfOpenCalls();
+        this.windowEnd = new AtomicLong(now + windowNanos);
+    }
+
+    /**
+     * Registers the {@code circuit.breaker.state} gauge and {@code circuit.breaker.rejected} counter.
+     *
+     * @param registry the registry to register the meters with
+     * @return this breaker
+     */
+    public CircuitBreaker bindTo(MeterRegistry registry) {
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("circuit.breaker.rejected", rejected, LongAdder::sum)
+                .description("Calls rejected without reaching the database because the breaker was open")
+                .tag("name", name)
+                .register(registry);
+        return this;
+    }
+
+    /**
+     * Asks for permission to make a call.
+     *
+     * @param now the current time in nanoseconds
+     * @return true if the call may proceed; {@link #onResult} must then be called exactly once
+     */
+    public boolean tryAcquire(long now) {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (now - openUntil < 0) {
+                rejected.increment();
+                return false;
+            }
+            halfOpen();
+        }
+        if (halfOpenPermits.getAndDecrement() > 0) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param durationNanos how long the call took
+     * @param failed        whether the call failed in a way that indicates the database is unhealthy
+     * @param now           the current time in nanoseconds
+     */
+    public void onResult(long durationNanos, boolean failed, long now) {
+        boolean bad = failed || durationNanos >= slowCallNanos;
+        State current = state;
+        if (current == State.HALF_OPEN) {
+            if (bad) {
+                open(now, State.HALF_OPEN);
+            } else if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls) {
+                close(now);
+            }
+            return;
+        }
+        if (current == State.OPEN) {
+            // A call admitted just before the breaker opened
+            return;
+        }
+
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            calls.reset();
+            failures.reset();
+        }
+        calls.increment();
+        if (bad) {
+            failures.increment();
+            long total = calls.sum();
+            if (total >= minimumCalls && failures.sum() * 100 >= total * failureRateThreshold) {
+                open(now, State.CLOSED);
+            }
+        }
+    }
+
+    private synchronized void open(long now, State from) {
+        if (state != from) {
+            return;
+        }
+        openUntil = now + openNanos;
+        state = State.OPEN;
+        logger.warn("Circuit breaker '{}' opened after {}; rejecting calls for {} ms",
+                name, from == State.CLOSED ? "too many failed or slow calls" : "a failed trial call",
+                TimeUnit.NANOSECONDS.toMillis(openNanos));
+    }
+
+    private synchronized void halfOpen() {
+        if (state != State.OPEN) {
+            return;
+        }
+        halfOpenPermits.set(halfOpenCalls);
+        halfOpenSuccesses.set(0);
+        state = State.HALF_OPEN;
+    }
+
+    private synchronized void close(long now) {
+        if (state != State.HALF_OPEN) {
+            return;
+        }
+        calls.reset();
+        failures.reset();
+        windowEnd.set(now + windowNanos);
+        state = State.CLOSED;
+        logger.info("Circuit breaker '{}' closed", name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public State state() {
+        return state;
+    }
+}
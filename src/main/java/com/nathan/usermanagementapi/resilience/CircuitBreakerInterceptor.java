@@ -0,0 +1,104 @@
+package com.nathan.usermanagementapi.resilience;
+
+import com.nathan.usermanagementapi.exception.DatabaseUnavailableException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+/**
+ * Checks a circuit breaker before a database call and reports its outcome afterwards.
+ *
+ * <p>
+ * Only the outermost guarded call on a thread goes through the breaker: a repository call made
+ * inside a guarded transaction is part of that transaction's outcome and duration and is not
+ * counted again, so each request is one call for the breaker however many queries it runs. When
+ * fault injection is enabled, the injected delay is part of the measured call, so it counts
+ * towards slow calls.
+ * </p>
+ */
+public class CircuitBreakerInterceptor implements MethodInterceptor {
+
+    // The breaker guarding the call in progress on this thread, if any
+    private static final ThreadLocal<CircuitBreaker> GUARDED_BY = new ThreadLocal<>();
+
+    private final CircuitBreaker breaker;
+
+    private final FaultInjector faultInjector;
+
+    /**
+     * Creates an interceptor for a breaker.
+     *
+     * @param breaker       the breaker guarding the calls
+     * @param faultInjector the latency injector, or null when fault injection is off or not wanted here
+     */
+    public CircuitBreakerInterceptor(CircuitBreaker breaker, FaultInjector faultInjector) {
+        this.breaker = breaker;
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return guard(invocation::proceed);
+    }
+
+    /**
+     * Runs a call that opens its own transaction programmatically behind the breaker.
+     *
+     * @param call the call, typically a {@code TransactionTemplate} execution
+     * @param <T>  the result type
+     * @return the result of the call
+     * @throws DatabaseUnavailableException if the breaker is open
+     */
+    public <T> T execute(Supplier<T> call) {
+        try {
+            return guard(call::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T guard(Call<T> call) throws Throwable {
+        if (GUARDED_BY.get() == breaker) {
+            delay();
+            return call.run();
+        }
+
+        long start = System.nanoTime();
+        if (!breaker.tryAcquire(start)) {
+            throw new DatabaseUnavailableException(breaker.name());
+        }
+
+        CircuitBreaker outer = GUARDED_BY.get();
+        GUARDED_BY.set(breaker);
+        boolean failed = false;
+        try {
+            delay();
+            return call.run();
+        } catch (Throwable e) {
+            failed = DatabaseFailures.isUnavailable(e);
+            throw e;
+        } finally {
+            if (outer == null) {
+                GUARDED_BY.remove();
+            } else {
+                GUARDED_BY.set(outer);
+            }
+            long now = System.nanoTime();
+            breaker.onResult(now - start, failed, now);
+        }
+    }
+
+    private void delay() {
+        if (faultInjector != null) {
+            faultInjector.maybeDelay();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run() throws Throwable;
+    }
+}
@@ -0,0 +1,74 @@
+package com.nathan.usermanagementapi.resilience;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Tells database outages and overload apart from ordinary query errors.
+ *
+ * <p>
+ * Only failures that say something about the health of the database count towards opening a
+ * circuit breaker: connection failures, pool timeouts, statement timeouts and cancellations.
+ * Constraint violations, lock conflicts, missing rows and bad SQL are the caller's problem and
+ * do not. An open breaker's own {@code DatabaseUnavailableException} is transient, so it counts
+ * as unavailable too.
+ * </p>
+ */
+public final class DatabaseFailures {
+
+    // SQLSTATE class 08: connection exception
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+
+    // query_canceled, raised by statement_timeout
+    private static final String QUERY_CANCELED = "57014";
+
+    // admin_shutdown, crash_shutdown, cannot_connect_now
+    private static final String OPERATOR_INTERVENTION_CLASS = "57P";
+
+    private DatabaseFailures() {
+    }
+
+    /**
+     * Checks whether an exception means the database is unavailable or overloaded.
+     *
+     * @param throwable the exception thrown by a database call
+     * @return true if the call should count as a failure for circuit breaking
+     */
+    public static boolean isUnavailable(Throwable throwable) {
+        // Walk the cause chain: lookups failing during login arrive wrapped by Spring Security
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException) {
+                // Lock conflicts between our own transactions, not a sick database
+                return false;
+            }
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    // Untranslated pool and driver timeouts, seen by guards placed outside exception translation
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String sqlState = sqlException.getSQLState();
+                if (sqlState.startsWith(CONNECTION_EXCEPTION_CLASS)
+                        || sqlState.equals(QUERY_CANCELED)
+                        || sqlState.startsWith(OPERATOR_INTERVENTION_CLASS)) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
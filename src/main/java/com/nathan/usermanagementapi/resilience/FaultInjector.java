@@ -0,0 +1,49 @@
+package com.nathan.usermanagementapi.resilience;
+
+import com.nathan.usermanagementapi.config.ResilienceProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adds artificial latency to a fraction of database calls.
+ *
+ * <p>
+ * Only created when {@code app.resilience.fault-injection.enabled} is true, which the
+ * {@code fault-injection} profile does. The delay is taken on the calling thread while the call
+ * holds its connection where it has one, so it exhausts pools, trips slow-call detection and fills
+ * request threads the way a slow database would.
+ * </p>
+ */
+public class FaultInjector {
+
+    private final double probability;
+    private final long latencyMs;
+    private final long jitterMs;
+
+    /**
+     * Creates an injector.
+     *
+     * @param properties the fault-injection settings
+     */
+    public FaultInjector(ResilienceProperties.FaultInjection properties) {
+        this.probability = properties.getProbability();
+        this.latencyMs = properties.getLatencyMs();
+        this.jitterMs = properties.getJitterMs();
+    }
+
+    /**
+     * Sleeps for the configured latency if this call is picked for delay.
+     */
+    public void maybeDelay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() >= probability) {
+            return;
+        }
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nathan.usermanagementapi.resilience;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts every Spring Data repository method behind the {@code crudCircuitBreaker}.
+ *
+ * <p>
+ * Attached the same way as the JFR repository events: through a repository factory customizer,
+ * so derived queries and inherited CRUD methods are all covered. This guards repository calls
+ * made outside a transaction, which take their connection inside the call; transactional service
+ * methods are guarded at their transaction boundary by {@link TransactionResilienceAdvisor}, and
+ * repository calls inside them only add the injected fault latency. While the breaker is open,
+ * calls throw {@code DatabaseUnavailableException} without touching the pool.
+ * </p>
+ */
+@Component
+public class RepositoryResiliencePostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            // Resolved when the repository proxy is built, after post-processors have been registered.
+            // First in the chain, so the breaker is checked before the repository's own transaction begins.
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, new CircuitBreakerInterceptor(
+                            beanFactory.getBean("crudCircuitBreaker", CircuitBreaker.class),
+                            beanFactory.getBeanProvider(FaultInjector.class).getIfAvailable()))));
+        }
+        return bean;
+    }
+}
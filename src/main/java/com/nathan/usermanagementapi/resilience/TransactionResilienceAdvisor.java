@@ -0,0 +1,79 @@
+package com.nathan.usermanagementapi.resilience;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import java.lang.reflect.Method;
+
+/**
+ * Puts every {@code @Transactional} service method behind the {@code crudCircuitBreaker}.
+ *
+ * <p>
+ * A transaction takes its pooled connection when it begins, before the method body and the
+ * repository calls in it run, so the breaker has to be checked outside the transaction: this
+ * advisor is ordered just before Spring's transaction advisor. While the breaker is open, calls
+ * are rejected before waiting for a connection, and pool timeouts
+ * ({@code CannotCreateTransactionException}) count as failures. Spring Data repositories are
+ * left to {@link RepositoryResiliencePostProcessor}, which guards them the same way.
+ * </p>
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class TransactionResilienceAdvisor extends AbstractPointcutAdvisor implements BeanFactoryAware {
+
+    private final TransactionAttributeSource transactionAttributeSource = new AnnotationTransactionAttributeSource();
+
+    private BeanFactory beanFactory;
+
+    private volatile Advice advice;
+
+    /**
+     * Orders this advisor just outside the transaction advisor, which uses the lowest precedence.
+     */
+    public TransactionResilienceAdvisor() {
+        setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return transactionAttributeSource.getTransactionAttribute(method, targetClass) != null;
+            }
+
+            @Override
+            public ClassFilter getClassFilter() {
+                return clazz -> !Repository.class.isAssignableFrom(clazz);
+            }
+        };
+    }
+
+    @Override
+    public Advice getAdvice() {
+        // Resolved on first use rather than while advisors are collected, so the breaker and its meters are created normally
+        Advice resolved = advice;
+        if (resolved == null) {
+            resolved = beanFactory.getBean("crudTransactionGuard", CircuitBreakerInterceptor.class);
+            advice = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,51 @@
+package com.nathan.usermanagementapi.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Generation and hashing of random bearer tokens (refresh tokens and opaque session tokens).
+ *
+ * Tokens are 256 random bits, base64url-encoded. They carry no claims, so they are only ever
+ * stored as SHA-256 hashes: a leaked table cannot be replayed, and since the tokens are random a
+ * plain unsalted hash is enough.
+ */
+public final class OpaqueTokens {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private OpaqueTokens() {
+    }
+
+    /**
+     * Generates a new random token.
+     *
+     * @return the base64url-encoded token, without padding
+     */
+    public static String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Hashes a token for storage.
+     *
+     * @param token the raw token
+     * @return the hex-encoded SHA-256 hash of the token
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.nathan.usermanagementapi.security;
 
+import com.nathan.usermanagementapi.config.RateLimitProperties;
+import com.nathan.usermanagementapi.exception.ErrorResponseWriter;
+import com.nathan.usermanagementapi.idempotency.IdempotencyFilter;
+import com.nathan.usermanagementapi.idempotency.IdempotencyService;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics;
+import com.nathan.usermanagementapi.monitoring.TimedPasswordEncoder;
 import com.nathan.usermanagementapi.security.jwt.AuthEntryPointJwt;
 import com.nathan.usermanagementapi.security.jwt.AuthTokenFilter;
 import com.nathan.usermanagementapi.security.jwt.JwtUtils;
+import com.nathan.usermanagementapi.security.jwt.TokenDenylist;
+import com.nathan.usermanagementapi.security.ratelimit.RateLimitFilter;
+import com.nathan.usermanagementapi.security.ratelimit.RateLimiter;
+import com.nathan.usermanagementapi.security.services.CachingAuthenticationProvider;
+import com.nathan.usermanagementapi.security.services.LoginCache;
 import com.nathan.usermanagementapi.security.services.UserDetailsServiceImpl;
+import com.nathan.usermanagementapi.security.session.SessionTokenService;
+import com.nathan.usermanagementapi.service.activity.UserActivityTracker;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -18,6 +34,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
@@ -28,6 +45,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * - Password encoding
  * - Security filter chain configuration
  * - JWT authentication filter
+ * - Per-client rate limiting
+ * - Idempotency-Key handling
  * - Authorization rules for endpoints
  */
 @Configuration
@@ -44,6 +63,36 @@ public class WebSecurityConfig {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private LoginCache loginCache;
+
+    @Autowired
+    private UserActivityTracker activityTracker;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ErrorResponseWriter errorResponseWriter;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     /**
      * Creates the JWT authentication filter bean.
      * This filter intercepts each request to check for valid JWT tokens
@@ -53,18 +102,20 @@ public class WebSecurityConfig {
      */
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, tokenDenylist, sessionTokenService,
+                activityTracker, authMetrics, errorResponseWriter);
     }
 
     /**
      * Creates the authentication provider bean.
      * This provider uses the custom UserDetailsService for user authentication
-     * and the password encoder for password validation.
+     * and the password encoder for password validation. It is wrapped by the login cache,
+     * which answers repeated logins with the same credentials when enabled.
      *
-     * @return The DAO authentication provider
+     * @return The caching DAO authentication provider
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         // Set the custom UserDetailsService
@@ -72,7 +123,7 @@ public class WebSecurityConfig {
         // Set the password encoder
         authProvider.setPasswordEncoder(passwordEncoder());
 
-        return authProvider;
+        return new CachingAuthenticationProvider(authProvider, loginCache);
     }
 
     /**
@@ -91,12 +142,13 @@ public class WebSecurityConfig {
     /**
      * Creates the password encoder bean.
      * BCrypt is a strong hashing function designed for password storage.
+     * The encoder is wrapped to export encode/match latency as the {@code password.encoder} timer.
      *
-     * @return The BCrypt password encoder
+     * @return The timed BCrypt password encoder
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     /**
@@ -119,8 +171,12 @@ public class WebSecurityConfig {
                 // Disable CSRF (Cross Site Request Forgery) since we're using JWT
                 .csrf(AbstractHttpConfigurer::disable)
 
-                // Configure exception handling for unauthorized requests
-                .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
+                // Configure exception handling for unauthorized (401) and forbidden (403) requests
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(unauthorizedHandler)
+                        .accessDeniedHandler((request, response, accessDeniedException) ->
+                                errorResponseWriter.write(response, HttpStatus.FORBIDDEN,
+                                        accessDeniedException.getMessage(), request.getRequestURI())))
 
                 // Use stateless sessions (required for JWT)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -128,15 +184,32 @@ public class WebSecurityConfig {
                 // Configure authorization rules
                 .authorizeHttpRequests(auth ->
                         auth
+                                // Logout revokes the caller's own access token, so it needs one
+                                .requestMatchers("/api/auth/logout").authenticated()
+
                                 // Permit access to authentication endpoints without authentication
                                 .requestMatchers("/api/auth/**").permitAll()
 
+                                // Public keys for services verifying our tokens
+                                .requestMatchers("/.well-known/jwks.json").permitAll()
+
                                 // Permit access to Swagger/OpenAPI endpoints without authentication
                                 .requestMatchers("/api-docs/**").permitAll()
                                 .requestMatchers("/swagger-ui/**").permitAll()
                                 .requestMatchers("/swagger-ui.html").permitAll()
                                 .requestMatchers("/webjars/**").permitAll() // Additional Swagger resources
                                 .requestMatchers("/v3/api-docs/**").permitAll() // OpenAPI documentation
+                                .requestMatchers("/proto/users.proto").permitAll() // Protobuf schema
+
+                                // Permit health checks and metric scrapes; other actuator endpoints are admin-only
+                                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                                .requestMatchers("/actuator/**").hasRole("ADMIN")
+
+                                // Administrative endpoints such as on-demand profiling
+                                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
+                                // Let error responses (e.g. 403 for non-admins) through with their own status
+                                .requestMatchers("/error").permitAll()
 
                                 // Require authentication for all other requests
                                 .anyRequest().authenticated()
@@ -148,6 +221,16 @@ public class WebSecurityConfig {
         // Add the JWT authentication filter before the UsernamePasswordAuthenticationFilter
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
 
+        // Apply per-client rate limits once the user is known, before authorization and the controllers
+        if (rateLimitProperties.isEnabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, errorResponseWriter), AuthTokenFilter.class);
+        }
+
+        // Deduplicate keyed requests once they are authorized, right before the controllers
+        if (idempotencyService.getProperties().isEnabled()) {
+            http.addFilterAfter(new IdempotencyFilter(idempotencyService, errorResponseWriter), AuthorizationFilter.class);
+        }
+
         // Build and return the security filter chain
         return http.build();
     }
@@ -1,29 +1,41 @@
 package com.nathan.usermanagementapi.security.jwt;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nathan.usermanagementapi.exception.ErrorResponseWriter;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics.FailureReason;
+import com.nathan.usermanagementapi.monitoring.RateLimitedLogger;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 @Component
 public class AuthEntryPointJwt implements AuthenticationEntryPoint {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
 
+    // Unauthorized requests are client-triggered, so they are logged rate-limited and sampled.
+    private static final RateLimitedLogger failureLog = RateLimitedLogger.of(logger);
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private ErrorResponseWriter errorResponseWriter;
+
     /**
      * Handles unauthorized access attempts by responding with a JSON error message.
      *
      * <p>
      * This method is triggered anytime an unauthenticated user requests a secured HTTP resource
-     * and an AuthenticationException is thrown. It logs the error message and sends back an
+     * and an AuthenticationException is thrown. It logs the error message (rate-limited and sampled) and sends back an
      * HTTP 401 Unauthorized responses along with a JSON body containing details about the
      * unauthorized error, including status, error, message, and the request path.
      * </p>
@@ -36,18 +48,14 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException {
-        logger.error("Unauthorized error: {}", authException.getMessage());
-
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        failureLog.warn("auth.unauthorized", "Unauthorized error: {}", authException.getMessage());
 
-        final Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-        body.put("error", "Unauthorized");
-        body.put("message", authException.getMessage());
-        body.put("path", request.getServletPath());
+        // Failed logins are already counted from the authentication failure events
+        if (authException instanceof InsufficientAuthenticationException) {
+            authMetrics.recordFailure(FailureReason.UNAUTHENTICATED);
+        }
 
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+        // Written with pre-encoded constant parts; 401 floods must not allocate mappers and maps
+        errorResponseWriter.write(response, HttpStatus.UNAUTHORIZED, authException.getMessage(), request.getRequestURI());
     }
 }
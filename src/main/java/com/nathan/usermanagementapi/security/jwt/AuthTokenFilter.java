@@ -1,20 +1,38 @@
 package com.nathan.usermanagementapi.security.jwt;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nathan.usermanagementapi.exception.ErrorResponseWriter;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics.FailureReason;
+import com.nathan.usermanagementapi.monitoring.RateLimitedLogger;
+import com.nathan.usermanagementapi.monitoring.jfr.JwtVerificationEvent;
+import com.nathan.usermanagementapi.monitoring.jfr.PrincipalLookupEvent;
+import com.nathan.usermanagementapi.monitoring.jfr.UserOperationEvent;
+import com.nathan.usermanagementapi.resilience.DatabaseFailures;
+import com.nathan.usermanagementapi.security.services.UserDetailsImpl;
+import com.nathan.usermanagementapi.security.session.SessionStore;
+import com.nathan.usermanagementapi.security.session.SessionTokenService;
 import com.nathan.usermanagementapi.security.services.UserDetailsServiceImpl;
+import com.nathan.usermanagementapi.service.activity.UserActivityTracker;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A filter that is responsible for extracting the JWT token from the request
@@ -24,6 +42,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    /**
+     * Rate-limited view of the logger for failures a client can trigger on every request.
+     */
+    private static final RateLimitedLogger failureLog = RateLimitedLogger.of(logger);
+
     /**
      * The service that is responsible for validating the JWT token and
      * retrieving the user details from the database.
@@ -37,16 +60,58 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private final UserDetailsServiceImpl userDetailsService;
 
     /**
-     * Constructor that takes the jwtUtils and userDetailsService as parameters.
+     * The in-memory list of revoked access tokens, checked without a query.
+     */
+    private final TokenDenylist tokenDenylist;
+
+    /**
+     * The in-memory session store that resolves opaque tokens when
+     * {@code app.auth.token-mode=opaque}.
+     */
+    private final SessionTokenService sessionTokenService;
+
+    /**
+     * The tracker that records the last-seen time of authenticated users
+     * without writing to the database on every request.
+     */
+    private final UserActivityTracker activityTracker;
+
+    /**
+     * The per-phase timers and failure counters of this filter.
+     */
+    private final AuthMetrics authMetrics;
+
+    /**
+     * The writer of the 503 response sent when the user cannot be loaded because the
+     * database is unavailable.
+     */
+    private final ErrorResponseWriter errorResponseWriter;
+
+    /**
+     * Constructor that takes the jwtUtils, userDetailsService, tokenDenylist, sessionTokenService,
+     * activityTracker, authMetrics and errorResponseWriter as parameters.
      * @param jwtUtils the service that is responsible for validating the JWT
      *                 token and retrieving the user details from the database.
      * @param userDetailsService the service that is responsible for retrieving
      *                            the user details from the database based on
      *                            the username.
+     * @param tokenDenylist the revoked access tokens.
+     * @param sessionTokenService the opaque session tokens.
+     * @param activityTracker the tracker that records authenticated activity.
+     * @param authMetrics the timers for token parse, verify and principal load.
+     * @param errorResponseWriter the writer of the 503 body.
      */
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService,
+                           TokenDenylist tokenDenylist, SessionTokenService sessionTokenService,
+                           UserActivityTracker activityTracker, AuthMetrics authMetrics,
+                           ErrorResponseWriter errorResponseWriter) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.tokenDenylist = tokenDenylist;
+        this.sessionTokenService = sessionTokenService;
+        this.activityTracker = activityTracker;
+        this.authMetrics = authMetrics;
+        this.errorResponseWriter = errorResponseWriter;
     }
 
     /**
@@ -66,19 +131,26 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
+            long start = System.nanoTime();
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            start = record(authMetrics.tokenParse(), start);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (jwt != null) {
+                authenticate(request, jwt, start);
             }
+        } catch (UsernameNotFoundException e) {
+            authMetrics.recordFailure(FailureReason.USER_NOT_FOUND);
+            failureLog.warn(FailureReason.USER_NOT_FOUND.logKey(), "Cannot set user authentication: {}", e.getMessage());
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e.getMessage());
+            if (DatabaseFailures.isUnavailable(e)) {
+                // Answering 401 would make clients drop a valid token; tell them to retry instead
+                failureLog.warn("auth.database_unavailable", "Cannot load user for authentication: {}", e.getMessage());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                errorResponseWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Service temporarily unavailable", request.getRequestURI());
+                return;
+            }
+            failureLog.error("auth.filter_error", "Cannot set user authentication: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
@@ -99,4 +171,96 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         return null;
     }
+
+    /**
+     * Verifies the token, checks it against the denylist, loads its user and stores the
+     * authentication in the security context. The token is verified once and its claims are read
+     * from the decoded result; in opaque mode the token is instead resolved from the session store.
+     * Each phase is timed, and the verification and principal lookup are also emitted as JFR events
+     * carrying the resolved user id.
+     * @param request the request that contains the JWT token.
+     * @param jwt the token extracted from the request.
+     * @param start the {@link System#nanoTime()} at which verification starts.
+     */
+    private void authenticate(HttpServletRequest request, String jwt, long start) {
+        JwtVerificationEvent verification = new JwtVerificationEvent();
+        PrincipalLookupEvent lookup = new PrincipalLookupEvent();
+        long userId = UserOperationEvent.UNKNOWN_USER;
+        boolean valid = false;
+        String lookupOutcome = null;
+        try {
+            String username;
+            if (sessionTokenService.isEnabled()) {
+                // Opaque mode: one map probe replaces signature verification and claim parsing
+                verification.begin();
+                SessionStore.Session session = sessionTokenService.resolve(jwt);
+                valid = session != null;
+                verification.end();
+                start = record(authMetrics.tokenVerify(), start);
+                if (!valid) {
+                    authMetrics.recordFailure(FailureReason.SESSION_UNKNOWN);
+                    failureLog.warn(FailureReason.SESSION_UNKNOWN.logKey(), "Unknown or expired session token");
+                    return;
+                }
+                username = session.email();
+            } else {
+                verification.begin();
+                DecodedJWT decoded = jwtUtils.verifyJwtToken(jwt);
+                valid = decoded != null;
+                verification.end();
+                start = record(authMetrics.tokenVerify(), start);
+                if (!valid) {
+                    return;
+                }
+
+                username = decoded.getSubject();
+                if (tokenDenylist.isRevoked(decoded.getId())) {
+                    valid = false;
+                    authMetrics.recordFailure(FailureReason.TOKEN_REVOKED);
+                    failureLog.warn(FailureReason.TOKEN_REVOKED.logKey(), "Rejected revoked JWT token of {}", username);
+                    return;
+                }
+                start = record(authMetrics.tokenClaims(), start);
+            }
+
+            lookupOutcome = "not_found";
+            UserDetails userDetails;
+            lookup.begin();
+            try {
+                userDetails = userDetailsService.loadUserByUsername(username);
+                lookupOutcome = "found";
+            } finally {
+                lookup.end();
+            }
+            record(authMetrics.principalLoad(), start);
+
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+
+            if (userDetails instanceof UserDetailsImpl userDetailsImpl) {
+                userId = userDetailsImpl.getId();
+                activityTracker.recordRequest(userId);
+            }
+        } finally {
+            verification.complete(userId, valid ? "valid" : "invalid");
+            if (lookupOutcome != null) {
+                lookup.complete(userId, lookupOutcome);
+            }
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code start}.
+     * @param timer the timer to record into.
+     * @param start the {@link System#nanoTime()} at which the phase started.
+     * @return the current {@link System#nanoTime()}, the start of the next phase.
+     */
+    private static long record(Timer timer, long start) {
+        long now = System.nanoTime();
+        timer.record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
 }
\ No newline at end of file
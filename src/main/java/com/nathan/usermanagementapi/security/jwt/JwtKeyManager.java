@@ -0,0 +1,333 @@
+package com.nathan.usermanagementapi.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.nathan.usermanagementapi.config.JwtSigningProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds the JWT signing key and a kid-indexed cache of prebuilt verifiers.
+ *
+ * <p>
+ * Verifiers are built once per key, not per request, and kept in an immutable map that is swapped
+ * as a whole on rotation, so a lookup is a plain map read. Each verifier only accepts the
+ * algorithm of its key, so a token cannot pick a weaker algorithm through its header.
+ * </p>
+ *
+ * <p>
+ * With {@code HS256} there is a single HMAC key, tokens carry no {@code kid} and nothing is
+ * published. With {@code RS256} or {@code ES256} keys come from {@link JwtSigningProperties} or,
+ * if none are configured, are generated: the next key pair is generated and published one
+ * rotation ahead, so verifiers that cache the JWKS already know it when it starts signing, and a
+ * replaced key keeps verifying until the tokens it signed have expired.
+ * </p>
+ */
+public class JwtKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    // Extra time a retired key keeps verifying, for clock skew between instances
+    private static final long RETIRE_MARGIN_MS = 60_000;
+
+    // Field size of P-256, the only curve ES256 allows
+    private static final int P256_COORDINATE_BYTES = 32;
+
+    /**
+     * The key new tokens are signed with.
+     *
+     * @param kid       the key id put in the token header, null for HS256
+     * @param algorithm the signing algorithm holding the key
+     */
+    public record Signer(String kid, Algorithm algorithm) {
+    }
+
+    /**
+     * A key that verifies tokens.
+     *
+     * @param verifier  the prebuilt verifier
+     * @param publicKey the public key, null for HS256
+     * @param retireAt  when the key stops verifying, in epoch milliseconds
+     */
+    private record VerificationKey(JWTVerifier verifier, PublicKey publicKey, long retireAt) {
+    }
+
+    private final JwtSigningProperties properties;
+
+    private final String algorithmName;
+
+    private final long tokenValidityMs;
+
+    private final boolean generated;
+
+    private volatile Signer signer;
+
+    private volatile JWTVerifier hmacVerifier;
+
+    private volatile Map<String, VerificationKey> keys = Map.of();
+
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+
+    // Generated mode only: the published key that signs after the next rotation
+    private KeyPair nextKeyPair;
+
+    private String nextKid;
+
+    private long nextRotation;
+
+    /**
+     * Creates the key manager and loads or generates its keys.
+     *
+     * @param properties      the signing settings
+     * @param secret          the HMAC secret, used with HS256
+     * @param tokenValidityMs the access token lifetime, for how long a replaced key keeps verifying
+     */
+    public JwtKeyManager(JwtSigningProperties properties, String secret, long tokenValidityMs) {
+        this.properties = properties;
+        this.algorithmName = properties.getAlgorithm().trim().toUpperCase(Locale.ROOT);
+        this.tokenValidityMs = tokenValidityMs;
+        switch (algorithmName) {
+            case "HS256" -> {
+                Algorithm hmac = Algorithm.HMAC256(secret);
+                signer = new Signer(null, hmac);
+                hmacVerifier = JWT.require(hmac).build();
+                generated = false;
+            }
+            case "RS256", "ES256" -> {
+                generated = properties.getKeys().isEmpty();
+                if (generated) {
+                    logger.warn("No {} signing keys configured, generating them; tokens will not verify on other "
+                            + "instances or after a restart", algorithmName);
+                    prepareNextKey();
+                    rotate(System.currentTimeMillis());
+                } else {
+                    loadConfiguredKeys();
+                }
+            }
+            default -> throw new IllegalStateException(
+                    "app.jwt.signing.algorithm must be HS256, RS256 or ES256, was: " + properties.getAlgorithm());
+        }
+    }
+
+    /**
+     * @return the key to sign new tokens with
+     */
+    public Signer signer() {
+        return signer;
+    }
+
+    /**
+     * Looks up the verifier for a token's key.
+     *
+     * @param kid the {@code kid} header of the token, may be null
+     * @return the verifier, or null if the key is unknown or retired
+     */
+    public JWTVerifier verifier(String kid) {
+        if (kid == null) {
+            return hmacVerifier;
+        }
+        VerificationKey key = keys.get(kid);
+        return key == null ? null : key.verifier();
+    }
+
+    /**
+     * @return the JWK Set of the public keys, as served at {@code /.well-known/jwks.json}
+     */
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    /**
+     * Rotates a generated key once it is due, and drops retired keys.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.signing.rotation-check-interval-ms:60000}")
+    public synchronized void rotateIfDue() {
+        if (!generated) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= nextRotation) {
+            rotate(now);
+        } else if (keys.values().stream().anyMatch(key -> key.retireAt() <= now)) {
+            publish(new LinkedHashMap<>(keys), now);
+        }
+    }
+
+    private synchronized void rotate(long now) {
+        Map<String, VerificationKey> next = new LinkedHashMap<>(keys);
+        Signer previous = signer;
+        if (previous != null) {
+            VerificationKey old = next.get(previous.kid());
+            next.put(previous.kid(), new VerificationKey(old.verifier(), old.publicKey(),
+                    now + tokenValidityMs + RETIRE_MARGIN_MS));
+        }
+
+        // The published next key starts signing; a new next key is published in its place
+        Algorithm algorithm = algorithm(nextKeyPair.getPublic(), nextKeyPair.getPrivate());
+        signer = new Signer(nextKid, algorithm);
+        next.put(nextKid, new VerificationKey(JWT.require(algorithm).build(), nextKeyPair.getPublic(), Long.MAX_VALUE));
+        prepareNextKey();
+        PublicKey upcoming = nextKeyPair.getPublic();
+        next.put(nextKid, new VerificationKey(JWT.require(algorithm(upcoming, null)).build(), upcoming, Long.MAX_VALUE));
+
+        nextRotation = now + properties.getGeneratedKeyRotationMs();
+        publish(next, now);
+        logger.info("Rotated {} signing key, now signing with kid {}", algorithmName, signer.kid());
+    }
+
+    private void prepareNextKey() {
+        try {
+            KeyPairGenerator generator;
+            if (algorithmName.equals("RS256")) {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(properties.getGeneratedRsaKeySize());
+            } else {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            nextKeyPair = generator.generateKeyPair();
+            nextKid = UUID.randomUUID().toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithmName + " signing key", e);
+        }
+    }
+
+    private void loadConfiguredKeys() {
+        Map<String, VerificationKey> loaded = new LinkedHashMap<>();
+        Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+        for (JwtSigningProperties.Key key : properties.getKeys()) {
+            if (key.getKid() == null || key.getPublicKey() == null) {
+                throw new IllegalStateException("Every app.jwt.signing.keys entry needs a kid and a public-key");
+            }
+            if (loaded.containsKey(key.getKid())) {
+                throw new IllegalStateException("Duplicate JWT signing kid: " + key.getKid());
+            }
+            PublicKey publicKey = (PublicKey) readKey(key.getKid(), key.getPublicKey(), false);
+            loaded.put(key.getKid(), new VerificationKey(JWT.require(algorithm(publicKey, null)).build(),
+                    publicKey, Long.MAX_VALUE));
+            if (key.getPrivateKey() != null) {
+                privateKeys.put(key.getKid(), (PrivateKey) readKey(key.getKid(), key.getPrivateKey(), true));
+            }
+        }
+
+        String activeKid = properties.getActiveKid() != null
+                ? properties.getActiveKid()
+                : privateKeys.keySet().stream().findFirst().orElse(null);
+        if (activeKid == null || !privateKeys.containsKey(activeKid)) {
+            throw new IllegalStateException("No private key configured for the active JWT signing kid: " + activeKid);
+        }
+        signer = new Signer(activeKid, algorithm(loaded.get(activeKid).publicKey(), privateKeys.get(activeKid)));
+        publish(loaded, System.currentTimeMillis());
+        logger.info("Loaded {} {} signing keys, signing with kid {}", loaded.size(), algorithmName, activeKid);
+    }
+
+    private void publish(Map<String, VerificationKey> next, long now) {
+        next.values().removeIf(key -> key.retireAt() <= now);
+        List<Map<String, Object>> published = new ArrayList<>();
+        next.forEach((kid, key) -> published.add(jwk(kid, key.publicKey())));
+        keys = Map.copyOf(next);
+        jwks = Map.of("keys", List.copyOf(published));
+    }
+
+    private Algorithm algorithm(PublicKey publicKey, PrivateKey privateKey) {
+        if (algorithmName.equals("RS256")) {
+            return Algorithm.RSA256((RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+        }
+        ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+        if (ecPublicKey.getParams().getCurve().getField().getFieldSize() != P256_COORDINATE_BYTES * 8) {
+            throw new IllegalStateException("ES256 needs a P-256 key");
+        }
+        return Algorithm.ECDSA256(ecPublicKey, (ECPrivateKey) privateKey);
+    }
+
+    private Map<String, Object> jwk(String kid, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else {
+            ECPublicKey ec = (ECPublicKey) publicKey;
+            jwk.put("kty", "EC");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), P256_COORDINATE_BYTES));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), P256_COORDINATE_BYTES));
+        }
+        return jwk;
+    }
+
+    private Object readKey(String kid, Resource resource, boolean privateKey) {
+        try (InputStream in = resource.getInputStream()) {
+            String pem = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+            StringBuilder base64 = new StringBuilder();
+            for (String line : pem.split("\\R")) {
+                if (!line.startsWith("-----")) {
+                    base64.append(line.trim());
+                }
+            }
+            byte[] der = Base64.getDecoder().decode(base64.toString());
+            KeyFactory factory = KeyFactory.getInstance(algorithmName.equals("RS256") ? "RSA" : "EC");
+            return privateKey
+                    ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                    : factory.generatePublic(new X509EncodedKeySpec(der));
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read " + (privateKey ? "private" : "public")
+                    + " JWT signing key " + kid + " from " + resource, e);
+        }
+    }
+
+    /**
+     * Encodes an unsigned big-endian integer as base64url, as JWK fields require.
+     *
+     * @param value  the integer
+     * @param length the fixed length in bytes, or 0 for the minimal length
+     * @return the encoded integer
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
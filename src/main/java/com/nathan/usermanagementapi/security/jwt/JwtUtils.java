@@ -1,34 +1,56 @@
 package com.nathan.usermanagementapi.security.jwt;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
 import com.auth0.jwt.exceptions.JWTCreationException;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics;
+import com.nathan.usermanagementapi.monitoring.AuthMetrics.FailureReason;
+import com.nathan.usermanagementapi.monitoring.RateLimitedLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * Component class responsible for managing JWT operations such as token generation, retrieval of
  * username from token, and token validation.
+ *
+ * Access tokens are short-lived and carry a random JWT id ({@code jti}), so a single token can be
+ * revoked through the {@link TokenDenylist} before it expires; tokens without one are rejected. Longer sessions are kept alive with
+ * refresh tokens, see {@link RefreshTokenService}.
+ *
+ * Signing keys and prebuilt verifiers come from the {@link JwtKeyManager}; with an asymmetric
+ * algorithm the token header names its key with {@code kid}.
  */
 @Component // Indicates that this class is a Spring-managed component.
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${app.jwt.secret}") // Injects the JWT secret key from application properties.
-    private String jwtSecret;
+    // Token failures are client-triggered, so they are logged rate-limited and sampled per failure kind.
+    private static final RateLimitedLogger failureLog = RateLimitedLogger.of(logger);
 
-    @Value("${app.jwt.expiration}") // Injects the JWT expiration time in milliseconds from application properties.
+    @Value("${app.jwt.expiration}") // Injects the access token expiration time in milliseconds from application properties.
     private int jwtExpirationMs;
 
+    @Autowired // Counts rejected tokens by reason.
+    private AuthMetrics authMetrics;
+
+    @Autowired // Signing key and kid-indexed verifiers.
+    private JwtKeyManager keyManager;
+
     /**
      * Generates a JWT token for the authenticated user.
      *
@@ -38,19 +60,43 @@ public class JwtUtils {
      */
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateAccessToken(userPrincipal.getUsername());
+    }
 
+    /**
+     * Generates a short-lived access token for the given subject, with a fresh JWT id.
+     *
+     * @param subject the username (email) the token is issued to.
+     * @return a signed JWT token as a String.
+     * @throws RuntimeException if an error occurs during token creation.
+     */
+    public String generateAccessToken(String subject) {
         try {
-            return JWT.create()
-                    .withSubject(userPrincipal.getUsername())
-                    .withIssuedAt(new Date())
-                    .withExpiresAt(new Date((new Date()).getTime() + jwtExpirationMs))
-                    .sign(Algorithm.HMAC256(jwtSecret));
+            Date now = new Date();
+            JwtKeyManager.Signer signer = keyManager.signer();
+            JWTCreator.Builder builder = JWT.create();
+            if (signer.kid() != null) {
+                builder.withKeyId(signer.kid());
+            }
+            return builder
+                    .withSubject(subject)
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withIssuedAt(now)
+                    .withExpiresAt(new Date(now.getTime() + jwtExpirationMs))
+                    .sign(signer.algorithm());
         } catch (JWTCreationException exception) {
             logger.error("JWT token creation failed: {}", exception.getMessage());
             throw new RuntimeException("Error creating JWT token", exception);
         }
     }
 
+    /**
+     * @return the lifetime of access tokens in milliseconds.
+     */
+    public long getAccessTokenValidityMs() {
+        return jwtExpirationMs;
+    }
+
     /**
      * Retrieves the username from the provided JWT token.
      *
@@ -60,11 +106,9 @@ public class JwtUtils {
      */
     public String getUsernameFromJwtToken(String token) {
         try {
-            JWTVerifier verifier = JWT.require(Algorithm.HMAC256(jwtSecret)).build();
-            DecodedJWT jwt = verifier.verify(token);
-            return jwt.getSubject();
+            return verify(token).getSubject();
         } catch (JWTVerificationException exception) {
-            logger.error("JWT verification failed: {}", exception.getMessage());
+            failureLog.warn("auth.token_subject", "JWT verification failed: {}", exception.getMessage());
             throw new RuntimeException("Error verifying JWT token", exception);
         }
     }
@@ -76,15 +120,94 @@ public class JwtUtils {
      * @return true if the token is valid, false otherwise.
      */
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
+    }
+
+    /**
+     * Verifies the provided JWT token and returns its claims, so callers need a single
+     * verification to both validate the token and read its subject and id.
+     *
+     * @param authToken the JWT token to verify.
+     * @return the decoded token, or null if it is invalid; the failure is logged and counted.
+     */
+    public DecodedJWT verifyJwtToken(String authToken) {
         try {
-            JWT.require(Algorithm.HMAC256(jwtSecret)).build().verify(authToken);
-            return true;
+            return verify(authToken);
         } catch (JWTVerificationException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            FailureReason reason = failureReason(e);
+            failureLog.warn(reason.logKey(), "Invalid JWT token: {}", e.getMessage());
+            authMetrics.recordFailure(reason);
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            failureLog.warn(FailureReason.TOKEN_MALFORMED.logKey(), "JWT claims string is empty: {}", e.getMessage());
+            authMetrics.recordFailure(FailureReason.TOKEN_MALFORMED);
+        }
+
+        return null;
+    }
+
+    /**
+     * Decodes the token once, picks the verifier of the key named in its header and verifies it.
+     *
+     * @param token the JWT token to verify.
+     * @return the decoded token.
+     * @throws JWTVerificationException if the token is malformed, signed by an unknown key, invalid,
+     *                                  or has no JWT id and so could not be revoked.
+     */
+    private DecodedJWT verify(String token) {
+        DecodedJWT decoded = JWT.decode(token);
+        JWTVerifier verifier = keyManager.verifier(decoded.getKeyId());
+        if (verifier == null) {
+            throw new UnknownSigningKeyException(decoded.getKeyId());
+        }
+        DecodedJWT verified = verifier.verify(decoded);
+        if (verified.getId() == null) {
+            throw new MissingTokenIdException();
+        }
+        return verified;
+    }
+
+    /**
+     * Thrown for tokens whose {@code kid} names no current signing key.
+     */
+    private static final class UnknownSigningKeyException extends JWTVerificationException {
+
+        UnknownSigningKeyException(String kid) {
+            super("Unknown signing key: " + kid);
         }
+    }
+
+    /**
+     * Thrown for tokens without a {@code jti}, which the {@link TokenDenylist} could never revoke.
+     */
+    private static final class MissingTokenIdException extends JWTVerificationException {
 
-        return false;
+        MissingTokenIdException() {
+            super("Token has no JWT id");
+        }
+    }
+
+    /**
+     * Maps a verification failure to the reason reported in the auth failure metrics.
+     *
+     * @param e the verification failure.
+     * @return the failure reason.
+     */
+    private static FailureReason failureReason(JWTVerificationException e) {
+        if (e instanceof TokenExpiredException) {
+            return FailureReason.TOKEN_EXPIRED;
+        }
+        if (e instanceof UnknownSigningKeyException) {
+            return FailureReason.TOKEN_UNKNOWN_KEY;
+        }
+        if (e instanceof SignatureVerificationException) {
+            return FailureReason.TOKEN_INVALID_SIGNATURE;
+        }
+        if (e instanceof AlgorithmMismatchException) {
+            return FailureReason.TOKEN_ALGORITHM_MISMATCH;
+        }
+        if (e instanceof JWTDecodeException) {
+            return FailureReason.TOKEN_MALFORMED;
+        }
+        return FailureReason.TOKEN_INVALID_CLAIMS;
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.nathan.usermanagementapi.security.jwt;
+
+import com.nathan.usermanagementapi.exception.InvalidRefreshTokenException;
+import com.nathan.usermanagementapi.model.RefreshToken;
+import com.nathan.usermanagementapi.repository.RefreshTokenRepository;
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes refresh tokens.
+ *
+ * <p>
+ * A refresh token is an {@link OpaqueTokens} token handed to the client once; only its SHA-256
+ * hash is stored, so a leaked table cannot be replayed. Tokens are single-use: a refresh marks the presented token
+ * used and returns the next token of the same family. Presenting a used or revoked token again
+ * means it was copied, so the whole family is revoked and the legitimate holder has to log in
+ * again. Refresh tokens are never checked on the request path; only the login, refresh and
+ * logout endpoints touch the table.
+ * </p>
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refresh-expiration}") // Lifetime of each refresh token in milliseconds
+    private long refreshExpirationMs;
+
+    /**
+     * A newly issued refresh token.
+     *
+     * @param token  the raw token to return to the client
+     * @param userId the id of the user the token was issued to
+     */
+    public record IssuedToken(String token, Long userId) {
+    }
+
+    /**
+     * Issues the first refresh token of a new family, at login.
+     *
+     * @param userId the id of the authenticated user
+     * @return the issued token
+     */
+    @Transactional
+    public IssuedToken issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for the next one of its family.
+     *
+     * @param rawToken the refresh token presented by the client
+     * @return the issued token
+     * @throws InvalidRefreshTokenException if the token is unknown, expired, revoked or already
+     *                                      used; in the last two cases its family is revoked
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public IssuedToken rotate(String rawToken) {
+        // Locks the row, so two concurrent refreshes with the same token cannot both succeed
+        RefreshToken token = refreshTokenRepository.findByTokenHash(OpaqueTokens.hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        Date now = new Date();
+        if (token.getUsedAt() != null || token.getRevokedAt() != null) {
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            logger.warn("Refresh token reuse for user {}, revoked {} tokens of its family", token.getUserId(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+        if (!token.getExpiresAt().after(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        token.setUsedAt(now);
+        return issue(token.getUserId(), token.getFamilyId());
+    }
+
+    /**
+     * Revokes the family of a refresh token, at logout. Unknown tokens are ignored.
+     *
+     * @param rawToken the refresh token presented by the client
+     * @return true if the token was known
+     */
+    @Transactional
+    public boolean revoke(String rawToken) {
+        Optional<RefreshToken> token = refreshTokenRepository.findByTokenHash(OpaqueTokens.hash(rawToken));
+        token.ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId(), new Date()));
+        return token.isPresent();
+    }
+
+    /**
+     * Revokes every refresh token of a user, after a password change or deletion.
+     *
+     * @param userId the id of the user
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, new Date());
+    }
+
+    /**
+     * Deletes expired refresh tokens. Used and revoked tokens are kept until they expire, so that
+     * reuse of a stolen token is still detected.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            int deleted = refreshTokenRepository.deleteExpired(new Date());
+            if (deleted > 0) {
+                logger.info("Deleted {} expired refresh tokens", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to delete expired refresh tokens: {}", e.getMessage());
+        }
+    }
+
+    private IssuedToken issue(Long userId, String familyId) {
+        String rawToken = OpaqueTokens.generate();
+
+        Date now = new Date();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(OpaqueTokens.hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUserId(userId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(new Date(now.getTime() + refreshExpirationMs));
+        refreshTokenRepository.save(token);
+        return new IssuedToken(rawToken, userId);
+    }
+}
@@ -0,0 +1,146 @@
+package com.nathan.usermanagementapi.security.jwt;
+
+import com.nathan.usermanagementapi.model.RevokedToken;
+import com.nathan.usermanagementapi.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist of revoked access tokens, keyed by their JWT id ({@code jti}).
+ *
+ * <p>
+ * Checked by {@link AuthTokenFilter} on every authenticated request, so the check is a map lookup
+ * and never a query; while nothing is revoked it is a single size check. Each entry is a parsed
+ * {@link UUID} and the token's expiry, and is dropped once the token has expired, since the
+ * signature check rejects it from then on. With short-lived access tokens the map only ever holds
+ * the tokens revoked in the last few minutes.
+ * </p>
+ *
+ * <p>
+ * The revoked_tokens table is the durable copy. The map is loaded from it at startup and then
+ * synchronized every {@code app.jwt.denylist.sync-interval-ms}, which also picks up revocations
+ * made by other instances; on another instance a revoked token therefore stays usable for at
+ * most one interval. Tokens without a {@code jti} could not be revoked, so {@link JwtUtils} rejects
+ * them outright. The reactive module mirrors the table the same way for the tokens it verifies.
+ * </p>
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.denylist.sync-interval-ms:10000}")
+    private long syncIntervalMs;
+
+    // jti -> expiry of the token in epoch milliseconds
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    private long lastSync;
+
+    /**
+     * Registers the size gauge and loads the revocations still in force.
+     */
+    @PostConstruct
+    public void init() {
+        Gauge.builder("auth.token.denylist.size", revoked, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+        sync();
+    }
+
+    /**
+     * Checks whether an access token has been revoked.
+     *
+     * @param jti the JWT id of the token, may be null
+     * @return true if the token was revoked and must be rejected
+     */
+    public boolean isRevoked(String jti) {
+        if (revoked.isEmpty() || jti == null) {
+            return false;
+        }
+        UUID id = parse(jti);
+        if (id == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(id);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revokes an access token until it expires. The revocation is stored in the table before it
+     * takes effect here, so it survives a restart and reaches the other instances.
+     *
+     * @param jti       the JWT id of the token
+     * @param expiresAt the expiry of the token
+     * @param userId    the id of the user the token was issued to
+     */
+    public void revoke(String jti, Date expiresAt, Long userId) {
+        UUID id = parse(jti);
+        if (id == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(id.toString(), userId, expiresAt, new Date()));
+        revoked.put(id, expiresAt.getTime());
+    }
+
+    /**
+     * Loads revocations recorded since the previous run, drops expired entries from the map and
+     * deletes expired rows. Until the first load succeeds, every run retries the full load.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.denylist.sync-interval-ms:10000}",
+            initialDelayString = "${app.jwt.denylist.sync-interval-ms:10000}")
+    public synchronized void sync() {
+        long now = System.currentTimeMillis();
+        try {
+            List<RevokedToken> tokens = loaded
+                    // Overlap the previous run to tolerate clock skew between instances
+                    ? revokedTokenRepository.findByRevokedAtAfter(new Date(lastSync - syncIntervalMs))
+                    : revokedTokenRepository.findByExpiresAtAfter(new Date(now));
+            for (RevokedToken token : tokens) {
+                UUID id = parse(token.getJti());
+                if (id != null) {
+                    revoked.put(id, token.getExpiresAt().getTime());
+                }
+            }
+            if (!loaded) {
+                logger.info("Loaded {} revoked access tokens", revoked.size());
+            }
+            loaded = true;
+            lastSync = now;
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            revokedTokenRepository.deleteExpired(new Date(now));
+        } catch (RuntimeException e) {
+            // Keep serving from the map; the next run catches up
+            logger.error("Failed to synchronize the token denylist: {}", e.getMessage());
+        }
+    }
+
+    private static UUID parse(String jti) {
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.nathan.usermanagementapi.security.ratelimit;
+
+import com.nathan.usermanagementapi.config.RateLimitProperties;
+import com.nathan.usermanagementapi.exception.ErrorResponseWriter;
+import com.nathan.usermanagementapi.exception.RateLimitExceededException;
+import com.nathan.usermanagementapi.security.services.UserDetailsImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * A filter that applies per-client token-bucket rate limits.
+ *
+ * <p>
+ * Runs right after {@code AuthTokenFilter}, so requests on user-keyed routes are limited per
+ * authenticated user id, and requests on IP-keyed routes such as {@code /api/auth/**} (and
+ * unauthenticated requests anywhere) per client IP. Every limited response carries the
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining}, {@code RateLimit-Reset} and
+ * {@code RateLimit-Policy} headers; rejected requests get 429 with {@code Retry-After}.
+ * On the allowed path the filter does one map lookup and one compare-and-set, and the header
+ * values come from precomputed strings.
+ * </p>
+ *
+ * <p>
+ * The filter charges every request one token. A request that turns out to do the work of
+ * several, such as a batch, is charged the rest through {@link #chargeMore} once its size is known.
+ * </p>
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+    static final String POLICY_HEADER = "RateLimit-Policy";
+
+    // Where an allowed request keeps the bucket it was charged to, for chargeMore
+    private static final String CHARGE_ATTRIBUTE = RateLimitFilter.class.getName() + ".charge";
+
+    private final RateLimiter rateLimiter;
+
+    private final ErrorResponseWriter errorResponseWriter;
+
+    /**
+     * Constructor that takes the rateLimiter and errorResponseWriter as parameters.
+     *
+     * @param rateLimiter         the buckets of every limited route
+     * @param errorResponseWriter the writer of the 429 body
+     */
+    public RateLimitFilter(RateLimiter rateLimiter, ErrorResponseWriter errorResponseWriter) {
+        this.rateLimiter = rateLimiter;
+        this.errorResponseWriter = errorResponseWriter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        RateLimiter.Route route = rateLimiter.match(path);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Object key = key(route, request);
+        long result = route.tryTake(key, System.nanoTime());
+
+        response.setHeader(LIMIT_HEADER, route.limitHeader());
+        response.setHeader(POLICY_HEADER, route.policyHeader());
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, route.remainingHeader(result));
+            response.setHeader(RESET_HEADER, route.secondsHeader(result));
+            request.setAttribute(CHARGE_ATTRIBUTE, new Charge(route, key));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String retryAfter = route.secondsHeader(-result);
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(RESET_HEADER, retryAfter);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        errorResponseWriter.write(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded", path);
+    }
+
+    /**
+     * Charges an allowed request for the work of several requests, such as a batch of
+     * operations, and updates its {@code RateLimit-*} headers. Does nothing for requests this
+     * filter did not see or does not limit.
+     *
+     * @param request  the current request
+     * @param response the current response
+     * @param tokens   the tokens to take on top of the one taken by the filter
+     * @throws RateLimitExceededException if the client's bucket does not hold that many tokens
+     */
+    public static void chargeMore(HttpServletRequest request, HttpServletResponse response, int tokens) {
+        if (tokens <= 0 || !(request.getAttribute(CHARGE_ATTRIBUTE) instanceof Charge charge)) {
+            return;
+        }
+        long result = charge.route().tryTakeMore(charge.key(), System.nanoTime(), tokens);
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, charge.route().remainingHeader(result));
+            response.setHeader(RESET_HEADER, charge.route().secondsHeader(result));
+            return;
+        }
+        String retryAfter = charge.route().secondsHeader(-result);
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(RESET_HEADER, retryAfter);
+        throw new RateLimitExceededException(retryAfter);
+    }
+
+    private static Object key(RateLimiter.Route route, HttpServletRequest request) {
+        if (route.keyType() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+                return user.getId();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * The bucket an allowed request was charged to.
+     *
+     * @param route the matched route
+     * @param key   the user id or client IP
+     */
+    private record Charge(RateLimiter.Route route, Object key) {
+    }
+}
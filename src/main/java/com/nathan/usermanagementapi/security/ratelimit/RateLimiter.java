@@ -0,0 +1,261 @@
+package com.nathan.usermanagementapi.security.ratelimit;
+
+import com.nathan.usermanagementapi.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the token buckets of every rate-limited route.
+ *
+ * <p>
+ * Routes are compiled once from {@link RateLimitProperties}; each keeps its own map of buckets
+ * keyed by user id or client IP. Buckets that have refilled completely are dropped by a scheduled
+ * sweep, so memory follows the number of clients active within one refill period rather than
+ * every client ever seen. A route never holds more than {@code max-buckets-per-route} buckets:
+ * once it is full, clients without a bucket share one overflow bucket with the route's limit
+ * until the next sweep frees space, so spraying many client IPs costs neither memory nor a scan
+ * on the request thread, and clients already tracked keep their own limit.
+ * </p>
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private final int maxBucketsPerRoute;
+
+    /**
+     * Compiles the configured routes and registers their meters.
+     *
+     * @param properties    the rate-limit settings
+     * @param meterRegistry the registry for the rejection counters and bucket gauges
+     */
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.maxBucketsPerRoute = properties.getMaxBucketsPerRoute();
+        for (RateLimitProperties.Route config : properties.getRoutes()) {
+            Route route = new Route(config, meterRegistry);
+            routes.add(route);
+            logger.info("Rate limiting {} by {}: burst {}, {} requests/s",
+                    config.getPattern(), config.getKey(), config.getCapacity(), config.getRefillPerSecond());
+        }
+    }
+
+    /**
+     * Finds the first route matching a path.
+     *
+     * @param path the request path, without context path
+     * @return the route, or null if the path is not rate-limited
+     */
+    public Route match(String path) {
+        for (Route route : routes) {
+            if (route.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they are recreated full on the next request.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (Route route : routes) {
+            route.evict(now);
+        }
+    }
+
+    /**
+     * A compiled rate-limited route and its buckets.
+     */
+    public final class Route {
+
+        private static final int CACHED_NUMBERS = 4096;
+
+        private static final String[] NUMBERS = new String[CACHED_NUMBERS];
+
+        static {
+            for (int i = 0; i < CACHED_NUMBERS; i++) {
+                NUMBERS[i] = Integer.toString(i);
+            }
+        }
+
+        private final String prefix;
+        private final boolean exact;
+        private final RateLimitProperties.KeyType keyType;
+        private final TokenBucket.Limit limit;
+        private final String limitHeader;
+        private final String policyHeader;
+        private final ConcurrentMap<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicInteger bucketCount = new AtomicInteger();
+        private final TokenBucket overflow = new TokenBucket(System.nanoTime());
+        private final Counter rejected;
+        private final Counter overflowed;
+
+        private Route(RateLimitProperties.Route config, MeterRegistry meterRegistry) {
+            String pattern = config.getPattern();
+            this.exact = !pattern.endsWith("/**");
+            this.prefix = exact ? pattern : pattern.substring(0, pattern.length() - 3);
+            this.keyType = config.getKey();
+            this.limit = TokenBucket.Limit.of(config.getCapacity(), config.getRefillPerSecond());
+            this.limitHeader = Integer.toString(config.getCapacity());
+            long windowSeconds = Math.max(1, Math.round(config.getCapacity() / config.getRefillPerSecond()));
+            this.policyHeader = config.getCapacity() + ";w=" + windowSeconds;
+
+            this.rejected = Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("route", pattern)
+                    .register(meterRegistry);
+            this.overflowed = Counter.builder("rate.limit.overflow")
+                    .description("Requests charged to the shared overflow bucket because the route was full")
+                    .tag("route", pattern)
+                    .register(meterRegistry);
+            Gauge.builder("rate.limit.buckets", bucketCount, AtomicInteger::get)
+                    .description("Token buckets currently held")
+                    .tag("route", pattern)
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(String path) {
+            if (exact) {
+                return path.equals(prefix);
+            }
+            return path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+        }
+
+        /**
+         * Takes a token from the bucket of {@code key}.
+         *
+         * @param key the user id or client IP
+         * @param now the current time in nanoseconds
+         * @return as {@link TokenBucket#tryTake}: non-negative if allowed, negative if rejected
+         */
+        public long tryTake(Object key, long now) {
+            return take(key, now, 1);
+        }
+
+        /**
+         * Takes more tokens from the bucket of {@code key} for a request that already took one
+         * and turns out to count as several, such as a batch. A request never costs more than
+         * the route's burst in total, so it can always pass once the bucket is full.
+         *
+         * @param key    the user id or client IP
+         * @param now    the current time in nanoseconds
+         * @param tokens the number of tokens on top of the one already taken
+         * @return as {@link TokenBucket#tryTake}: non-negative if allowed, negative if rejected
+         */
+        public long tryTakeMore(Object key, long now, int tokens) {
+            return take(key, now, Math.min(tokens, limit.capacity() - 1));
+        }
+
+        private long take(Object key, long now, int tokens) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = create(key, now);
+            }
+            long result = bucket.tryTake(limit, now, tokens);
+            if (result < 0) {
+                rejected.increment();
+            }
+            return result;
+        }
+
+        /**
+         * Adds a bucket for a new key if the route has room for it.
+         *
+         * @return the key's bucket, or the shared overflow bucket if the route is full
+         */
+        private TokenBucket create(Object key, long now) {
+            int count;
+            do {
+                count = bucketCount.get();
+                if (count >= maxBucketsPerRoute) {
+                    overflowed.increment();
+                    return overflow;
+                }
+            } while (!bucketCount.compareAndSet(count, count + 1));
+
+            TokenBucket created = new TokenBucket(now);
+            TokenBucket existing = buckets.putIfAbsent(key, created);
+            if (existing != null) {
+                bucketCount.decrementAndGet(); // Created concurrently by another request
+                return existing;
+            }
+            return created;
+        }
+
+        private void evict(long now) {
+            // A bucket taken concurrently with its removal may grant one extra token; that is acceptable
+            for (Map.Entry<Object, TokenBucket> entry : buckets.entrySet()) {
+                if (entry.getValue().isFull(now) && buckets.remove(entry.getKey(), entry.getValue())) {
+                    bucketCount.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @return the number of buckets currently held
+         */
+        int bucketCount() {
+            return bucketCount.get();
+        }
+
+        public RateLimitProperties.KeyType keyType() {
+            return keyType;
+        }
+
+        /**
+         * @return the {@code RateLimit-Limit} header value
+         */
+        public String limitHeader() {
+            return limitHeader;
+        }
+
+        /**
+         * @return the {@code RateLimit-Policy} header value, e.g. {@code 100;w=2}
+         */
+        public String policyHeader() {
+            return policyHeader;
+        }
+
+        /**
+         * @param aheadNanos the non-negative result of {@link #tryTake}
+         * @return the {@code RateLimit-Remaining} header value
+         */
+        public String remainingHeader(long aheadNanos) {
+            return number(limit.remaining(aheadNanos));
+        }
+
+        /**
+         * Converts nanoseconds to whole seconds, rounded up, for the reset and retry headers.
+         *
+         * @param nanos a duration in nanoseconds
+         * @return the number of seconds as a header value
+         */
+        public String secondsHeader(long nanos) {
+            return number((nanos + 999_999_999L) / 1_000_000_000L);
+        }
+
+        private static String number(long value) {
+            return value >= 0 && value < CACHED_NUMBERS ? NUMBERS[(int) value] : Long.toString(value);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nathan.usermanagementapi.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented with the generic cell rate algorithm (GCRA).
+ *
+ * <p>
+ * The whole state is one {@code long}: the theoretical arrival time (TAT) at which the bucket will
+ * be full again. Taking a token pushes the TAT one emission interval into the future; a request is
+ * rejected when that would put the TAT more than {@code capacity} intervals ahead of now. A take is
+ * one read and one compare-and-set, with no locks and no allocation, and a bucket whose TAT has
+ * passed is indistinguishable from a new one, which is what makes idle eviction lossless.
+ * </p>
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param now the current time in nanoseconds
+     */
+    TokenBucket(long now) {
+        this.theoreticalArrivalTime = new AtomicLong(now);
+    }
+
+    /**
+     * Tries to take one token.
+     *
+     * @param limit the bucket's limits
+     * @param now   the current time in nanoseconds
+     * @return the nanoseconds until the bucket is full again if the token was taken (zero or
+     * positive), or minus the nanoseconds until enough tokens are available if it was not (negative)
+     */
+    long tryTake(Limit limit, long now) {
+        return tryTake(limit, now, 1);
+    }
+
+    /**
+     * Tries to take several tokens at once; either all of them are taken or none.
+     *
+     * @param limit  the bucket's limits
+     * @param now    the current time in nanoseconds
+     * @param tokens the number of tokens, at most the bucket's capacity
+     * @return as {@link #tryTake(Limit, long)}, for all the tokens
+     */
+    long tryTake(Limit limit, long now, int tokens) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + limit.emissionIntervalNanos() * tokens;
+            long ahead = newTat - now;
+            if (ahead > limit.burstNanos()) {
+                return -Math.max(1, ahead - limit.burstNanos());
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return ahead;
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the bucket has refilled completely, so it can be dropped.
+     *
+     * @param now the current time in nanoseconds
+     * @return true if the bucket is full
+     */
+    boolean isFull(long now) {
+        return theoreticalArrivalTime.get() - now <= 0;
+    }
+
+    /**
+     * The limits of a bucket, expressed in nanoseconds.
+     *
+     * @param capacity              the maximum burst, in tokens
+     * @param emissionIntervalNanos the time it takes to refill one token
+     */
+    record Limit(int capacity, long emissionIntervalNanos) {
+
+        static Limit of(int capacity, double refillPerSecond) {
+            return new Limit(capacity, Math.max(1, Math.round(1_000_000_000d / refillPerSecond)));
+        }
+
+        long burstNanos() {
+            return emissionIntervalNanos * capacity;
+        }
+
+        /**
+         * Converts the value returned by {@link TokenBucket#tryTake} for an allowed request to
+         * the number of tokens left.
+         */
+        int remaining(long aheadNanos) {
+            return (int) ((burstNanos() - aheadNanos) / emissionIntervalNanos);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.nathan.usermanagementapi.security.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, thread-safe Bloom filter of strings.
+ *
+ * <p>
+ * Sized from the expected number of insertions and the target false-positive rate. Each string
+ * is hashed once into 64 bits with a per-instance seed, so hash collisions cannot be precomputed
+ * offline, and the {@code k} bit positions are derived by double hashing. Bits are set with a
+ * compare-and-set on the containing word, so concurrent {@link #put} and {@link #mightContain}
+ * calls need no lock. There is no removal: entries disappear only when the filter is rebuilt.
+ * </p>
+ */
+final class BloomFilter {
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long seed;
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param expectedInsertions the number of strings the filter is sized for
+     * @param falsePositiveRate  the target false-positive rate at that size, e.g. 0.01
+     * @param seed               the hash seed
+     */
+    BloomFilter(long expectedInsertions, double falsePositiveRate, long seed) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / LN2_SQUARED);
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (Math.max(64, bits) + 63) / 64);
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.seed = seed;
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value the string to add
+     */
+    void put(CharSequence value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0) {
+                long witness = words.compareAndExchange(index, word, word | mask);
+                if (witness == word) {
+                    break;
+                }
+                word = witness;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a string may have been added.
+     *
+     * @param value the string to look up
+     * @return false if the string was definitely never added; true if it probably was
+     */
+    boolean mightContain(CharSequence value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the size of the bit array in bytes
+     */
+    long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    private long hash(CharSequence value) {
+        long h = seed ^ (value.length() * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 27);
+        }
+        // MurmurHash3 finalizer, so every input bit affects every output bit
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,58 @@
+package com.nathan.usermanagementapi.security.services;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authentication provider that answers repeated logins from the {@link LoginCache} and delegates
+ * everything else, including every failed login, to the wrapped provider.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+
+    private final LoginCache loginCache;
+
+    /**
+     * Creates the provider.
+     *
+     * @param delegate   the provider that checks credentials against the database
+     * @param loginCache the cache of successful logins
+     */
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, LoginCache loginCache) {
+        this.delegate = delegate;
+        this.loginCache = loginCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!loginCache.isEnabled()
+                || !(authentication.getPrincipal() instanceof String email)
+                || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        UserDetails cached = loginCache.get(email, password);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached, null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        long generation = loginCache.generation();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.getPrincipal() instanceof UserDetails user) {
+            loginCache.put(email, password, user, generation);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
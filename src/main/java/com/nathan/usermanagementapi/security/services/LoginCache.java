@@ -0,0 +1,217 @@
+package com.nathan.usermanagementapi.security.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of successful logins, so that clients logging in repeatedly with the same
+ * credentials skip the BCrypt match and the user lookup.
+ *
+ * <p>
+ * Off unless {@code app.security.login-cache.enabled=true}. An entry maps an email to an
+ * HMAC-SHA256 of the password that succeeded, under a random key that never leaves this process,
+ * and the user it authenticated; it lives {@code ttl-ms}. Only a login presenting the exact same
+ * password can hit it, and the HMAC is compared in constant time. A wrong password is a miss and
+ * goes through the normal BCrypt check. Neither the password nor its BCrypt hash is kept: the
+ * cached user is a copy of the authenticated {@link UserDetailsImpl} without its password, and
+ * logins authenticated as any other kind of principal are not cached.
+ * </p>
+ *
+ * <p>
+ * {@code UserServiceImpl} invalidates a user's entry when their password or email changes or the
+ * user is deleted, immediately and again after the transaction commits. Every invalidation bumps
+ * a generation counter, and a login only caches its result if no invalidation happened while it
+ * ran, so a login racing a password change cannot cache the old password.
+ * </p>
+ *
+ * <p>
+ * Invalidation only reaches the cache of the instance that handled the change. Every other
+ * instance keeps accepting the old password, and a deleted user's login, until its entry expires,
+ * so with several instances {@code ttl-ms} is the longest a changed password stays usable.
+ * </p>
+ */
+@Component
+public class LoginCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.login-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.security.login-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.security.login-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final SecretKeySpec key;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+
+    private Counter misses;
+
+    /**
+     * A cached login.
+     *
+     * @param fingerprint the HMAC of the password
+     * @param user        the authenticated user
+     * @param expiresAt   the expiry in epoch milliseconds
+     */
+    private record Entry(byte[] fingerprint, UserDetails user, long expiresAt) {
+    }
+
+    /**
+     * Creates the cache with a fresh random HMAC key.
+     */
+    public LoginCache() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Registers the hit and miss counters and the size gauge.
+     */
+    @PostConstruct
+    public void init() {
+        hits = lookups("hit");
+        misses = lookups("miss");
+        Gauge.builder("auth.login.cache.size", entries, Map::size)
+                .description("Cached successful logins")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the cache is in use
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the current generation, to pass to {@link #put} after authenticating
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Looks up a login.
+     *
+     * @param email    the email presented
+     * @param password the password presented
+     * @return the authenticated user, or null if this exact login is not cached
+     */
+    public UserDetails get(String email, String password) {
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()
+                && MessageDigest.isEqual(entry.fingerprint(), fingerprint(password))) {
+            hits.increment();
+            return entry.user();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a successful login, unless an invalidation happened since {@code generation} was
+     * read or the cache is full.
+     *
+     * @param email      the email presented
+     * @param password   the password that succeeded
+     * @param user       the authenticated user; only a {@link UserDetailsImpl} is cached
+     * @param generation the generation read before authenticating
+     */
+    public void put(String email, String password, UserDetails user, long generation) {
+        if (!(user instanceof UserDetailsImpl details)
+                || entries.size() >= maxEntries && !entries.containsKey(email)) {
+            return;
+        }
+        // The copy leaves the BCrypt hash to the garbage collector along with the login
+        UserDetailsImpl withoutPassword = new UserDetailsImpl(details.getId(), details.getName(),
+                details.getEmail(), null, details.getAuthorities());
+        entries.put(email, new Entry(fingerprint(password), withoutPassword, System.currentTimeMillis() + ttlMs));
+        // An invalidation that raced the insert may have missed it; undo it
+        if (this.generation.get() != generation) {
+            entries.remove(email);
+        }
+    }
+
+    /**
+     * Drops the cached login of a user whose password or email changed or who was deleted. Inside
+     * a transaction it is dropped again after commit, when the change becomes visible to logins.
+     *
+     * @param userId the id of the user
+     */
+    public void invalidateUser(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops expired entries.
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-cache.ttl-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    private void invalidate(Long userId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.user() instanceof UserDetailsImpl user && userId.equals(user.getId()));
+    }
+
+    private byte[] fingerprint(String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private Counter lookups(String result) {
+        return Counter.builder("auth.login.cache")
+                .description("Logins checked against the login cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
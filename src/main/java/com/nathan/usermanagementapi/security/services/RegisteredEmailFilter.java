@@ -0,0 +1,298 @@
+package com.nathan.usermanagementapi.security.services;
+
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory Bloom filter of the canonical emails of all registered users.
+ *
+ * <p>
+ * Lets authentication skip the database for emails that definitely do not exist, which is what
+ * credential-stuffing traffic mostly sends. The filter is rebuilt from the users table every
+ * {@code app.security.email-filter.rebuild-interval-ms}, sized with headroom for the users
+ * created until the next rebuild. In between, {@code UserServiceImpl} adds every created or
+ * changed email, and every {@code check-interval-ms} the rows written since the previous check
+ * are added as well: those with an id above the highest one seen, or updated since the check
+ * (overlapping it by one interval, for transactions that committed late and clock skew). That
+ * covers users created or changed by other instances, the reactive module or plain SQL, which
+ * are otherwise unknown here for at most one interval; a row inserted with neither a higher id
+ * nor an update time waits for the next rebuild. A Bloom filter cannot remove entries, so
+ * deleted and replaced emails are only
+ * counted; they cost a database lookup until the filter is rebuilt, which happens early once
+ * {@code max-stale-entries} have accumulated. A false positive is just a lookup; a false negative
+ * would lock a user out, so additions are also replayed after their transaction commits, which
+ * closes the race with a rebuild scanning the table concurrently. Until the first build completes
+ * every email is reported as possibly registered.
+ * </p>
+ *
+ * <p>
+ * Emails are hashed in canonical form (see {@link EmailNormalizer}), the form lookups compare.
+ * The rebuild canonicalizes the stored emails with the current rules rather than reading the
+ * email_normalized column, so users the backfill has not reached yet are covered too.
+ * </p>
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private static final int FETCH_SIZE = 10_000;
+
+    // Smoothing factor of the average lookup time that definite misses are padded to
+    private static final int LOOKUP_EWMA_SHIFT = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Plain JDBC access for the streaming rebuild scan
+
+    @Autowired
+    private PlatformTransactionManager transactionManager; // Cursor-based fetching needs a transaction
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer; // The same canonical form the user lookups use
+
+    @Value("${app.security.email-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.security.email-filter.min-capacity:100000}")
+    private long minCapacity;
+
+    @Value("${app.security.email-filter.rebuild-interval-ms:3600000}")
+    private long rebuildIntervalMs;
+
+    @Value("${app.security.email-filter.max-stale-entries:10000}")
+    private long maxStaleEntries;
+
+    @Value("${app.security.email-filter.check-interval-ms:5000}")
+    private long checkIntervalMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile BloomFilter current;
+
+    private volatile BloomFilter building;
+
+    private volatile long typicalLookupNanos;
+
+    private volatile long lastRebuild;
+
+    // Highest user id and start time of the last scan, where the next catch-up starts
+    private long maxSeenId;
+
+    private long lastScan;
+
+    private final LongAdder staleEntries = new LongAdder();
+
+    private TransactionTemplate transactionTemplate;
+
+    private Counter definiteMisses;
+
+    private Counter possibleHits;
+
+    /**
+     * Prepares the rebuild transaction and registers the lookup counters.
+     */
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        definiteMisses = lookups("definite_miss");
+        possibleHits = lookups("possible_hit");
+    }
+
+    /**
+     * Checks whether an email may belong to a registered user.
+     *
+     * @param email the email to check
+     * @return false only if no user has this email
+     */
+    public boolean mightBeRegistered(String email) {
+        BloomFilter filter = current;
+        if (!enabled || filter == null) {
+            return true;
+        }
+        boolean result = filter.mightContain(emailNormalizer.normalize(email));
+        (result ? possibleHits : definiteMisses).increment();
+        return result;
+    }
+
+    /**
+     * Adds the email of a created or updated user. Inside a transaction it is added again once the
+     * transaction commits, so a rebuild that scanned the table before the commit cannot drop it.
+     *
+     * @param email the user's email
+     */
+    public void add(String email) {
+        if (!enabled) {
+            return;
+        }
+        String normalized = emailNormalizer.normalize(email);
+        put(normalized);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(normalized);
+                }
+            });
+        }
+    }
+
+    /**
+     * Records that an email no longer belongs to any user, after a delete or an email change.
+     * The entry stays in the filter until the next rebuild.
+     *
+     * @param email the email that was removed
+     */
+    public void remove(String email) {
+        if (enabled) {
+            staleEntries.increment();
+        }
+    }
+
+    private void put(String normalized) {
+        // Read the filter being built first: once it is null, current is already the new filter
+        BloomFilter next = building;
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(normalized);
+        }
+        if (next != null && next != filter) {
+            next.put(normalized);
+        }
+    }
+
+    /**
+     * Records how long a real lookup took, to pad skipped lookups to the same duration.
+     *
+     * @param nanos the duration of a database lookup
+     */
+    public void recordLookup(long nanos) {
+        long average = typicalLookupNanos;
+        typicalLookupNanos = average == 0 ? nanos : average + ((nanos - average) >> LOOKUP_EWMA_SHIFT);
+    }
+
+    /**
+     * Waits about as long as a database lookup takes, so a login for an unknown email does not
+     * answer measurably faster than one whose lookup went to the database.
+     */
+    public void awaitTypicalLookup() {
+        long nanos = typicalLookupNanos;
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+
+    /**
+     * Rebuilds the filter if it was never built, is older than the rebuild interval, or holds too
+     * many stale entries; otherwise adds the users written since the previous check.
+     */
+    @Scheduled(fixedDelayString = "${app.security.email-filter.check-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        if (current == null
+                || System.currentTimeMillis() - lastRebuild >= rebuildIntervalMs
+                || staleEntries.sum() >= maxStaleEntries) {
+            rebuild();
+        } else {
+            catchUp();
+        }
+    }
+
+    /**
+     * Adds the emails of the users created or updated since the previous scan, by any writer.
+     */
+    synchronized void catchUp() {
+        long scanStart = System.currentTimeMillis();
+        long[] maxId = {maxSeenId};
+        try {
+            jdbcTemplate.query("SELECT id, email FROM users WHERE id > ? OR updated_at > ?",
+                    (RowCallbackHandler) resultSet -> {
+                        maxId[0] = Math.max(maxId[0], resultSet.getLong(1));
+                        put(emailNormalizer.normalize(resultSet.getString(2)));
+                    }, maxSeenId, new Timestamp(lastScan - checkIntervalMs));
+            maxSeenId = maxId[0];
+            lastScan = scanStart;
+        } catch (RuntimeException e) {
+            // The next check covers the same rows again
+            logger.error("Failed to add recent users to the registered email filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the users table and swaps it in.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long scanStart = System.currentTimeMillis();
+        long[] maxId = new long[1];
+        long stale = staleEntries.sumThenReset();
+        long[] count = new long[1];
+        try {
+            BloomFilter filter = transactionTemplate.execute(status -> {
+                // The scan may outlast the pool's statement timeout on large tables
+                jdbcTemplate.execute("SET LOCAL statement_timeout = 0");
+                Long users = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+                BloomFilter next = new BloomFilter(Math.max(minCapacity, 2 * (users == null ? 0 : users)),
+                        falsePositiveRate, random.nextLong());
+                building = next;
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT id, email FROM users");
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                }, (RowCallbackHandler) resultSet -> {
+                    maxId[0] = Math.max(maxId[0], resultSet.getLong(1));
+                    next.put(emailNormalizer.normalize(resultSet.getString(2)));
+                    count[0]++;
+                });
+                return next;
+            });
+            current = filter;
+            lastRebuild = System.currentTimeMillis();
+            maxSeenId = maxId[0];
+            lastScan = scanStart;
+            logger.info("Rebuilt registered email filter: {} emails, {} KiB, in {} ms",
+                    count[0], filter.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Keep serving from the previous filter; additions kept it up to date
+            staleEntries.add(stale);
+            logger.error("Failed to rebuild registered email filter: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    private Counter lookups(String result) {
+        return Counter.builder("auth.email.filter")
+                .description("Login and token lookups checked against the registered email filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.io.Serial;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -59,9 +60,21 @@ public class UserDetailsImpl implements UserDetails {
      * @return a UserDetailsImpl object representing the user details
      */
     public static UserDetailsImpl build(User user) {
-        // For simplicity, all users have the same role
-        Collection<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_USER"));
+        return build(user, false);
+    }
+
+    /**
+     * Build a UserDetailsImpl object based on the user entity, optionally granting the admin role.
+     *
+     * @param user  the user entity from which to build the UserDetailsImpl
+     * @param admin whether the user is an administrator
+     * @return a UserDetailsImpl object representing the user details
+     */
+    public static UserDetailsImpl build(User user, boolean admin) {
+        // Every user has ROLE_USER; administrators additionally have ROLE_ADMIN
+        Collection<GrantedAuthority> authorities = admin
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
 
         return new UserDetailsImpl(
                 user.getId(),
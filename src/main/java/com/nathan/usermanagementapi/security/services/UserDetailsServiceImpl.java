@@ -1,13 +1,16 @@
 package com.nathan.usermanagementapi.security.services;
 
+import com.nathan.usermanagementapi.exception.EmailNotFoundException;
 import com.nathan.usermanagementapi.model.User;
-import com.nathan.usermanagementapi.repository.UserRepository;
+import com.nathan.usermanagementapi.repository.AuthUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
 
 /**
  * Service class responsible for loading user details from the database.
@@ -19,28 +22,59 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     /**
-     * The user repository that provides the user data.
+     * The repository that provides the user data, on the connection pool reserved for authentication.
      * Autowired by Spring, so it will be injected when the application context is loaded.
      */
     @Autowired
-    private UserRepository userRepository;
+    private AuthUserRepository authUserRepository;
 
     /**
-     * Loads a user by their email.
-     * 
+     * Emails of the users granted the ADMIN role, from the comma-separated
+     * {@code app.security.admin-emails} property.
+     */
+    @Value("${app.security.admin-emails:}")
+    private Set<String> adminEmails;
+
+    /**
+     * Bloom filter of registered emails, consulted before the database.
+     */
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    /**
+     * Loads a user by their email, compared in canonical form, so the address may be entered in any
+     * case or provider alias.
+     * <p>
+     * Emails the filter knows are not registered are rejected without a query, after waiting about
+     * as long as a query takes. On login, Spring Security's {@code DaoAuthenticationProvider} then
+     * checks the password against a dummy BCrypt hash, as for any unknown user, so both kinds of
+     * miss cost the same as a wrong password.
+     *
      * @param email the email of the user to load
      * @return a UserDetails object representing the user
      * @throws UsernameNotFoundException if the user is not found
+     * @throws com.nathan.usermanagementapi.exception.DatabaseUnavailableException if the auth circuit breaker is open
      */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // Skip the database for emails that definitely do not exist
+        if (!registeredEmailFilter.mightBeRegistered(email)) {
+            registeredEmailFilter.awaitTypicalLookup();
+            throw new EmailNotFoundException(email);
+        }
+
         // Find the user by their email
-        User user = userRepository.findByEmail(email)
-                // If the user is not found, throw an exception
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        long start = System.nanoTime();
+        User user;
+        try {
+            user = authUserRepository.findByEmail(email)
+                    // If the user is not found, throw an exception
+                    .orElseThrow(() -> new EmailNotFoundException(email));
+        } finally {
+            registeredEmailFilter.recordLookup(System.nanoTime() - start);
+        }
 
         // Build a UserDetails object from the user
-        return UserDetailsImpl.build(user);
+        return UserDetailsImpl.build(user, adminEmails.contains(user.getEmail()));
     }
 }
\ No newline at end of file
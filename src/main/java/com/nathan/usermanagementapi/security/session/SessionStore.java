@@ -0,0 +1,187 @@
+package com.nathan.usermanagementapi.security.session;
+
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Sharded in-memory map from opaque session tokens to sessions, with TTL expiry.
+ *
+ * <p>
+ * Resolving a token is one hash table probe: no signature, no decoding. Expired sessions are
+ * treated as missing on lookup and removed in bulk by {@link #evictExpired}, which walks one shard
+ * at a time so a sweep never holds up more than a slice of the table. Shards also keep each map
+ * small enough to resize cheaply when logins spike.
+ * </p>
+ *
+ * <p>
+ * Sessions restored from the database are only known by the hash of their token. They are kept
+ * in a separate map keyed by that hash, probed only on a miss while it is non-empty, and moved to
+ * their shard under the raw token on first use. Once they have all been used or have expired,
+ * lookups are back to a single probe. The move puts the session into its shard while holding the
+ * lock of its entry in the restored map, and revocations look in the restored map before the
+ * shards, so a revocation racing the move always finds the session in one of the two: a revoked
+ * session cannot be brought back by its first use.
+ * </p>
+ */
+public class SessionStore {
+
+    /**
+     * A live session.
+     *
+     * @param userId    the id of the user the session belongs to
+     * @param email     the email the user is loaded by
+     * @param expiresAt the expiry in epoch milliseconds
+     */
+    public record Session(Long userId, String email, long expiresAt) {
+    }
+
+    private final Map<String, Session>[] shards;
+
+    private final int mask;
+
+    // Sessions loaded from the database, keyed by token hash until first use
+    private final ConcurrentMap<String, Session> restored = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty store.
+     *
+     * @param shardCount the number of shards, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SessionStore(int shardCount) {
+        int count = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        shards = new Map[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        mask = count - 1;
+    }
+
+    /**
+     * Adds a new session.
+     *
+     * @param token   the raw token
+     * @param session the session
+     */
+    public void put(String token, Session session) {
+        shard(token).put(token, session);
+    }
+
+    /**
+     * Adds a session loaded from the database.
+     *
+     * @param tokenHash the hash of the token
+     * @param session   the session
+     */
+    public void restore(String tokenHash, Session session) {
+        restored.put(tokenHash, session);
+    }
+
+    /**
+     * Resolves a token.
+     *
+     * @param token the raw token
+     * @param now   the current time in epoch milliseconds
+     * @return the session, or null if the token is unknown or expired
+     */
+    public Session get(String token, long now) {
+        Map<String, Session> shard = shard(token);
+        Session session = shard.get(token);
+        if (session == null) {
+            if (restored.isEmpty()) {
+                return null;
+            }
+            Session[] moved = new Session[1];
+            restored.computeIfPresent(OpaqueTokens.hash(token), (hash, restoredSession) -> {
+                shard.put(token, restoredSession);
+                moved[0] = restoredSession;
+                return null;
+            });
+            // Null if unknown, revoked, or moved by a concurrent lookup of the same token
+            session = moved[0] != null ? moved[0] : shard.get(token);
+            if (session == null) {
+                return null;
+            }
+        }
+        if (session.expiresAt() <= now) {
+            shard.remove(token, session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Removes a session.
+     *
+     * @param token the raw token
+     * @return the removed session, or null if there was none
+     */
+    public Session remove(String token) {
+        // The restored map first: a session moved concurrently is then already in its shard
+        Session session = restored.isEmpty() ? null : restored.remove(OpaqueTokens.hash(token));
+        Session live = shard(token).remove(token);
+        return session != null ? session : live;
+    }
+
+    /**
+     * Removes every session of a user. Walks the whole store, which is fine for the rare events
+     * that need it (password or email change, deletion).
+     *
+     * @param userId the id of the user
+     * @return the number of sessions removed
+     */
+    public int removeUser(Long userId) {
+        Predicate<Session> ofUser = session -> userId.equals(session.userId());
+        int removed = removeIf(restored, ofUser);
+        for (Map<String, Session> shard : shards) {
+            removed += removeIf(shard, ofUser);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes expired sessions.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return the number of sessions removed
+     */
+    public int evictExpired(long now) {
+        Predicate<Session> expired = session -> session.expiresAt() <= now;
+        int removed = removeIf(restored, expired);
+        for (Map<String, Session> shard : shards) {
+            removed += removeIf(shard, expired);
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of sessions held, including expired ones not yet evicted
+     */
+    public int size() {
+        int size = restored.size();
+        for (Map<String, Session> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private Map<String, Session> shard(String token) {
+        int h = token.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static int removeIf(Map<String, Session> map, Predicate<Session> condition) {
+        int removed = 0;
+        for (Map.Entry<String, Session> entry : map.entrySet()) {
+            // Conditional, so a restored session moved meanwhile is counted once, in its shard
+            if (condition.test(entry.getValue()) && map.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
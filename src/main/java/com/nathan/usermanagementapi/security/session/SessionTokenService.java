@@ -0,0 +1,176 @@
+package com.nathan.usermanagementapi.security.session;
+
+import com.nathan.usermanagementapi.model.UserSession;
+import com.nathan.usermanagementapi.repository.UserSessionRepository;
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+/**
+ * Opaque session tokens, the alternative to JWT access tokens selected with
+ * {@code app.auth.token-mode=opaque}.
+ *
+ * <p>
+ * Login issues a random token and stores the session in a {@link SessionStore}; the JWT filter
+ * then resolves tokens with a single map probe instead of verifying an HMAC and parsing claims.
+ * Logout and account changes remove sessions immediately, so no denylist is needed and no refresh
+ * tokens are issued. Sessions live {@code app.auth.session.ttl-ms} from login.
+ * </p>
+ *
+ * <p>
+ * The store is local to the instance. With {@code app.auth.session.persist=true} every session
+ * is also written to the sessions table (as a token hash) and loaded back at startup, so a restart
+ * does not log everyone out; this costs one insert per login and one delete per logout, never a
+ * query per request. Sessions are not shared between instances, so deployments with more than one
+ * instance need sticky routing in this mode.
+ * </p>
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenService.class);
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.token-mode:jwt}") // jwt or opaque
+    private String tokenMode;
+
+    @Value("${app.auth.session.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${app.auth.session.shards:16}")
+    private int shards;
+
+    @Value("${app.auth.session.persist:false}")
+    private boolean persist;
+
+    private boolean enabled;
+
+    private SessionStore store;
+
+    /**
+     * Creates the store and, in opaque mode with persistence, loads the live sessions.
+     */
+    @PostConstruct
+    public void init() {
+        enabled = "opaque".equalsIgnoreCase(tokenMode.trim());
+        if (!enabled && !"jwt".equalsIgnoreCase(tokenMode.trim())) {
+            throw new IllegalStateException("app.auth.token-mode must be jwt or opaque, was: " + tokenMode);
+        }
+        store = new SessionStore(shards);
+        Gauge.builder("auth.sessions.active", store, SessionStore::size)
+                .description("Opaque sessions held in memory")
+                .register(meterRegistry);
+        if (enabled && persist) {
+            for (UserSession session : userSessionRepository.findByExpiresAtAfter(new Date())) {
+                store.restore(session.getTokenHash(), new SessionStore.Session(
+                        session.getUserId(), session.getEmail(), session.getExpiresAt().getTime()));
+            }
+            logger.info("Restored {} sessions", store.size());
+        }
+    }
+
+    /**
+     * @return true if logins issue opaque session tokens instead of JWTs
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the lifetime of a session in milliseconds
+     */
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * Starts a session.
+     *
+     * @param userId the id of the authenticated user
+     * @param email  the email of the authenticated user
+     * @return the session token to return to the client
+     */
+    public String create(Long userId, String email) {
+        String token = OpaqueTokens.generate();
+        long now = System.currentTimeMillis();
+        SessionStore.Session session = new SessionStore.Session(userId, email, now + ttlMs);
+        if (persist) {
+            userSessionRepository.save(new UserSession(OpaqueTokens.hash(token), userId, email,
+                    new Date(now), new Date(session.expiresAt())));
+        }
+        store.put(token, session);
+        return token;
+    }
+
+    /**
+     * Resolves a session token on the request path. Never touches the database.
+     *
+     * @param token the token from the Authorization header
+     * @return the session, or null if the token is unknown or expired
+     */
+    public SessionStore.Session resolve(String token) {
+        return store.get(token, System.currentTimeMillis());
+    }
+
+    /**
+     * Ends a session, at logout.
+     *
+     * @param token the session token
+     */
+    public void invalidate(String token) {
+        if (store.remove(token) != null && persist) {
+            userSessionRepository.deleteById(OpaqueTokens.hash(token));
+        }
+    }
+
+    /**
+     * Ends every session of a user, after a password or email change or deletion.
+     *
+     * @param userId the id of the user
+     */
+    public void invalidateUser(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        store.removeUser(userId);
+        if (persist) {
+            userSessionRepository.deleteByUser(userId);
+        }
+    }
+
+    /**
+     * Evicts expired sessions from memory and from the sessions table.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.session.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int evicted = store.evictExpired(now);
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired sessions", evicted);
+        }
+        if (persist) {
+            try {
+                userSessionRepository.deleteExpired(new Date(now));
+            } catch (RuntimeException e) {
+                logger.error("Failed to delete expired sessions: {}", e.getMessage());
+            }
+        }
+    }
+}
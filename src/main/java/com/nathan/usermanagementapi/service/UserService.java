@@ -1,10 +1,14 @@
 package com.nathan.usermanagementapi.service;
 
+import com.nathan.usermanagementapi.dto.BatchRequest;
+import com.nathan.usermanagementapi.dto.BatchResponse;
 import com.nathan.usermanagementapi.dto.SignupRequest;
 import com.nathan.usermanagementapi.dto.UpdateUserRequest;
 import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.projection.UserFields;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for user management operations.
@@ -14,6 +18,7 @@ import java.util.List;
  * - Retrieving users (all users or a specific user)
  * - Updating an existing user
  * - Deleting a user
+ * - Running several of these operations in one call
  */
 public interface UserService {
 
@@ -32,6 +37,14 @@ public interface UserService {
      */
     List<UserDto> getAllUsers();
 
+    /**
+     * Retrieves some fields of all users in the system.
+     *
+     * @param fields The fields to read
+     * @return One map of field name to value per user, in field order
+     */
+    List<Map<String, Object>> getAllUsers(UserFields fields);
+
     /**
      * Retrieves a specific user by ID.
      *
@@ -41,6 +54,16 @@ public interface UserService {
      */
     UserDto getUserById(Long id);
 
+    /**
+     * Retrieves some fields of a specific user by ID.
+     *
+     * @param id The ID of the user to retrieve
+     * @param fields The fields to read
+     * @return Map of field name to value, in field order
+     * @throws com.nathan.usermanagementapi.exception.ResourceNotFoundException if user does not exist
+     */
+    Map<String, Object> getUserById(Long id, UserFields fields);
+
     /**
      * Updates an existing user with the provided data.
      *
@@ -48,6 +71,7 @@ public interface UserService {
      * @param updateUserRequest DTO containing the update information
      * @return DTO of the updated user
      * @throws com.nathan.usermanagementapi.exception.ResourceNotFoundException if user does not exist
+     * @throws com.nathan.usermanagementapi.exception.EmailAlreadyInUseException if the new email belongs to another user
      */
     UserDto updateUser(Long id, UpdateUserRequest updateUserRequest);
 
@@ -58,4 +82,13 @@ public interface UserService {
      * @throws com.nathan.usermanagementapi.exception.ResourceNotFoundException if user does not exist
      */
     void deleteUser(Long id);
+
+    /**
+     * Runs several get, update and delete operations in order, either in one transaction or in one
+     * transaction each.
+     *
+     * @param batchRequest DTO containing the operations and the transaction mode
+     * @return DTO with one result per operation
+     */
+    BatchResponse executeBatch(BatchRequest batchRequest);
 }
\ No newline at end of file
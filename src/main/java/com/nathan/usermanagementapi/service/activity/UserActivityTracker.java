@@ -0,0 +1,170 @@
+package com.nathan.usermanagementapi.service.activity;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records user activity (last-seen time and login count) with write coalescing.
+ *
+ * <p>
+ * Touches are merged into a concurrent in-memory map keyed by user id, so any number of requests
+ * by the same user between two flushes costs a single row update. A scheduled task writes all
+ * pending entries with one {@code UPDATE ... FROM unnest(...)} statement every
+ * {@code app.activity.flush-interval-ms} milliseconds, and a final flush runs on shutdown.
+ * </p>
+ */
+@Component
+public class UserActivityTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserActivityTracker.class);
+
+    private static final String FLUSH_SQL = """
+            UPDATE users u
+               SET last_seen_at = GREATEST(u.last_seen_at, v.seen_at),
+                   login_count = u.login_count + v.logins
+              FROM unnest(?::bigint[], ?::timestamp[], ?::bigint[]) AS v(id, seen_at, logins)
+             WHERE u.id = v.id""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Plain JDBC access for the batched update
+
+    @Value("${app.activity.enabled:true}")
+    private boolean enabled;
+
+    private final ConcurrentHashMap<Long, Activity> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Records an authenticated request by the given user.
+     *
+     * @param userId the id of the user
+     */
+    public void recordRequest(Long userId) {
+        record(userId, 0);
+    }
+
+    /**
+     * Records a successful login by the given user.
+     *
+     * @param userId the id of the user
+     */
+    public void recordLogin(Long userId) {
+        record(userId, 1);
+    }
+
+    /**
+     * Returns the activity recorded for the user since the last flush.
+     *
+     * @param userId the id of the user
+     * @return the pending activity, or null if there is none
+     */
+    public Activity getPending(Long userId) {
+        return userId == null ? null : pending.get(userId);
+    }
+
+    /**
+     * Writes all pending activity to the database in a single statement.
+     * Entries are removed before writing and merged back if the write fails.
+     */
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Drain in id order so concurrent flushes from several instances lock rows in the same order
+        Map<Long, Activity> batch = new TreeMap<>();
+        for (Long userId : pending.keySet()) {
+            Activity activity = pending.remove(userId);
+            if (activity != null) {
+                batch.put(userId, activity);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Long[] ids = new Long[batch.size()];
+        Timestamp[] seenAt = new Timestamp[batch.size()];
+        Long[] logins = new Long[batch.size()];
+        int i = 0;
+        for (Map.Entry<Long, Activity> entry : batch.entrySet()) {
+            ids[i] = entry.getKey();
+            seenAt[i] = new Timestamp(entry.getValue().lastSeenAt());
+            logins[i] = entry.getValue().logins();
+            i++;
+        }
+
+        try {
+            jdbcTemplate.update(FLUSH_SQL, ps -> {
+                Connection connection = ps.getConnection();
+                Array idArray = connection.createArrayOf("bigint", ids);
+                Array seenArray = connection.createArrayOf("timestamp", seenAt);
+                Array loginArray = connection.createArrayOf("bigint", logins);
+                ps.setArray(1, idArray);
+                ps.setArray(2, seenArray);
+                ps.setArray(3, loginArray);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Flushing activity of {} users failed, will retry: {}", batch.size(), e.getMessage());
+            batch.forEach((userId, activity) -> pending.merge(userId, activity, Activity::merge));
+        }
+    }
+
+    /**
+     * Flushes remaining activity before the application shuts down.
+     */
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void record(Long userId, long logins) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        pending.merge(userId, new Activity(System.currentTimeMillis(), logins), Activity::merge);
+    }
+
+    /**
+     * Activity accumulated for one user between two flushes.
+     *
+     * @param lastSeenAt the latest activity time in epoch milliseconds
+     * @param logins     the number of logins since the last flush
+     */
+    public record Activity(long lastSeenAt, long logins) {
+
+        /**
+         * Combines two activity records, keeping the latest time and summing the logins.
+         *
+         * @param other the activity to combine with
+         * @return the combined activity
+         */
+        public Activity merge(Activity other) {
+            return new Activity(Math.max(lastSeenAt, other.lastSeenAt), logins + other.logins);
+        }
+
+        /**
+         * Returns the later of this activity's time and the given stored time.
+         *
+         * @param stored the last-seen date already stored, may be null
+         * @return the effective last-seen date
+         */
+        public Date lastSeenAfter(Date stored) {
+            return stored == null || stored.getTime() < lastSeenAt ? new Date(lastSeenAt) : stored;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.nathan.usermanagementapi.service.batch;
+
+import com.nathan.usermanagementapi.exception.EmailAlreadyInUseException;
+import com.nathan.usermanagementapi.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group-commit writer for user signups.
+ *
+ * <p>
+ * When enabled, concurrent calls to {@link #insert(User)} are buffered for at most
+ * {@code app.signup.group-commit.max-wait-ms} milliseconds (or until
+ * {@code app.signup.group-commit.max-batch-size} users are pending) and then written by a single
+ * background thread as one multi-row {@code INSERT ... ON CONFLICT DO NOTHING RETURNING}
+ * statement in one transaction. Rows skipped because of the unique email or canonical email
+ * indexes are reported back to their own caller only; the rest of the batch is committed normally.
+ * If the statement fails as a whole, for instance because one row violates a check or is too long
+ * for its column, the rows are retried one by one so that only the offending signup fails.
+ * </p>
+ *
+ * <p>
+ * A caller waits at most {@code app.signup.group-commit.caller-timeout-ms} for the flusher to pick
+ * its signup up. A signup that times out while still queued is withdrawn and never written; once
+ * the flusher has taken it, the caller waits for the outcome of the write, which is itself bounded
+ * by the same timeout as a transaction timeout. Signups after shutdown fail immediately.
+ * </p>
+ */
+@Component
+public class SignupGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignupGroupCommitter.class);
+
+    /**
+     * Columns written per row; used to cap the batch below PostgreSQL's bind parameter limit.
+     */
+    private static final int COLUMNS_PER_ROW = 6;
+
+    private static final int MAX_ROWS_PER_STATEMENT = 65535 / COLUMNS_PER_ROW;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Plain JDBC access for the multi-row insert
+
+    @Autowired
+    private PlatformTransactionManager transactionManager; // Wraps each batch in one transaction
+
+    @Value("${app.signup.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.signup.group-commit.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${app.signup.group-commit.max-batch-size:128}")
+    private int maxBatchSize;
+
+    @Value("${app.signup.group-commit.caller-timeout-ms:10000}")
+    private long callerTimeoutMs;
+
+    private final BlockingQueue<PendingSignup> queue = new LinkedBlockingQueue<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    /**
+     * Starts the background flusher thread if group commit is enabled.
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        maxBatchSize = Math.max(1, Math.min(maxBatchSize, MAX_ROWS_PER_STATEMENT));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(callerTimeoutMs)));
+        running = true;
+        flusher = new Thread(this::runFlusher, "signup-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Signup group commit enabled (max wait {} ms, max batch size {})", maxWaitMs, maxBatchSize);
+    }
+
+    /**
+     * Stops the flusher after writing whatever is still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Indicates whether signups should be routed through this writer.
+     *
+     * @return true if group commit is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the user for the next group commit and waits for the outcome.
+     * The password must already be encoded and the canonical email set; both are written as-is.
+     *
+     * @param user the new user to insert
+     * @return the same user with its generated id and timestamps populated
+     * @throws EmailAlreadyInUseException if the email is already in use
+     */
+    public User insert(User user) {
+        if (!running) {
+            throw new IllegalStateException("Group commit is not running");
+        }
+        PendingSignup pending = new PendingSignup(user);
+        queue.add(pending);
+        // Raced with stop(): the flusher may already have drained the queue for the last time
+        if (!running && pending.withdraw()) {
+            throw new IllegalStateException("Group commit is not running");
+        }
+
+        try {
+            try {
+                return pending.result.get(callerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.withdraw()) {
+                    throw new IllegalStateException("Timed out waiting for group commit", e);
+                }
+                // Already being written: report the actual outcome rather than a failure that may not be one
+                return pending.result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    /**
+     * Main loop of the flusher thread: waits for the first pending signup, then keeps collecting
+     * until the batch is full or the wait window of the first one has elapsed.
+     */
+    private void runFlusher() {
+        List<PendingSignup> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSignup first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingSignup next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested: drain what is left without waiting
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch and completes every caller's future.
+     *
+     * @param batch the pending signups to write
+     */
+    private void flush(List<PendingSignup> batch) {
+        // Only the first signup per canonical email takes part in the insert; later ones in the same batch conflict
+        Map<String, PendingSignup> byEmail = new LinkedHashMap<>();
+        for (PendingSignup pending : batch) {
+            if (!pending.claim()) {
+                continue; // Withdrawn by its caller after a timeout
+            }
+            if (byEmail.putIfAbsent(pending.user.getEmailNormalized(), pending) != null) {
+                pending.result.completeExceptionally(new EmailAlreadyInUseException());
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<PendingSignup> rows = new ArrayList<>(byEmail.values());
+        try {
+            complete(rows, insertRows(rows, now), now);
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                rows.get(0).result.completeExceptionally(e);
+                return;
+            }
+            logger.warn("Group commit of {} signups failed, retrying them one by one: {}", rows.size(), e.getMessage());
+            for (PendingSignup pending : rows) {
+                try {
+                    complete(List.of(pending), insertRows(List.of(pending), now), now);
+                } catch (RuntimeException rowFailure) {
+                    logger.error("Signup could not be written: {}", rowFailure.getMessage());
+                    pending.result.completeExceptionally(rowFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the rows in one multi-row statement and transaction.
+     *
+     * @param rows the signups to insert, at most one per canonical email
+     * @param now  the creation and update timestamp of the rows
+     * @return the generated ids of the inserted rows by canonical email
+     */
+    private Map<String, Long> insertRows(List<PendingSignup> rows, Timestamp now) {
+        StringBuilder sql = new StringBuilder("INSERT INTO users (name, email, email_normalized, password, created_at, updated_at) VALUES ");
+        Object[] args = new Object[rows.size() * COLUMNS_PER_ROW];
+        int i = 0;
+        for (PendingSignup pending : rows) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+            args[i++] = pending.user.getName();
+            args[i++] = pending.user.getEmail();
+            args[i++] = pending.user.getEmailNormalized();
+            args[i++] = pending.user.getPassword();
+            args[i++] = now;
+            args[i++] = now;
+        }
+        // No conflict target: a row is skipped on either unique index, email or email_normalized
+        sql.append(" ON CONFLICT DO NOTHING RETURNING id, email_normalized");
+
+        return transactionTemplate.execute(status -> {
+            Map<String, Long> ids = new HashMap<>();
+            jdbcTemplate.query(sql.toString(),
+                    (rs, rowNum) -> Map.entry(rs.getString("email_normalized"), rs.getLong("id")), args)
+                    .forEach(entry -> ids.put(entry.getKey(), entry.getValue()));
+            return ids;
+        });
+    }
+
+    /**
+     * Completes the callers of inserted rows with their user and the others with a conflict.
+     */
+    private static void complete(List<PendingSignup> rows, Map<String, Long> inserted, Timestamp now) {
+        for (PendingSignup pending : rows) {
+            Long id = inserted.get(pending.user.getEmailNormalized());
+            if (id == null) {
+                pending.result.completeExceptionally(new EmailAlreadyInUseException());
+            } else {
+                pending.user.setId(id);
+                pending.user.setCreatedAt(now);
+                pending.user.setUpdatedAt(now);
+                pending.result.complete(pending.user);
+            }
+        }
+    }
+
+    /**
+     * A signup waiting for the next group commit together with the future its caller blocks on.
+     */
+    private static final class PendingSignup {
+
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int WITHDRAWN = 2;
+
+        private final User user;
+
+        private final CompletableFuture<User> result = new CompletableFuture<>();
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingSignup(User user) {
+            this.user = user;
+        }
+
+        /**
+         * Called by the flusher before writing the signup.
+         *
+         * @return false if the caller already gave up on it
+         */
+        private boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        /**
+         * Called by the caller when it stops waiting.
+         *
+         * @return false if the flusher already took the signup
+         */
+        private boolean withdraw() {
+            return state.compareAndSet(QUEUED, WITHDRAWN);
+        }
+    }
+}
@@ -1,27 +1,54 @@
 
 package com.nathan.usermanagementapi.service.impl;
 
+import com.nathan.usermanagementapi.dto.BatchOperation;
+import com.nathan.usermanagementapi.dto.BatchRequest;
+import com.nathan.usermanagementapi.dto.BatchResponse;
+import com.nathan.usermanagementapi.dto.BatchResult;
 import com.nathan.usermanagementapi.dto.SignupRequest;
 import com.nathan.usermanagementapi.dto.UpdateUserRequest;
 import com.nathan.usermanagementapi.dto.UserDto;
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import com.nathan.usermanagementapi.exception.EmailAlreadyInUseException;
 import com.nathan.usermanagementapi.exception.ResourceNotFoundException;
 import com.nathan.usermanagementapi.model.User;
+import com.nathan.usermanagementapi.projection.UserFields;
 import com.nathan.usermanagementapi.repository.UserRepository;
+import com.nathan.usermanagementapi.resilience.CircuitBreakerInterceptor;
+import com.nathan.usermanagementapi.security.jwt.RefreshTokenService;
+import com.nathan.usermanagementapi.security.services.LoginCache;
+import com.nathan.usermanagementapi.security.services.RegisteredEmailFilter;
+import com.nathan.usermanagementapi.security.session.SessionTokenService;
 import com.nathan.usermanagementapi.service.UserService;
+import com.nathan.usermanagementapi.service.activity.UserActivityTracker;
+import com.nathan.usermanagementapi.service.batch.SignupGroupCommitter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of the UserService interface.
  *
  * This class provides the business logic for user management operations.
+ * Every public method is timed as {@code user.service}, tagged with the method name and exception.
  */
 @Service // Marks this class as a Spring service component
+@Timed(value = "user.service", description = "Latency of user service operations")
 public class UserServiceImpl implements UserService {
 
     @Autowired
@@ -30,26 +57,73 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder; // Encoder for password hashing
 
+    @Autowired
+    private SignupGroupCommitter signupGroupCommitter; // Optional batched insert path for signups
+
+    @Autowired
+    private UserActivityTracker activityTracker; // Source of activity not yet flushed to the database
+
+    @Autowired
+    private EmailNormalizer emailNormalizer; // Canonical email written next to the email, for lookups
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter; // Lets logins skip the database for unknown emails
+
+    @Autowired
+    private RefreshTokenService refreshTokenService; // Ends the user's sessions on password change and delete
+
+    @Autowired
+    private SessionTokenService sessionTokenService; // Same for opaque sessions, which also carry the email
+
+    @Autowired
+    private LoginCache loginCache; // Cached logins must not outlive a credential change
+
+    @Autowired
+    private PlatformTransactionManager transactionManager; // Wraps batches in one or several transactions
+
+    @Autowired
+    private CircuitBreakerInterceptor crudTransactionGuard; // Checks the CRUD breaker before a batch transaction takes a connection
+
+    @Value("${app.users.batch.atomic:true}")
+    private boolean batchAtomic; // Default transaction mode of batches that do not choose one
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Prepares the transaction template used by batches.
+     */
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Creates a new user from the registration request data.
      * The password is encrypted using BCrypt before storing.
+     * <p>
+     * No surrounding transaction is opened here: the repository save runs in its own transaction,
+     * and in group-commit mode the caller must not hold a connection while waiting for the batch.
      *
      * @param signupRequest DTO containing user registration information
      * @return DTO of the created user
+     * @throws EmailAlreadyInUseException if the email is already in use (group-commit mode)
      */
     @Override
-    @Transactional // Ensures database operations are executed in a transaction
     public UserDto createUser(SignupRequest signupRequest) {
         // Create new user
         User user = new User();
         user.setName(signupRequest.getName());
         user.setEmail(signupRequest.getEmail());
+        user.setEmailNormalized(emailNormalizer.normalize(signupRequest.getEmail()));
 
         // Encrypt the password before storing
         user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
 
-        // Save the user to the database
-        User savedUser = userRepository.save(user);
+        // Save the user to the database, batched with concurrent signups if group commit is enabled
+        User savedUser = signupGroupCommitter.isEnabled()
+                ? signupGroupCommitter.insert(user)
+                : userRepository.save(user);
+        registeredEmailFilter.add(savedUser.getEmail());
 
         // Convert and return as DTO
         return mapToDto(savedUser);
@@ -69,6 +143,22 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves some fields of all users, selecting only those columns.
+     *
+     * @param fields The fields to read
+     * @return One map of field name to value per user, in field order
+     */
+    @Override
+    public List<Map<String, Object>> getAllUsers(UserFields fields) {
+        List<Object[]> rows = userRepository.findAllProjected(fields);
+        List<Map<String, Object>> users = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            users.add(mapToFields(row, fields));
+        }
+        return users;
+    }
+
     /**
      * Retrieves a specific user by ID.
      *
@@ -84,6 +174,22 @@ public class UserServiceImpl implements UserService {
         return mapToDto(user);
     }
 
+    /**
+     * Retrieves some fields of a specific user by ID, selecting only those columns.
+     *
+     * @param id The ID of the user to retrieve
+     * @param fields The fields to read
+     * @return Map of field name to value, in field order
+     * @throws ResourceNotFoundException if user does not exist
+     */
+    @Override
+    public Map<String, Object> getUserById(Long id, UserFields fields) {
+        Object[] row = userRepository.findProjectedById(id, fields)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+
+        return mapToFields(row, fields);
+    }
+
     /**
      * Updates an existing user with the provided data.
      * Only fields that are provided in the request will be updated.
@@ -92,6 +198,7 @@ public class UserServiceImpl implements UserService {
      * @param updateUserRequest DTO containing the update information
      * @return DTO of the updated user
      * @throws ResourceNotFoundException if user does not exist
+     * @throws EmailAlreadyInUseException if the new email belongs to another user
      */
     @Override
     @Transactional
@@ -107,20 +214,29 @@ public class UserServiceImpl implements UserService {
 
         // Update email if provided and different from current
         if (updateUserRequest.getEmail() != null && !updateUserRequest.getEmail().equals(user.getEmail())) {
-            // Check if email already exists
-            if (userRepository.existsByEmail(updateUserRequest.getEmail())) {
-                throw new IllegalArgumentException("Email is already in use");
+            // Check if email already exists; a change of case or alias of the user's own email is not a conflict
+            String normalized = emailNormalizer.normalize(updateUserRequest.getEmail());
+            if (!normalized.equals(user.getEmailNormalized()) && userRepository.existsByEmail(updateUserRequest.getEmail())) {
+                throw new EmailAlreadyInUseException();
             }
+            registeredEmailFilter.remove(user.getEmail());
             user.setEmail(updateUserRequest.getEmail());
+            user.setEmailNormalized(normalized);
+            sessionTokenService.invalidateUser(user.getId());
+            loginCache.invalidateUser(user.getId());
         }
 
-        // Update password if provided
+        // Update password if provided; sessions opened with the old password must not outlive it
         if (updateUserRequest.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(updateUserRequest.getPassword()));
+            refreshTokenService.revokeAllForUser(user.getId());
+            sessionTokenService.invalidateUser(user.getId());
+            loginCache.invalidateUser(user.getId());
         }
 
-        // Save the updated user
+        // Save the updated user; a changed email must be known to the login filter
         User updatedUser = userRepository.save(user);
+        registeredEmailFilter.add(updatedUser.getEmail());
 
         return mapToDto(updatedUser);
     }
@@ -138,24 +254,161 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        // Delete the user
+        // Delete the user; its access tokens are rejected by the user lookup, its refresh tokens here
         userRepository.delete(user);
+        registeredEmailFilter.remove(user.getEmail());
+        refreshTokenService.revokeAllForUser(user.getId());
+        sessionTokenService.invalidateUser(user.getId());
+        loginCache.invalidateUser(user.getId());
+    }
+
+    /**
+     * Runs several operations in order through the single-user methods above.
+     * <p>
+     * An atomic batch runs in one transaction and one persistence context, so a user read or
+     * changed by an earlier operation is not loaded again; it stops at the first failed operation
+     * and rolls everything back, reporting the earlier updates and deletes as rolled back and
+     * the later operations as not run (424). Otherwise each operation runs and commits in its own
+     * transaction, and each result tells whether its operation committed.
+     * Not-found and email-in-use failures become per-operation results with the status the single
+     * request would have had; any other exception, such as the database being unavailable, fails
+     * the whole request, after the operations that already committed in a non-atomic batch.
+     *
+     * @param batchRequest DTO containing the operations and the transaction mode
+     * @return DTO with one result per operation
+     */
+    @Override
+    public BatchResponse executeBatch(BatchRequest batchRequest) {
+        boolean atomic = batchRequest.getAtomic() != null ? batchRequest.getAtomic() : batchAtomic;
+        List<BatchOperation> operations = batchRequest.getOperations();
+        List<BatchResult> results = new ArrayList<>(operations.size());
+
+        if (!atomic) {
+            boolean allCommitted = true;
+            for (BatchOperation operation : operations) {
+                BatchResult result = crudTransactionGuard.execute(() -> transactionTemplate.execute(status -> {
+                    BatchResult operationResult = runBatchOperation(operation, status);
+                    operationResult.setCommitted(!status.isRollbackOnly());
+                    return operationResult;
+                }));
+                results.add(result);
+                allCommitted &= result.isCommitted();
+            }
+            return new BatchResponse(false, allCommitted, results);
+        }
+
+        Boolean committed = crudTransactionGuard.execute(() -> transactionTemplate.execute(status -> {
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(runBatchOperation(operations.get(i), status));
+                if (status.isRollbackOnly()) {
+                    String rolledBack = "Rolled back: operation " + i + " failed";
+                    for (int j = 0; j < i; j++) {
+                        if (operations.get(j).getOp() != BatchOperation.Type.GET) {
+                            results.set(j, new BatchResult(HttpStatus.FAILED_DEPENDENCY.value(), null, rolledBack, false));
+                        }
+                    }
+                    for (int j = i + 1; j < operations.size(); j++) {
+                        results.add(new BatchResult(HttpStatus.FAILED_DEPENDENCY.value(), null,
+                                "Not run: operation " + i + " failed", false));
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }));
+        if (Boolean.TRUE.equals(committed)) {
+            results.forEach(result -> result.setCommitted(true));
+        }
+        return new BatchResponse(true, Boolean.TRUE.equals(committed), results);
+    }
+
+    /**
+     * Runs one batch operation in the current transaction, marking it for rollback if it fails.
+     *
+     * @param operation the operation to run
+     * @param status    the current transaction
+     * @return the result of the operation
+     */
+    private BatchResult runBatchOperation(BatchOperation operation, TransactionStatus status) {
+        try {
+            switch (operation.getOp()) {
+                case GET:
+                    return new BatchResult(HttpStatus.OK.value(), getUserById(operation.getId()), null, false);
+                case UPDATE:
+                    if (operation.getBody() == null) {
+                        status.setRollbackOnly();
+                        return new BatchResult(HttpStatus.BAD_REQUEST.value(), null,
+                                "UPDATE requires a body", false);
+                    }
+                    return new BatchResult(HttpStatus.OK.value(),
+                            updateUser(operation.getId(), operation.getBody()), null, false);
+                default:
+                    deleteUser(operation.getId());
+                    return new BatchResult(HttpStatus.OK.value(), null, "User deleted successfully!", false);
+            }
+        } catch (ResourceNotFoundException e) {
+            status.setRollbackOnly();
+            return new BatchResult(HttpStatus.NOT_FOUND.value(), null, e.getMessage(), false);
+        } catch (EmailAlreadyInUseException e) {
+            status.setRollbackOnly();
+            return new BatchResult(HttpStatus.BAD_REQUEST.value(), null, e.getMessage(), false);
+        }
+    }
+
+    /**
+     * Helper method to map a projected row to the requested fields, like {@link #mapToDto} does
+     * for whole entities, including the merge of activity not yet flushed.
+     *
+     * @param row    the id, then every requested field other than the id, in field order
+     * @param fields the requested fields
+     * @return map of field name to value, in field order
+     */
+    private Map<String, Object> mapToFields(Object[] row, UserFields fields) {
+        Long id = (Long) row[0];
+        UserActivityTracker.Activity pending = fields.contains(UserFields.Field.LAST_SEEN_AT)
+                || fields.contains(UserFields.Field.LOGIN_COUNT) ? activityTracker.getPending(id) : null;
+
+        Map<String, Object> user = new LinkedHashMap<>();
+        int column = 1;
+        for (UserFields.Field field : fields.selected()) {
+            Object value = field == UserFields.Field.ID ? id : row[column++];
+            if (pending != null && field == UserFields.Field.LAST_SEEN_AT) {
+                value = pending.lastSeenAfter((Date) value);
+            } else if (pending != null && field == UserFields.Field.LOGIN_COUNT) {
+                value = (Long) value + pending.logins();
+            }
+            user.put(field.jsonName(), value);
+        }
+        return user;
     }
 
     /**
      * Helper method to map User entity to UserDto.
      * This prevents sensitive information (like password) from being exposed.
+     * Activity recorded since the last flush is merged in so the DTO is not stale.
+     * Package-private so the mapping benchmark can call it directly.
      *
      * @param user The user entity to convert
      * @return DTO representation of the user
      */
-    private UserDto mapToDto(User user) {
+    UserDto mapToDto(User user) {
+        Date lastSeenAt = user.getLastSeenAt();
+        long loginCount = user.getLoginCount();
+
+        UserActivityTracker.Activity pending = activityTracker.getPending(user.getId());
+        if (pending != null) {
+            lastSeenAt = pending.lastSeenAfter(lastSeenAt);
+            loginCount += pending.logins();
+        }
+
         return new UserDto(
                 user.getId(),
                 user.getName(),
                 user.getEmail(),
                 user.getCreatedAt(),
-                user.getUpdatedAt()
+                user.getUpdatedAt(),
+                lastSeenAt,
+                loginCount
         );
     }
 }
\ No newline at end of file
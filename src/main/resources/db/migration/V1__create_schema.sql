@@ -0,0 +1,64 @@
+-- Tables of the user management API, as previously generated by Hibernate (ddl-auto=update).
+-- IF NOT EXISTS lets databases created that way be adopted: with spring.flyway.baseline-on-migrate
+-- they are baselined at version 0, this script keeps their tables and adds the columns they may
+-- predate, as the entities declare them, before V2 indexes them.
+-- Lookup indexes are created in V2, concurrently.
+
+CREATE TABLE IF NOT EXISTS users (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY,
+    name             varchar(50)  NOT NULL,
+    email            varchar(50)  NOT NULL,
+    email_normalized varchar(50),
+    password         varchar(120) NOT NULL,
+    created_at       timestamp(6),
+    updated_at       timestamp(6),
+    last_seen_at     timestamp(6),
+    login_count      bigint       NOT NULL DEFAULT 0,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT users_email_key UNIQUE (email)
+);
+
+-- Columns added to users after the first schema; the default fills in login_count of existing rows
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_normalized varchar(50);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_seen_at timestamp(6);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS login_count bigint NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    token_hash varchar(64)  NOT NULL,
+    family_id  varchar(36)  NOT NULL,
+    user_id    bigint       NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    used_at    timestamp(6),
+    revoked_at timestamp(6),
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (id),
+    CONSTRAINT refresh_tokens_token_hash_key UNIQUE (token_hash)
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        varchar(36)  NOT NULL,
+    user_id    bigint       NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    revoked_at timestamp(6) NOT NULL,
+    CONSTRAINT revoked_tokens_pkey PRIMARY KEY (jti)
+);
+
+CREATE TABLE IF NOT EXISTS sessions (
+    token_hash varchar(64)  NOT NULL,
+    user_id    bigint       NOT NULL,
+    email      varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    CONSTRAINT sessions_pkey PRIMARY KEY (token_hash)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    key_hash     varchar(64)  NOT NULL,
+    fingerprint  varchar(64)  NOT NULL,
+    status       integer      NOT NULL,
+    content_type varchar(255),
+    body         bytea        NOT NULL,
+    expires_at   timestamp(6) NOT NULL,
+    CONSTRAINT idempotency_records_pkey PRIMARY KEY (key_hash)
+);
@@ -0,0 +1,51 @@
+-- Indexes for every lookup, range scan and cleanup query, built without blocking writes.
+-- CREATE INDEX CONCURRENTLY cannot run in a transaction, so Flyway runs this script outside one
+-- (spring.flyway.mixed lets the DO block below share it).
+-- A build that fails part-way leaves its index INVALID, which IF NOT EXISTS would take as built:
+-- a rerun first drops the INVALID indexes of this script, then IF NOT EXISTS skips the valid ones.
+
+-- Invalid indexes are never read, so dropping one only waits for the table lock, bounded by lock_timeout.
+-- No other build can be in progress: Flyway holds its lock for the whole run.
+DO $$
+DECLARE
+    invalid record;
+BEGIN
+    PERFORM set_config('lock_timeout', '10s', true);
+    FOR invalid IN
+        SELECT c.relname
+          FROM pg_index i
+          JOIN pg_class c ON c.oid = i.indexrelid
+          JOIN pg_namespace n ON n.oid = c.relnamespace
+         WHERE NOT i.indisvalid
+           AND n.nspname = current_schema()
+           AND c.relname IN ('users_email_normalized_key', 'idx_users_created_at', 'idx_users_updated_at',
+                             'idx_refresh_tokens_family_id', 'idx_refresh_tokens_user_id',
+                             'idx_refresh_tokens_expires_at', 'idx_revoked_tokens_revoked_at',
+                             'idx_revoked_tokens_expires_at', 'idx_sessions_user_id',
+                             'idx_sessions_expires_at', 'idx_idempotency_records_expires_at')
+    LOOP
+        RAISE NOTICE 'Dropping invalid index % to rebuild it', invalid.relname;
+        EXECUTE format('DROP INDEX %I', invalid.relname);
+    END LOOP;
+END $$;
+
+-- users: canonical email lookups (unique) and listings or scans by creation and update time
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS users_email_normalized_key ON users (email_normalized);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at ON users (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+-- refresh_tokens: revocation by family and by user, hourly cleanup by expiry
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+-- revoked_tokens: denylist load (unexpired), incremental sync (recently revoked), cleanup
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- sessions: invalidation by user, load and cleanup by expiry
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sessions_user_id ON sessions (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sessions_expires_at ON sessions (expires_at);
+
+-- idempotency_records: cleanup by expiry
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_idempotency_records_expires_at ON idempotency_records (expires_at);
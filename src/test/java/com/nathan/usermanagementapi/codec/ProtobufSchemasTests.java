@@ -0,0 +1,46 @@
+package com.nathan.usermanagementapi.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.nathan.usermanagementapi.dto.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtobufSchemasTests {
+
+    private final ProtobufSchemas schemas = new ProtobufSchemas();
+
+    @Test
+    void roundTripsAListOfUsers() throws Exception {
+        Date now = new Date();
+        ProtobufSchemas.UserList users = new ProtobufSchemas.UserList(List.of(
+                new UserDto(1L, "First User", "first@example.com", now, now, null, 3),
+                new UserDto(2L, "Second User", "second@example.com", now, now, now, 0)));
+        JavaType type = schemas.getMapper().constructType(ProtobufSchemas.UserList.class);
+
+        byte[] encoded = schemas.getMapper().writer(schemas.schemaFor(type)).writeValueAsBytes(users);
+        ProtobufSchemas.UserList decoded = schemas.getMapper().readerFor(type).with(schemas.schemaFor(type)).readValue(encoded);
+
+        assertEquals(users, decoded);
+    }
+
+    @Test
+    void rendersEachMessageOnce() {
+        String proto = schemas.render();
+
+        assertTrue(proto.startsWith("syntax = \"proto2\";"));
+        assertEquals(proto.indexOf("message UserDto {"), proto.lastIndexOf("message UserDto {"));
+        assertTrue(proto.contains("repeated UserDto users = 1;"));
+    }
+
+    @Test
+    void supportsOnlyThePublishedMessageTypes() {
+        assertTrue(schemas.supports(UserDto.class));
+        assertFalse(schemas.supports(Object.class));
+    }
+}
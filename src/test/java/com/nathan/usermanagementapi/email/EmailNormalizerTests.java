@@ -0,0 +1,41 @@
+package com.nathan.usermanagementapi.email;
+
+import com.nathan.usermanagementapi.config.EmailNormalizationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailNormalizerTests {
+
+    private final EmailNormalizer normalizer = new EmailNormalizer(gmailRules());
+
+    @Test
+    void foldsCaseAndTrims() {
+        assertEquals("john.doe+news@example.com", normalizer.normalize("  John.Doe+News@Example.COM "));
+    }
+
+    @Test
+    void appliesProviderRulesAndAliases() {
+        assertEquals("johndoe@gmail.com", normalizer.normalize("John.Doe+news@GoogleMail.com"));
+        assertEquals("johndoe@gmail.com", normalizer.normalize("johndoe@gmail.com"));
+    }
+
+    @Test
+    void keepsALocalPartThatIsOnlyASubaddress() {
+        assertEquals("+news@gmail.com", normalizer.normalize("+news@gmail.com"));
+        assertEquals("not-an-email", normalizer.normalize("Not-An-Email"));
+    }
+
+    private static EmailNormalizationProperties gmailRules() {
+        EmailNormalizationProperties.Provider gmail = new EmailNormalizationProperties.Provider();
+        gmail.setDomains(List.of("gmail.com", "googlemail.com"));
+        gmail.setCanonicalDomain("gmail.com");
+        gmail.setIgnoreDots(true);
+        gmail.setSubaddressSeparator("+");
+        EmailNormalizationProperties properties = new EmailNormalizationProperties();
+        properties.setProviders(List.of(gmail));
+        return properties;
+    }
+}
@@ -0,0 +1,108 @@
+package com.nathan.usermanagementapi.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTests {
+
+    private static final IdempotencyStore.StoredResponse CREATED =
+            new IdempotencyStore.StoredResponse(200, "application/json", "{\"id\":1}".getBytes());
+
+    @Test
+    void duplicatesShareTheFirstExecutionUntilItExpires() {
+        IdempotencyStore store = new IdempotencyStore(10, 10);
+        IdempotencyStore.Claim first = store.claim("user", "key", "request", 0);
+        assertTrue(first.owner());
+
+        IdempotencyStore.Claim duplicate = store.claim("user", "key", "request", 0);
+        assertFalse(duplicate.owner());
+        assertSame(first.execution(), duplicate.execution());
+        assertFalse(duplicate.execution().response().isDone());
+
+        store.complete(first.execution(), CREATED, 1_000);
+        assertArrayEquals(CREATED.body(), duplicate.execution().response().join().body());
+        assertFalse(store.claim("user", "key", "request", 999).owner());
+        assertTrue(store.claim("user", "key", "request", 1_000).owner());
+    }
+
+    @Test
+    void abandoningFreesTheKeyAndWakesDuplicates() {
+        IdempotencyStore store = new IdempotencyStore(10, 10);
+        IdempotencyStore.Claim first = store.claim("user", "key", "request", 0);
+        IdempotencyStore.Claim duplicate = store.claim("user", "key", "request", 0);
+
+        store.abandon("key", first.execution());
+
+        assertNull(duplicate.execution().response().join());
+        assertTrue(store.claim("user", "key", "request", 0).owner());
+    }
+
+    @Test
+    void dropsTheOldestCompletedKeyWhenFull() {
+        IdempotencyStore store = new IdempotencyStore(3, 3);
+        store.complete(store.claim("user", "a", "request", 0).execution(), CREATED, 1_000);
+        store.claim("user", "b", "request", 0);
+        store.complete(store.claim("user", "c", "request", 0).execution(), CREATED, 1_000);
+
+        assertTrue(store.claim("user", "d", "request", 0).owner());
+
+        assertEquals(3, store.size());
+        assertTrue(store.claim("user", "a", "request", 0).owner());
+        assertFalse(store.claim("user", "b", "request", 0).owner());
+        assertFalse(store.claim("user", "d", "request", 0).owner());
+    }
+
+    @Test
+    void refusesNewKeysWhenFullOfKeysInProgress() {
+        IdempotencyStore store = new IdempotencyStore(2, 2);
+        IdempotencyStore.Claim a = store.claim("user", "a", "request", 0);
+        store.claim("other", "b", "request", 0);
+
+        assertNull(store.claim("third", "c", "request", 0).execution());
+
+        store.abandon("a", a.execution());
+        assertTrue(store.claim("third", "c", "request", 0).owner());
+    }
+
+    @Test
+    void aScopeRotatingKeysOnlyCrowdsOutItself() {
+        IdempotencyStore store = new IdempotencyStore(10, 2);
+        store.complete(store.claim("victim", "v", "request", 0).execution(), CREATED, 1_000);
+        for (int i = 0; i < 100; i++) {
+            store.complete(store.claim("attacker", "k" + i, "request", 0).execution(), CREATED, 1_000);
+        }
+
+        assertEquals(3, store.size());
+        assertFalse(store.claim("victim", "v", "request", 0).owner());
+        assertFalse(store.claim("attacker", "k99", "request", 0).owner());
+        assertTrue(store.claim("attacker", "k0", "request", 0).owner());
+    }
+
+    @Test
+    void aScopeFullOfKeysInProgressRunsUnprotected() {
+        IdempotencyStore store = new IdempotencyStore(10, 1);
+        store.claim("user", "a", "request", 0);
+
+        assertNull(store.claim("user", "b", "request", 0).execution());
+        assertTrue(store.claim("other", "c", "request", 0).owner());
+    }
+
+    @Test
+    void expiredKeysFreeTheirScope() {
+        IdempotencyStore store = new IdempotencyStore(10, 1);
+        store.complete(store.claim("user", "a", "request", 0).execution(), CREATED, 1_000);
+        store.claim("other", "b", "request", 0);
+
+        assertEquals(1, store.evictExpired(1_000));
+
+        assertEquals(1, store.size());
+        assertTrue(store.claim("user", "c", "request", 1_000).owner());
+        assertNull(store.claim("user", "d", "request", 1_000).execution());
+    }
+}
@@ -0,0 +1,44 @@
+package com.nathan.usermanagementapi.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitedLoggerTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @BeforeEach
+    void configure() {
+        RateLimitedLogger.configure(1000, 3, 10);
+    }
+
+    @Test
+    void logsBurstThenSamplesAndReportsSuppressedCount() {
+        RateLimitedLogger.KeyState state = new RateLimitedLogger.KeyState();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, state.tryAcquire(0));
+        }
+        for (int i = 0; i < 9; i++) {
+            assertEquals(-1, state.tryAcquire(0));
+        }
+        // The 10th message past the burst is sampled and reports the 9 dropped before it
+        assertEquals(9, state.tryAcquire(0));
+        assertEquals(9, state.totalSuppressed());
+    }
+
+    @Test
+    void newWindowRestoresBurst() {
+        RateLimitedLogger.KeyState state = new RateLimitedLogger.KeyState();
+        for (int i = 0; i < 5; i++) {
+            state.tryAcquire(0);
+        }
+
+        assertEquals(2, state.tryAcquire(SECOND));
+        assertEquals(0, state.tryAcquire(SECOND));
+        assertEquals(0, state.tryAcquire(SECOND));
+        assertEquals(-1, state.tryAcquire(SECOND));
+    }
+}
@@ -0,0 +1,103 @@
+package com.nathan.usermanagementapi.overload;
+
+import com.nathan.usermanagementapi.config.LoadSheddingProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long WINDOW = 100_000_000L;
+
+    private static final long MILLISECOND = 1_000_000L;
+
+    private final LoadSheddingProperties properties = new LoadSheddingProperties();
+
+    @Test
+    void reservesHeadroomForHighPriority() {
+        properties.setInitialLimit(10);
+        properties.setNormalShare(0.8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(false));
+        }
+        assertFalse(limiter.tryAcquire(false));
+        assertTrue(limiter.tryAcquire(true));
+        assertTrue(limiter.tryAcquire(true));
+        assertFalse(limiter.tryAcquire(true));
+
+        limiter.release(-1, 0);
+        assertTrue(limiter.tryAcquire(true));
+    }
+
+    @Test
+    void aRequestCountsAsSeveralUpToTheWholeLimit() {
+        properties.setInitialLimit(10);
+        properties.setNormalShare(0.8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        assertTrue(limiter.tryAcquire(false));
+        assertEquals(4, limiter.tryAcquireMore(false, 4));
+        assertTrue(limiter.tryAcquire(false));
+        assertEquals(-1, limiter.tryAcquireMore(false, 3));
+        assertEquals(6, limiter.inflight());
+
+        // Alone, a request larger than the limit takes all of it
+        limiter.release(-1, 0);
+        limiter.release(5, -1, 0);
+        assertTrue(limiter.tryAcquire(false));
+        assertEquals(7, limiter.tryAcquireMore(false, 99));
+        assertFalse(limiter.tryAcquire(false));
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveBaseline() {
+        properties.setInitialLimit(40);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+        long now = runWindows(limiter, 0, 20, Integer.MAX_VALUE, 2 * MILLISECOND);
+        int steady = limiter.limit();
+
+        runWindows(limiter, now, 20, Integer.MAX_VALUE, 20 * MILLISECOND);
+
+        assertTrue(limiter.limit() < steady, limiter.limit() + " < " + steady);
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlatAndLimitIsUsed() {
+        properties.setInitialLimit(20);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        runWindows(limiter, 0, 20, 16, 2 * MILLISECOND);
+
+        assertTrue(limiter.limit() > 20, String.valueOf(limiter.limit()));
+    }
+
+    @Test
+    void holdsWhenFarBelowTheLimit() {
+        properties.setInitialLimit(40);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        runWindows(limiter, 0, 20, 2, 20 * MILLISECOND);
+
+        assertEquals(40, limiter.limit());
+    }
+
+    // Each window admits up to `concurrency` requests at once, then completes them with `latency`
+    private static long runWindows(AdaptiveConcurrencyLimiter limiter, long now, int windows, int concurrency,
+                                   long latency) {
+        for (int w = 0; w < windows; w++) {
+            int admitted = 0;
+            while (admitted < concurrency && limiter.tryAcquire(false)) {
+                admitted++;
+            }
+            now += WINDOW;
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(latency, now);
+            }
+        }
+        return now;
+    }
+}
@@ -0,0 +1,34 @@
+package com.nathan.usermanagementapi.projection;
+
+import com.nathan.usermanagementapi.exception.InvalidFieldsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserFieldsTests {
+
+    @Test
+    void selectsTheIdAndTheRequestedColumnsInFieldOrder() {
+        UserFields fields = UserFields.parse("email, name");
+
+        assertEquals(List.of(UserFields.Field.NAME, UserFields.Field.EMAIL), fields.selected());
+        assertEquals("SELECT u.id, u.name, u.email FROM User u", fields.selectAll());
+        assertEquals("SELECT u.id, u.name, u.email FROM User u WHERE u.id = :id", fields.selectById());
+    }
+
+    @Test
+    void sharesOneShapePerCombination() {
+        assertSame(UserFields.parse("id,email"), UserFields.parse("email,id,email"));
+        assertSame(UserFields.ALL, UserFields.parse(" "));
+        assertEquals(7, UserFields.ALL.selected().size());
+    }
+
+    @Test
+    void rejectsFieldsUsersDoNotHave() {
+        assertThrows(InvalidFieldsException.class, () -> UserFields.parse("id,password"));
+    }
+}
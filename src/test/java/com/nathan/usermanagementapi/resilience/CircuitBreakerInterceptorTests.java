@@ -0,0 +1,57 @@
+package com.nathan.usermanagementapi.resilience;
+
+import com.nathan.usermanagementapi.config.ResilienceProperties;
+import com.nathan.usermanagementapi.exception.DatabaseUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerInterceptorTests {
+
+    private final CircuitBreaker breaker;
+
+    private final CircuitBreakerInterceptor guard;
+
+    CircuitBreakerInterceptorTests() {
+        ResilienceProperties.CircuitBreaker properties = new ResilienceProperties.CircuitBreaker();
+        properties.setMinimumCalls(2);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenMs(60_000);
+        breaker = new CircuitBreaker("test", properties, System.nanoTime());
+        guard = new CircuitBreakerInterceptor(breaker, null);
+    }
+
+    @Test
+    void poolTimeoutsOpenTheBreakerAndLaterCallsAreNotRun() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(CannotCreateTransactionException.class, () -> guard.execute(() -> {
+                throw new CannotCreateTransactionException("Connection is not available, request timed out");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        AtomicInteger runs = new AtomicInteger();
+        assertThrows(DatabaseUnavailableException.class, () -> guard.execute(runs::incrementAndGet));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void nestedCallsCountOnceForTheOutermostCall() {
+        // Three failed nested calls inside one successful transaction: counted, they would open the breaker
+        guard.execute(() -> {
+            for (int i = 0; i < 3; i++) {
+                assertThrows(CannotCreateTransactionException.class, () -> guard.execute(() -> {
+                    throw new CannotCreateTransactionException("nested");
+                }));
+            }
+            return null;
+        });
+        guard.execute(() -> null);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+}
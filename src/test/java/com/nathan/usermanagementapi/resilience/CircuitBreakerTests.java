@@ -0,0 +1,91 @@
+package com.nathan.usermanagementapi.resilience;
+
+import com.nathan.usermanagementapi.config.ResilienceProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTests {
+
+    private static final long MILLISECOND = 1_000_000L;
+
+    private final ResilienceProperties.CircuitBreaker properties = new ResilienceProperties.CircuitBreaker();
+
+    CircuitBreakerTests() {
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setWindowMs(10_000);
+        properties.setSlowCallMs(100);
+        properties.setOpenMs(1_000);
+        properties.setHalfOpenCalls(2);
+    }
+
+    @Test
+    void opensOnceFailureRateIsReachedWithEnoughCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties, 0);
+
+        call(breaker, 0, false);
+        call(breaker, 0, true);
+        call(breaker, 0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        call(breaker, 0, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(500 * MILLISECOND));
+    }
+
+    @Test
+    void countsSlowCallsAsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties, 0);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire(0));
+            breaker.onResult(150 * MILLISECOND, false, 0);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCalls() {
+        CircuitBreaker breaker = openBreaker();
+        long later = 1_000 * MILLISECOND;
+
+        assertTrue(breaker.tryAcquire(later));
+        assertTrue(breaker.tryAcquire(later));
+        assertFalse(breaker.tryAcquire(later));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onResult(MILLISECOND, false, later);
+        breaker.onResult(MILLISECOND, false, later);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire(later));
+    }
+
+    @Test
+    void reopensWhenATrialCallFails() {
+        CircuitBreaker breaker = openBreaker();
+        long later = 1_000 * MILLISECOND;
+
+        assertTrue(breaker.tryAcquire(later));
+        breaker.onResult(MILLISECOND, true, later);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(later + 500 * MILLISECOND));
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties, 0);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, 0, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, long now, boolean failed) {
+        assertTrue(breaker.tryAcquire(now));
+        breaker.onResult(MILLISECOND, failed, now);
+    }
+}
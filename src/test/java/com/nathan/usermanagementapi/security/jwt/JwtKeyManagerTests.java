@@ -0,0 +1,84 @@
+package com.nathan.usermanagementapi.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.nathan.usermanagementapi.config.JwtSigningProperties;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtKeyManagerTests {
+
+    private static final String SECRET = "YourJWTSecretKeyHereMakeSureThisIsLongEnoughForProduction";
+
+    @Test
+    void publishesTheNextKeyBeforeItSigns() {
+        JwtKeyManager keys = new JwtKeyManager(properties("ES256", 86_400_000), SECRET, 900_000);
+        String kid = keys.signer().kid();
+
+        List<Map<String, Object>> published = jwks(keys);
+        assertEquals(2, published.size());
+        assertEquals(kid, published.get(0).get("kid"));
+        assertEquals("P-256", published.get(0).get("crv"));
+
+        String token = sign(keys);
+        assertEquals(kid, JWT.decode(token).getKeyId());
+        assertNotNull(keys.verifier(kid).verify(token));
+        assertNull(keys.verifier(null));
+    }
+
+    @Test
+    void keepsVerifyingWithTheReplacedKey() {
+        JwtKeyManager keys = new JwtKeyManager(properties("ES256", 0), SECRET, 900_000);
+        String oldKid = keys.signer().kid();
+        String nextKid = (String) jwks(keys).get(1).get("kid");
+        String token = sign(keys);
+
+        keys.rotateIfDue();
+
+        assertEquals(nextKid, keys.signer().kid());
+        assertNotEquals(oldKid, keys.signer().kid());
+        assertEquals(3, jwks(keys).size());
+        assertNotNull(keys.verifier(oldKid).verify(token));
+    }
+
+    @Test
+    void publishesRsaKeysThatVerifyTokens() throws Exception {
+        JwtKeyManager keys = new JwtKeyManager(properties("RS256", 86_400_000), SECRET, 900_000);
+        Map<String, Object> jwk = jwks(keys).get(0);
+
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                new BigInteger(1, decoder.decode((String) jwk.get("n"))),
+                new BigInteger(1, decoder.decode((String) jwk.get("e")))));
+
+        assertNotNull(JWT.require(Algorithm.RSA256(publicKey, null)).build().verify(sign(keys)));
+    }
+
+    private static JwtSigningProperties properties(String algorithm, long rotationMs) {
+        JwtSigningProperties properties = new JwtSigningProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setGeneratedKeyRotationMs(rotationMs);
+        return properties;
+    }
+
+    private static String sign(JwtKeyManager keys) {
+        return JWT.create().withKeyId(keys.signer().kid()).withSubject("user@example.com").sign(keys.signer().algorithm());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> jwks(JwtKeyManager keys) {
+        return (List<Map<String, Object>>) keys.jwks().get("keys");
+    }
+}
@@ -0,0 +1,96 @@
+package com.nathan.usermanagementapi.security.jwt;
+
+import com.nathan.usermanagementapi.exception.InvalidRefreshTokenException;
+import com.nathan.usermanagementapi.model.RefreshToken;
+import com.nathan.usermanagementapi.repository.RefreshTokenRepository;
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTests {
+
+    // token hash -> stored token, standing in for the refresh_tokens table
+    private final Map<String, RefreshToken> table = new HashMap<>();
+
+    private final RefreshTokenService service = new RefreshTokenService();
+
+    RefreshTokenServiceTests() {
+        RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            table.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(repository.findByTokenHash(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        when(repository.revokeFamily(anyString(), any(Date.class))).thenAnswer(invocation -> {
+            int revoked = 0;
+            for (RefreshToken token : table.values()) {
+                if (token.getFamilyId().equals(invocation.getArgument(0)) && token.getRevokedAt() == null) {
+                    token.setRevokedAt(invocation.getArgument(1));
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+        ReflectionTestUtils.setField(service, "refreshTokenRepository", repository);
+        ReflectionTestUtils.setField(service, "refreshExpirationMs", 60_000L);
+    }
+
+    @Test
+    void rotationUsesUpTheTokenAndIssuesTheNextOfItsFamily() {
+        RefreshTokenService.IssuedToken first = service.issue(1L);
+
+        RefreshTokenService.IssuedToken second = service.rotate(first.token());
+
+        assertEquals(1L, second.userId());
+        assertNotEquals(first.token(), second.token());
+        RefreshToken used = stored(first);
+        assertNotNull(used.getUsedAt());
+        assertEquals(used.getFamilyId(), stored(second).getFamilyId());
+        assertNull(stored(second).getUsedAt());
+    }
+
+    @Test
+    void reusingAUsedTokenRevokesItsWholeFamily() {
+        RefreshTokenService.IssuedToken first = service.issue(1L);
+        RefreshTokenService.IssuedToken second = service.rotate(first.token());
+        RefreshTokenService.IssuedToken otherSession = service.issue(1L);
+
+        // The copied first token is replayed: the legitimate holder's current token goes too
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(first.token()));
+
+        assertNotNull(stored(second).getRevokedAt());
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(second.token()));
+        assertNull(stored(otherSession).getRevokedAt());
+        assertNotNull(service.rotate(otherSession.token()));
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() {
+        RefreshTokenService.IssuedToken issued = service.issue(1L);
+        stored(issued).setExpiresAt(new Date(System.currentTimeMillis() - 1));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(issued.token()));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate("unknown"));
+    }
+
+    private RefreshToken stored(RefreshTokenService.IssuedToken issued) {
+        return table.get(OpaqueTokens.hash(issued.token()));
+    }
+}
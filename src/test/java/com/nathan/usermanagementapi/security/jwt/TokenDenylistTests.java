@@ -0,0 +1,96 @@
+package com.nathan.usermanagementapi.security.jwt;
+
+import com.nathan.usermanagementapi.model.RevokedToken;
+import com.nathan.usermanagementapi.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenDenylistTests {
+
+    // Rows of the revoked_tokens table, as recorded by this or another instance
+    private final List<RevokedToken> table = new ArrayList<>();
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TokenDenylist denylist = new TokenDenylist();
+
+    TokenDenylistTests() {
+        when(repository.findByExpiresAtAfter(any(Date.class))).thenAnswer(invocation -> table.stream()
+                .filter(token -> token.getExpiresAt().after(invocation.getArgument(0))).toList());
+        when(repository.findByRevokedAtAfter(any(Date.class))).thenAnswer(invocation -> table.stream()
+                .filter(token -> token.getRevokedAt().after(invocation.getArgument(0))).toList());
+        when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            table.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        ReflectionTestUtils.setField(denylist, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(denylist, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(denylist, "syncIntervalMs", 10_000L);
+    }
+
+    @Test
+    void loadsRevocationsInForceAndPicksUpThoseOfOtherInstances() {
+        String before = revokedElsewhere(60_000);
+        revokedElsewhere(-1_000); // Already expired: not loaded
+        denylist.init();
+        assertTrue(denylist.isRevoked(before));
+        assertEquals(1.0, meterRegistry.get("auth.token.denylist.size").gauge().value());
+
+        String later = revokedElsewhere(60_000);
+        assertFalse(denylist.isRevoked(later));
+        denylist.sync();
+        assertTrue(denylist.isRevoked(later));
+    }
+
+    @Test
+    void revocationsTakeEffectAtOnceAndAreStored() {
+        denylist.init();
+        String jti = UUID.randomUUID().toString();
+
+        denylist.revoke(jti, new Date(System.currentTimeMillis() + 60_000), 1L);
+
+        assertTrue(denylist.isRevoked(jti));
+        assertEquals(1, table.size());
+        assertFalse(denylist.isRevoked(UUID.randomUUID().toString()));
+        assertFalse(denylist.isRevoked(null));
+    }
+
+    @Test
+    void expiredRevocationsAreDroppedByTheNextSync() throws InterruptedException {
+        denylist.init();
+        String jti = UUID.randomUUID().toString();
+        denylist.revoke(jti, new Date(System.currentTimeMillis() + 50), 1L);
+        assertTrue(denylist.isRevoked(jti));
+
+        Thread.sleep(100);
+        assertFalse(denylist.isRevoked(jti));
+        denylist.sync();
+
+        assertEquals(0.0, meterRegistry.get("auth.token.denylist.size").gauge().value());
+        verify(repository, times(2)).deleteExpired(any(Date.class)); // Once per sync, the first at startup
+    }
+
+    private String revokedElsewhere(long expiresInMs) {
+        String jti = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        table.add(new RevokedToken(jti, 1L, new Date(now + expiresInMs), new Date(now)));
+        return jti;
+    }
+}
@@ -0,0 +1,78 @@
+package com.nathan.usermanagementapi.security.ratelimit;
+
+import com.nathan.usermanagementapi.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RateLimiter.Route route;
+
+    private final RateLimiter rateLimiter;
+
+    RateLimiterTests() {
+        // Burst of 2, one token per second, at most 2 clients tracked
+        RateLimitProperties.Route config = new RateLimitProperties.Route();
+        config.setPattern("/api/auth/**");
+        config.setKey(RateLimitProperties.KeyType.IP);
+        config.setCapacity(2);
+        config.setRefillPerSecond(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBucketsPerRoute(2);
+        properties.setRoutes(List.of(config));
+        rateLimiter = new RateLimiter(properties, meterRegistry);
+        route = rateLimiter.match("/api/auth/login");
+    }
+
+    @Test
+    void clientsBeyondTheCapShareTheOverflowBucket() {
+        long now = System.nanoTime();
+        assertTrue(route.tryTake("10.0.0.1", now) >= 0);
+        assertTrue(route.tryTake("10.0.0.2", now) >= 0);
+
+        // Two new clients draw from the same overflow bucket: the third request is rejected
+        assertTrue(route.tryTake("10.0.0.3", now) >= 0);
+        assertTrue(route.tryTake("10.0.0.4", now) >= 0);
+        assertTrue(route.tryTake("10.0.0.5", now) < 0);
+
+        // Tracked clients keep their own bucket
+        assertTrue(route.tryTake("10.0.0.1", now) >= 0);
+        assertEquals(2, route.bucketCount());
+        assertEquals(3, meterRegistry.counter("rate.limit.overflow", "route", "/api/auth/**").count());
+    }
+
+    @Test
+    void aRequestCostingMoreThanTheBurstPassesOnAFullBucket() {
+        long now = System.nanoTime();
+        assertTrue(route.tryTake("10.0.0.1", now) >= 0);
+
+        // Capped at the burst of 2, one of which the request already took
+        assertTrue(route.tryTakeMore("10.0.0.1", now, 50) >= 0);
+        assertTrue(route.tryTakeMore("10.0.0.1", now, 50) < 0);
+        assertTrue(route.tryTake("10.0.0.1", now) < 0);
+        assertTrue(route.tryTakeMore("10.0.0.1", now + 2 * SECOND, 50) >= 0);
+    }
+
+    @Test
+    void theScheduledSweepFreesRoomForNewClients() throws InterruptedException {
+        long now = System.nanoTime();
+        route.tryTake("10.0.0.1", now);
+        route.tryTake("10.0.0.2", now);
+
+        Thread.sleep(1_100); // Both buckets have refilled their single token
+        rateLimiter.evictIdleBuckets();
+
+        assertEquals(0, route.bucketCount());
+        assertTrue(route.tryTake("10.0.0.3", now + 2 * SECOND) >= 0);
+        assertEquals(1, route.bucketCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.nathan.usermanagementapi.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    // Burst of 3, one token per second
+    private final TokenBucket.Limit limit = TokenBucket.Limit.of(3, 1);
+
+    @Test
+    void allowsBurstThenRejectsWithRetryTime() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        assertEquals(2, limit.remaining(bucket.tryTake(limit, 0)));
+        assertEquals(1, limit.remaining(bucket.tryTake(limit, 0)));
+        assertEquals(0, limit.remaining(bucket.tryTake(limit, 0)));
+
+        long rejected = bucket.tryTake(limit, 0);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND, -rejected);
+    }
+
+    @Test
+    void takesSeveralTokensAtOnceOrNone() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        assertEquals(1, limit.remaining(bucket.tryTake(limit, 0, 2)));
+        assertEquals(-SECOND, bucket.tryTake(limit, 0, 2));
+        assertEquals(0, limit.remaining(bucket.tryTake(limit, 0)));
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryTake(limit, 0);
+        }
+
+        assertTrue(bucket.tryTake(limit, SECOND / 2) < 0);
+        assertEquals(0, limit.remaining(bucket.tryTake(limit, SECOND)));
+        assertTrue(bucket.tryTake(limit, SECOND) < 0);
+    }
+
+    @Test
+    void idleBucketIsFullAgain() {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.tryTake(limit, 0);
+
+        assertTrue(!bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND));
+        assertEquals(2, limit.remaining(bucket.tryTake(limit, 10 * SECOND)));
+    }
+}
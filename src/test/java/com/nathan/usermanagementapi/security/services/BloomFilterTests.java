@@ -0,0 +1,46 @@
+package com.nathan.usermanagementapi.security.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    private static final int USERS = 50_000;
+
+    @Test
+    void neverReportsAnAddedEmailAsMissing() {
+        BloomFilter filter = new BloomFilter(USERS, 0.01, 42);
+        for (int i = 0; i < USERS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(USERS, 0.01, 42);
+        for (int i = 0; i < USERS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < USERS; i++) {
+            if (filter.mightContain("stuffed" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < USERS * 0.02, falsePositives + " false positives");
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(USERS, 0.01, 42);
+
+        assertFalse(filter.mightContain("anyone@example.com"));
+    }
+}
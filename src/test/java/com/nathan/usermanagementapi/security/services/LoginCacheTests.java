@@ -0,0 +1,66 @@
+package com.nathan.usermanagementapi.security.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoginCacheTests {
+
+    private final UserDetailsImpl user = new UserDetailsImpl(1L, "User", "user@example.com", "hash",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    private final LoginCache cache = new LoginCache();
+
+    LoginCacheTests() {
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        cache.init();
+    }
+
+    @Test
+    void onlyTheSamePasswordHits() {
+        cache.put("user@example.com", "secret123", user, cache.generation());
+
+        assertEquals(user, cache.get("user@example.com", "secret123"));
+        assertNull(cache.get("user@example.com", "secret124"));
+        assertNull(cache.get("other@example.com", "secret123"));
+    }
+
+    @Test
+    void thePasswordHashIsNotCached() {
+        cache.put("user@example.com", "secret123", user, cache.generation());
+
+        UserDetails cached = cache.get("user@example.com", "secret123");
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(cached.getAuthorities()));
+        assertNull(cached.getPassword());
+    }
+
+    @Test
+    void invalidationDropsTheUsersLogin() {
+        cache.put("user@example.com", "secret123", user, cache.generation());
+
+        cache.invalidateUser(1L);
+
+        assertNull(cache.get("user@example.com", "secret123"));
+    }
+
+    @Test
+    void loginRacingAnInvalidationIsNotCached() {
+        long generation = cache.generation();
+        cache.invalidateUser(1L);
+
+        cache.put("user@example.com", "secret123", user, generation);
+
+        assertNull(cache.get("user@example.com", "secret123"));
+    }
+}
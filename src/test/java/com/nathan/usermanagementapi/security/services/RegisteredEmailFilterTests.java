@@ -0,0 +1,135 @@
+package com.nathan.usermanagementapi.security.services;
+
+import com.nathan.usermanagementapi.config.EmailNormalizationProperties;
+import com.nathan.usermanagementapi.email.EmailNormalizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RegisteredEmailFilterTests {
+
+    private final FakeUsersTable users = new FakeUsersTable();
+
+    private final RegisteredEmailFilter filter = new RegisteredEmailFilter();
+
+    RegisteredEmailFilterTests() {
+        ReflectionTestUtils.setField(filter, "jdbcTemplate", users);
+        ReflectionTestUtils.setField(filter, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "emailNormalizer", new EmailNormalizer(new EmailNormalizationProperties()));
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(filter, "minCapacity", 1_000L);
+        ReflectionTestUtils.setField(filter, "rebuildIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(filter, "maxStaleEntries", 10_000L);
+        ReflectionTestUtils.setField(filter, "checkIntervalMs", 5_000L);
+        filter.init();
+    }
+
+    @Test
+    void rowsInsertedByAnotherWriterArePickedUpByTheNextCheck() {
+        users.insert("existing@example.com", null);
+        filter.refresh();
+
+        // Seeded straight into the table, as another instance or the load test does
+        users.insert("Seeded@Example.com", null);
+        assertFalse(filter.mightBeRegistered("seeded@example.com"));
+
+        filter.refresh();
+        assertTrue(filter.mightBeRegistered("seeded@example.com"));
+        assertTrue(filter.mightBeRegistered("existing@example.com"));
+    }
+
+    @Test
+    void emailsChangedByAnotherWriterArePickedUpByTheNextCheck() {
+        users.insert("old@example.com", null);
+        filter.refresh();
+
+        // An older row whose email changed elsewhere: only its update time tells
+        users.rows.get(0).email = "new@example.com";
+        users.rows.get(0).updatedAt = new Timestamp(System.currentTimeMillis());
+        filter.refresh();
+
+        assertTrue(filter.mightBeRegistered("new@example.com"));
+    }
+
+    /**
+     * Stands in for the users table scanned by the rebuild and the checks.
+     */
+    private static final class FakeUsersTable extends JdbcTemplate {
+
+        private static final class Row {
+
+            private final long id;
+
+            private String email;
+
+            private Timestamp updatedAt;
+
+            private Row(long id, String email, Timestamp updatedAt) {
+                this.id = id;
+                this.email = email;
+                this.updatedAt = updatedAt;
+            }
+        }
+
+        private final List<Row> rows = new ArrayList<>();
+
+        void insert(String email, Timestamp updatedAt) {
+            rows.add(new Row(rows.size() + 1, email, updatedAt));
+        }
+
+        @Override
+        public void execute(String sql) {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return (T) Long.valueOf(rows.size());
+        }
+
+        @Override
+        public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+            scan(row -> true, rch);
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            long afterId = (Long) args[0];
+            Timestamp since = (Timestamp) args[1];
+            scan(row -> row.id > afterId || (row.updatedAt != null && row.updatedAt.after(since)), rch);
+        }
+
+        private void scan(Predicate<Row> condition, RowCallbackHandler rch) {
+            try {
+                for (Row row : rows) {
+                    if (condition.test(row)) {
+                        ResultSet resultSet = mock(ResultSet.class);
+                        when(resultSet.getLong(1)).thenReturn(row.id);
+                        when(resultSet.getString(2)).thenReturn(row.email);
+                        rch.processRow(resultSet);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nathan.usermanagementapi.security.session;
+
+import com.nathan.usermanagementapi.security.OpaqueTokens;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionStoreTests {
+
+    private final SessionStore store = new SessionStore(4);
+
+    @Test
+    void treatsExpiredSessionsAsMissingAndEvictsThem() {
+        store.put("live", new SessionStore.Session(1L, "a@example.com", 2_000));
+        store.put("expired", new SessionStore.Session(2L, "b@example.com", 1_000));
+
+        assertNotNull(store.get("live", 1_500));
+        assertNull(store.get("expired", 1_500));
+
+        store.put("expired", new SessionStore.Session(2L, "b@example.com", 1_000));
+        assertEquals(1, store.evictExpired(1_500));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void removesEverySessionOfAUser() {
+        store.put("first", new SessionStore.Session(1L, "a@example.com", 2_000));
+        store.put("second", new SessionStore.Session(1L, "a@example.com", 2_000));
+        store.put("other", new SessionStore.Session(2L, "b@example.com", 2_000));
+
+        assertEquals(2, store.removeUser(1L));
+        assertNull(store.get("first", 0));
+        assertNotNull(store.get("other", 0));
+    }
+
+    @Test
+    void resolvesRestoredSessionsByTokenHash() {
+        String token = OpaqueTokens.generate();
+        store.restore(OpaqueTokens.hash(token), new SessionStore.Session(1L, "a@example.com", 2_000));
+
+        assertNull(store.get(OpaqueTokens.generate(), 0));
+        assertEquals(1L, store.get(token, 0).userId());
+        assertEquals(1L, store.get(token, 0).userId());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void aRevocationRacingTheFirstUseOfARestoredSessionSticks() throws Exception {
+        for (int i = 0; i < 2_000; i++) {
+            SessionStore store = new SessionStore(4);
+            String token = OpaqueTokens.generate();
+            store.restore(OpaqueTokens.hash(token), new SessionStore.Session(1L, "a@example.com", 2_000));
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread lookup = new Thread(() -> {
+                awaitQuietly(start);
+                store.get(token, 0);
+            });
+            lookup.start();
+            start.countDown();
+            store.removeUser(1L);
+            lookup.join();
+
+            assertNull(store.get(token, 0));
+            assertEquals(0, store.size());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.nathan.usermanagementapi.service.batch;
+
+import com.nathan.usermanagementapi.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SignupGroupCommitterTests {
+
+    private final FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+
+    private final SignupGroupCommitter committer = new SignupGroupCommitter();
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        jdbcTemplate.release.countDown();
+        committer.stop();
+    }
+
+    @Test
+    void aFailingRowFailsOnlyItsOwnSignup() {
+        start(500, 3, 10_000);
+
+        CompletableFuture<User> first = signupAsync("First", "first@example.com");
+        CompletableFuture<User> bad = signupAsync("bad", "bad@example.com");
+        CompletableFuture<User> second = signupAsync("Second", "second@example.com");
+
+        assertNotNull(first.join().getId());
+        assertNotNull(second.join().getId());
+        Throwable failure = assertThrows(Exception.class, bad::join).getCause();
+        assertTrue(failure instanceof DataIntegrityViolationException);
+        // One statement for the batch, then one per row
+        assertEquals(List.of(3, 1, 1, 1), jdbcTemplate.statementRows);
+        assertEquals(Set.of("first@example.com", "second@example.com"), jdbcTemplate.inserted.keySet());
+    }
+
+    @Test
+    void aTimedOutSignupIsWithdrawnUnlessAlreadyBeingWritten() throws Exception {
+        start(1, 128, 200);
+        jdbcTemplate.blockWrites = true;
+
+        CompletableFuture<User> writing = signupAsync("Writing", "writing@example.com");
+        assertTrue(jdbcTemplate.writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<User> queued = signupAsync("Queued", "queued@example.com");
+
+        Throwable timeout = assertThrows(Exception.class, queued::join).getCause();
+        assertTrue(timeout instanceof IllegalStateException);
+        assertFalse(writing.isDone());
+
+        jdbcTemplate.release.countDown();
+        assertNotNull(writing.get(5, TimeUnit.SECONDS).getId());
+        committer.stop();
+        assertEquals(Set.of("writing@example.com"), jdbcTemplate.inserted.keySet());
+    }
+
+    @Test
+    void signupsAfterShutdownFailImmediately() throws InterruptedException {
+        start(1, 128, 10_000);
+        committer.stop();
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> committer.insert(user("Late", "late@example.com")));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void start(long maxWaitMs, int maxBatchSize, long callerTimeoutMs) {
+        ReflectionTestUtils.setField(committer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(committer, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(committer, "enabled", true);
+        ReflectionTestUtils.setField(committer, "maxWaitMs", maxWaitMs);
+        ReflectionTestUtils.setField(committer, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(committer, "callerTimeoutMs", callerTimeoutMs);
+        committer.start();
+    }
+
+    private CompletableFuture<User> signupAsync(String name, String email) {
+        return CompletableFuture.supplyAsync(() -> committer.insert(user(name, email)));
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setEmailNormalized(email);
+        user.setPassword("hash");
+        return user;
+    }
+
+    /**
+     * Stands in for the database: rejects any statement containing a user named "bad" and
+     * skips canonical emails already inserted.
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+
+        private final Map<String, Long> inserted = new ConcurrentHashMap<>();
+
+        private final List<Integer> statementRows = new CopyOnWriteArrayList<>();
+
+        private final AtomicLong ids = new AtomicLong();
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private volatile boolean blockWrites;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            statementRows.add(args.length / 6);
+            if (blockWrites) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (int i = 0; i < args.length; i += 6) {
+                if ("bad".equals(args[i])) {
+                    throw new DataIntegrityViolationException("value too long for type character varying(50)");
+                }
+            }
+            List<Map.Entry<String, Long>> rows = new ArrayList<>();
+            for (int i = 0; i < args.length; i += 6) {
+                String normalized = (String) args[i + 2];
+                if (!inserted.containsKey(normalized)) {
+                    long id = ids.incrementAndGet();
+                    inserted.put(normalized, id);
+                    rows.add(Map.entry(normalized, id));
+                }
+            }
+            return (List<T>) rows;
+        }
+    }
+}
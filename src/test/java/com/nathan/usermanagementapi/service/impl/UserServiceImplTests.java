@@ -0,0 +1,153 @@
+package com.nathan.usermanagementapi.service.impl;
+
+import com.nathan.usermanagementapi.dto.BatchOperation;
+import com.nathan.usermanagementapi.dto.BatchRequest;
+import com.nathan.usermanagementapi.dto.BatchResponse;
+import com.nathan.usermanagementapi.dto.BatchResult;
+import com.nathan.usermanagementapi.dto.UpdateUserRequest;
+import com.nathan.usermanagementapi.model.User;
+import com.nathan.usermanagementapi.repository.UserRepository;
+import com.nathan.usermanagementapi.resilience.CircuitBreakerInterceptor;
+import com.nathan.usermanagementapi.security.jwt.RefreshTokenService;
+import com.nathan.usermanagementapi.security.services.LoginCache;
+import com.nathan.usermanagementapi.security.services.RegisteredEmailFilter;
+import com.nathan.usermanagementapi.security.session.SessionTokenService;
+import com.nathan.usermanagementapi.service.activity.UserActivityTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+
+    private final UserServiceImpl userService = new UserServiceImpl();
+
+    UserServiceImplTests() {
+        CircuitBreakerInterceptor guard = mock(CircuitBreakerInterceptor.class);
+        when(guard.execute(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user(3L)));
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(userService, "crudTransactionGuard", guard);
+        ReflectionTestUtils.setField(userService, "activityTracker", mock(UserActivityTracker.class));
+        ReflectionTestUtils.setField(userService, "registeredEmailFilter", mock(RegisteredEmailFilter.class));
+        ReflectionTestUtils.setField(userService, "refreshTokenService", mock(RefreshTokenService.class));
+        ReflectionTestUtils.setField(userService, "sessionTokenService", mock(SessionTokenService.class));
+        ReflectionTestUtils.setField(userService, "loginCache", mock(LoginCache.class));
+        userService.init();
+    }
+
+    @Test
+    void anAtomicBatchRollsBackAtTheFirstFailure() {
+        BatchResponse response = userService.executeBatch(new BatchRequest(List.of(
+                update(1L), delete(2L), get(3L)), true));
+
+        assertFalse(response.isCommitted());
+        assertEquals(List.of(424, 404, 424), statuses(response));
+        assertEquals("Rolled back: operation 1 failed", response.getResults().get(0).getMessage());
+        assertEquals("Not run: operation 1 failed", response.getResults().get(2).getMessage());
+        assertTrue(response.getResults().stream().noneMatch(BatchResult::isCommitted));
+        assertEquals(0, transactionManager.commits);
+        assertEquals(1, transactionManager.rollbacks);
+        verify(userRepository, never()).findById(3L);
+    }
+
+    @Test
+    void anAtomicBatchCommitsAllOperationsTogether() {
+        BatchResponse response = userService.executeBatch(new BatchRequest(List.of(update(1L), get(3L)), true));
+
+        assertTrue(response.isCommitted());
+        assertEquals(List.of(200, 200), statuses(response));
+        assertTrue(response.getResults().stream().allMatch(BatchResult::isCommitted));
+        assertEquals(1, transactionManager.commits);
+    }
+
+    @Test
+    void aNonAtomicBatchCommitsTheOperationsThatSucceed() {
+        BatchResponse response = userService.executeBatch(new BatchRequest(List.of(
+                update(1L), delete(2L), get(3L)), false));
+
+        assertFalse(response.isCommitted());
+        assertEquals(List.of(200, 404, 200), statuses(response));
+        assertEquals(List.of(true, false, true),
+                response.getResults().stream().map(BatchResult::isCommitted).toList());
+        assertEquals(2, transactionManager.commits);
+        assertEquals(1, transactionManager.rollbacks);
+        verify(userRepository).findById(3L);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    private static BatchOperation get(Long id) {
+        return new BatchOperation(BatchOperation.Type.GET, id, null);
+    }
+
+    private static BatchOperation update(Long id) {
+        return new BatchOperation(BatchOperation.Type.UPDATE, id, new UpdateUserRequest("Renamed", null, null));
+    }
+
+    private static BatchOperation delete(Long id) {
+        return new BatchOperation(BatchOperation.Type.DELETE, id, null);
+    }
+
+    private static List<Integer> statuses(BatchResponse response) {
+        return response.getResults().stream().map(BatchResult::getStatus).toList();
+    }
+
+    /**
+     * A transaction manager without resources that counts commits and rollbacks.
+     */
+    private static final class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private int commits;
+
+        private int rollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+    }
+}